@@ -0,0 +1,229 @@
+package com.sporty.eventstream.client;
+
+import com.sporty.eventstream.exception.ProviderOverloadedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive limit on concurrent calls to the external provider (TCP Vegas style).
+ * <p>
+ * The no-load RTT is the lowest latency seen recently. When the observed RTT grows above it, the
+ * estimated queue at the provider ({@code limit * (1 - rttNoLoad / rtt)}) grows and the limit shrinks;
+ * while the queue stays small the limit grows. Timeouts and 5xx/429 responses cut the limit by 10%.
+ * An optional token bucket caps the request rate independently of concurrency.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double DROP_DECREASE_FACTOR = 0.9;
+    private static final double RTT_EWMA_WEIGHT = 0.1;
+
+    /**
+     * Pass to {@link #release(long, boolean)} to return a slot without recording latency.
+     */
+    public static final long NO_SAMPLE = Long.MIN_VALUE;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long acquireTimeoutNanos;
+    private final double smoothing;
+    private final int probeIntervalSamples;
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long rttNoLoadNanos;
+    private double smoothedRttNanos;
+    private int samplesUntilProbe;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${external.api.concurrency-limit.enabled:false}") boolean enabled,
+                                      @Value("${external.api.concurrency-limit.initial-limit:20}") int initialLimit,
+                                      @Value("${external.api.concurrency-limit.min-limit:1}") int minLimit,
+                                      @Value("${external.api.concurrency-limit.max-limit:200}") int maxLimit,
+                                      @Value("${external.api.concurrency-limit.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+                                      @Value("${external.api.concurrency-limit.smoothing:0.2}") double smoothing,
+                                      @Value("${external.api.concurrency-limit.probe-interval-samples:1000}") int probeIntervalSamples,
+                                      @Value("${external.api.rate-limit.permits-per-second:0}") double permitsPerSecond,
+                                      @Value("${external.api.rate-limit.burst:50}") int burst) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        this.smoothing = smoothing;
+        this.probeIntervalSamples = probeIntervalSamples;
+        this.samplesUntilProbe = probeIntervalSamples;
+        this.rateLimiter = permitsPerSecond > 0 ? new TokenBucketRateLimiter(permitsPerSecond, burst) : null;
+
+        Gauge.builder("events.provider.concurrency.limit", this, AdaptiveConcurrencyLimiter::currentLimit)
+                .description("Current adaptive concurrency limit for the external provider")
+                .register(meterRegistry);
+        Gauge.builder("events.provider.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .register(meterRegistry);
+        Gauge.builder("events.provider.rtt.no-load", this, l -> l.rttNoLoadNanos / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("events.provider.rtt.smoothed", this, l -> l.smoothedRttNanos / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Waits for a free slot under the current limit (and a rate token, if capped).
+     *
+     * @return start timestamp to pass to {@link #release(long, boolean)}
+     * @throws ProviderOverloadedException if no slot became available within the acquire timeout
+     */
+    public long acquire() {
+        if (!enabled) {
+            return System.nanoTime();
+        }
+
+        long deadline = System.nanoTime() + acquireTimeoutNanos;
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ProviderOverloadedException("Provider concurrency limit " + (int) limit + " reached");
+                }
+                permitReleased.awaitNanos(remaining);
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderOverloadedException("Interrupted while waiting for provider concurrency slot");
+        } finally {
+            lock.unlock();
+        }
+
+        if (rateLimiter != null) {
+            try {
+                if (!rateLimiter.tryAcquire(Math.max(0, deadline - System.nanoTime()))) {
+                    release(NO_SAMPLE, false);
+                    throw new ProviderOverloadedException("Provider rate limit reached");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                release(NO_SAMPLE, false);
+                throw new ProviderOverloadedException("Interrupted while waiting for provider rate limit");
+            }
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Returns the slot and feeds the call latency into the limit.
+     *
+     * @param startNanos value returned by {@link #acquire()}, or {@link #NO_SAMPLE}
+     * @param dropped    true if the call timed out or the provider signalled overload
+     */
+    public void release(long startNanos, boolean dropped) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            int inFlightAtCompletion = inFlight;
+            inFlight--;
+            if (startNanos != NO_SAMPLE) {
+                onSample(System.nanoTime() - startNanos, inFlightAtCompletion, dropped);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of calls that can start right now without waiting.
+     */
+    public int availablePermits() {
+        lock.lock();
+        try {
+            return Math.max(0, (int) limit - inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int currentLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+        smoothedRttNanos = smoothedRttNanos == 0
+                ? rttNanos
+                : smoothedRttNanos + RTT_EWMA_WEIGHT * (rttNanos - smoothedRttNanos);
+
+        // periodically forget the baseline so a permanently slower provider is re-learned
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = probeIntervalSamples;
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+        if (rttNoLoadNanos == 0 || rttNanos < rttNoLoadNanos) {
+            rttNoLoadNanos = rttNanos;
+            return;
+        }
+
+        double newLimit;
+        if (dropped) {
+            newLimit = limit * DROP_DECREASE_FACTOR;
+        } else if (inFlightAtCompletion * 2 < limit) {
+            return; // not using the limit, no signal
+        } else {
+            double step = Math.max(1, Math.log10(limit));
+            double queue = Math.ceil(limit * (1 - (double) rttNoLoadNanos / rttNanos));
+            if (queue <= step) {
+                newLimit = limit + 6 * step;
+            } else if (queue < 3 * step) {
+                newLimit = limit + step;
+            } else if (queue > 6 * step) {
+                newLimit = limit - step;
+            } else {
+                return;
+            }
+        }
+
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        double previous = limit;
+        limit = dropped ? newLimit : (1 - smoothing) * limit + smoothing * newLimit;
+        if ((int) previous != (int) limit) {
+            log.debug("Provider concurrency limit {} -> {} (rtt={}us, noLoadRtt={}us, dropped={})",
+                    (int) previous, (int) limit, rttNanos / 1000, rttNoLoadNanos / 1000, dropped);
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package com.sporty.eventstream.client;
 
+import com.sporty.eventstream.logging.TraceIdClientInterceptor;
 import com.sporty.eventstream.model.response.EventScoreResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
@@ -20,33 +32,105 @@ public class ExternalServiceEventScoreClient {
 
     private final RestTemplate restTemplate;
     private final String baseUrl;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final HedgingPolicy hedgingPolicy;
+    private final boolean streamingParse;
+    private final boolean conditionalRequests;
+    private final int maxValidatorEntries;
+    private final ScoreResponseParser scoreParser = new ScoreResponseParser();
+    // last ETag / Last-Modified per event, sent back as If-None-Match / If-Modified-Since
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+    private final Counter notModified;
 
     public ExternalServiceEventScoreClient(RestTemplateBuilder restTemplateBuilder,
+                                           AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                           HedgingPolicy hedgingPolicy,
+                                           MeterRegistry meterRegistry,
                                            @Value("${external.api.base-url}") String baseUrl,
                                            @Value("${external.api.connect-timeout-ms:1000}") long connectTimeoutMs,
-                                           @Value("${external.api.read-timeout-ms:2000}") long readTimeoutMs) {
+                                           @Value("${external.api.read-timeout-ms:2000}") long readTimeoutMs,
+                                           @Value("${external.api.streaming-parse:true}") boolean streamingParse,
+                                           @Value("${external.api.conditional-requests.enabled:false}") boolean conditionalRequests,
+                                           @Value("${external.api.conditional-requests.max-entries:100000}") int maxValidatorEntries) {
         this.baseUrl = baseUrl;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.hedgingPolicy = hedgingPolicy;
+        this.streamingParse = streamingParse;
+        this.conditionalRequests = conditionalRequests;
+        this.maxValidatorEntries = maxValidatorEntries;
+        this.notModified = Counter.builder("events.provider.not-modified")
+                .description("Provider calls answered with 304 Not Modified")
+                .register(meterRegistry);
         this.restTemplate = restTemplateBuilder
                 .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
                 .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .additionalInterceptors(new TraceIdClientInterceptor())
                 .build();
     }
 
     @Retryable(
-            retryFor = {RestClientException.class},
+            retryFor = {RestClientException.class, HttpClientErrorException.TooManyRequests.class},
+            noRetryFor = {HttpClientErrorException.class}, // other 4xx: same request, same answer
             maxAttempts = 3,
             backoff = @Backoff(delay = 100,
                     multiplier = 2.0,
                     maxDelay = 1000)
     )
     public String fetchScore(String eventId) {
+        return fetchScoreOnce(eventId);
+    }
+
+    /**
+     * Single attempt without {@link Retryable}, for callers that schedule their own retries.
+     *
+     * @return the score, or null if the provider answered 304 Not Modified to a conditional request
+     */
+    public String fetchScoreOnce(String eventId) {
         String url = baseUrl + "/events/" + eventId;
         log.debug("Attempting to fetch score for event {} from {}", eventId, url);
 
         try {
+            return hedgingPolicy.execute(() -> doFetch(eventId, url));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Score fetch failed for event " + eventId, e);
+        }
+    }
+
+    private String doFetch(String eventId, String url) {
+        long permit = concurrencyLimiter.acquire();
+        boolean overloaded = false;
+        try {
+            if (streamingParse) {
+                String score = restTemplate.execute(url, HttpMethod.GET,
+                        request -> prepare(eventId, request.getHeaders()),
+                        response -> {
+                            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                                return notModified(eventId);
+                            }
+                            String parsed = scoreParser.parseCurrentScore(response.getBody());
+                            if (parsed == null) {
+                                log.error("External API returned empty/invalid body for event {}", eventId);
+                                throw new IllegalStateException("Invalid response body from external API for event " + eventId);
+                            }
+                            remember(eventId, response.getHeaders());
+                            return parsed;
+                        });
+                if (score != null) {
+                    log.debug("Successfully fetched score for event {}: {}", eventId, score);
+                }
+                return score;
+            }
+
+            HttpHeaders requestHeaders = new HttpHeaders();
+            prepare(eventId, requestHeaders);
             ResponseEntity<EventScoreResponse> responseEntity =
-                    restTemplate.getForEntity(url, EventScoreResponse.class);
+                    restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(requestHeaders), EventScoreResponse.class);
 
+            if (responseEntity.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                return notModified(eventId);
+            }
             if (!responseEntity.getStatusCode().is2xxSuccessful()) {
                 log.error("External API returned non-2xx for event {}: status={}",
                         eventId, responseEntity.getStatusCode());
@@ -59,15 +143,67 @@ public class ExternalServiceEventScoreClient {
                 throw new IllegalStateException("Invalid response body from external API for event " + eventId);
             }
 
+            remember(eventId, responseEntity.getHeaders());
             log.debug("Successfully fetched score for event {}: {}", eventId, body.currentScore());
             return body.currentScore();
         } catch (RestClientResponseException e) {
+            overloaded = e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429;
             log.error("External API error for event {}: status={}, body={}",
                     eventId, e.getStatusCode().value(), e.getResponseBodyAsString(), e);
             throw e;
         } catch (RestClientException e) {
+            overloaded = true; // timeouts and I/O errors
             log.error("Error calling external API for event {} at URL {}", eventId, url, e);
             throw e;
+        } finally {
+            concurrencyLimiter.release(permit, overloaded);
+        }
+    }
+
+    /**
+     * Drops the stored validators of an event, so the next call fetches the full score. Callers use it when
+     * a fetched score was not published: a 304 on the next call would otherwise hide the change.
+     */
+    public void forgetValidators(String eventId) {
+        validators.remove(eventId);
+    }
+
+    private void prepare(String eventId, HttpHeaders headers) {
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        Validators known = conditionalRequests ? validators.get(eventId) : null;
+        if (known == null) {
+            return;
+        }
+        if (known.etag() != null) {
+            headers.setIfNoneMatch(known.etag());
+        }
+        if (known.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, known.lastModified());
+        }
+    }
+
+    private void remember(String eventId, HttpHeaders headers) {
+        if (!conditionalRequests) {
+            return;
         }
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (etag == null && lastModified == null) {
+            validators.remove(eventId);
+            return;
+        }
+        if (validators.size() >= maxValidatorEntries && !validators.containsKey(eventId)) {
+            validators.clear(); // stopped events leave entries behind; costs one full fetch per event
+        }
+        validators.put(eventId, new Validators(etag, lastModified));
+    }
+
+    private String notModified(String eventId) {
+        notModified.increment();
+        log.debug("Score for event {} not modified", eventId);
+        return null;
+    }
+
+    private record Validators(String etag, String lastModified) {
     }
 }
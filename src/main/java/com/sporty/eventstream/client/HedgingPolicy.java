@@ -0,0 +1,215 @@
+package com.sporty.eventstream.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged requests: if a call has not completed after the configured percentile of recent latency,
+ * a second identical call is started and the first successful result wins; the other one is cancelled.
+ * <p>
+ * Every primary call earns {@code budget-percent / 100} of a hedge token and every hedge spends one,
+ * so hedges never exceed that share of primary traffic. Cancellation interrupts the losing worker
+ * thread; a blocking socket read still ends at the read timeout at the latest.
+ */
+@Slf4j
+@Component
+public class HedgingPolicy {
+
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final int MIN_SAMPLES = 100;
+    private static final double MAX_BUDGET_TOKENS = 10;
+
+    private final AsyncTaskExecutor executor;
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budgetPerRequest;
+
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long latencyCount;
+    private int latencyIndex;
+    private volatile long hedgeDelayNanos = Long.MAX_VALUE;
+    private double budgetTokens;
+
+    public HedgingPolicy(@Qualifier("hedgeExecutor") AsyncTaskExecutor executor,
+                         MeterRegistry meterRegistry,
+                         @Value("${external.api.hedging.enabled:false}") boolean enabled,
+                         @Value("${external.api.hedging.percentile:0.95}") double percentile,
+                         @Value("${external.api.hedging.min-delay-ms:50}") long minDelayMs,
+                         @Value("${external.api.hedging.budget-percent:5}") double budgetPercent) {
+        this.executor = executor;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.budgetPerRequest = budgetPercent / 100.0;
+
+        this.requests = Counter.builder("events.provider.hedge.requests")
+                .description("Provider calls eligible for hedging")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("events.provider.hedge.issued")
+                .description("Hedge requests sent")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("events.provider.hedge.wins")
+                .description("Hedge requests that returned before the primary")
+                .register(meterRegistry);
+        Gauge.builder("events.provider.hedge.rate", this, p -> ratio(p.hedges.count(), p.requests.count()))
+                .register(meterRegistry);
+        Gauge.builder("events.provider.hedge.win-rate", this, p -> ratio(p.hedgeWins.count(), p.hedges.count()))
+                .register(meterRegistry);
+        Gauge.builder("events.provider.hedge.delay", this, p -> p.hedgeDelayNanos == Long.MAX_VALUE ? 0 : p.hedgeDelayNanos / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Callable<T> call) throws Exception {
+        if (!enabled) {
+            return call.call();
+        }
+
+        requests.increment();
+        earnBudget();
+
+        Race<T> race = new Race<>();
+        Attempt primary = submit(call, race);
+
+        try {
+            return race.result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            if (!spendBudget()) {
+                return await(race, primary, null);
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        hedges.increment();
+        Attempt hedge = submit(call, race);
+        log.debug("Hedging slow provider call after {}ms", TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos));
+        return await(race, primary, hedge);
+    }
+
+    private <T> T await(Race<T> race, Attempt primary, Attempt hedge) throws Exception {
+        try {
+            T value = race.result.get();
+            if (hedge != null && race.winner.get() == hedge) {
+                hedgeWins.increment();
+            }
+            return value;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            primary.future.cancel(true);
+            if (hedge != null) {
+                hedge.future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Runs one attempt; the result fails only once every started attempt has failed.
+     */
+    private <T> Attempt submit(Callable<T> call, Race<T> race) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Attempt attempt = new Attempt();
+        race.started.incrementAndGet();
+        attempt.future = executor.submit(() -> {
+            // a saturated pool runs the attempt on the caller, whose context must survive it
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            long start = System.nanoTime();
+            try {
+                T value = call.call();
+                recordLatency(System.nanoTime() - start);
+                if (race.winner.compareAndSet(null, attempt)) {
+                    race.result.complete(value);
+                }
+            } catch (Throwable e) {
+                if (race.failures.incrementAndGet() >= race.started.get()) {
+                    race.result.completeExceptionally(e);
+                }
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        });
+        return attempt;
+    }
+
+    private synchronized void earnBudget() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + budgetPerRequest);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budgetTokens < 1) {
+            return false;
+        }
+        budgetTokens -= 1;
+        return true;
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[latencyIndex] = nanos;
+        latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+        latencyCount++;
+        if (latencyCount >= MIN_SAMPLES && latencyCount % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+            Arrays.sort(sorted);
+            long value = sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))];
+            hedgeDelayNanos = Math.max(minDelayNanos, value);
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception ex) {
+            return ex;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return e;
+    }
+
+    private static double ratio(double part, double total) {
+        return total == 0 ? 0 : part / total;
+    }
+
+    private static final class Race<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicReference<Attempt> winner = new AtomicReference<>();
+        private final AtomicInteger started = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+    }
+
+    private static final class Attempt {
+        private volatile Future<?> future;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sporty.eventstream.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Extracts {@code currentScore} from a provider response without binding the whole body.
+ * <p>
+ * The parser streams the bytes through Jackson's thread-local recycled buffers, skips every other
+ * field, and returns a shared {@code String} for single-digit scores ({@code "h:a"}), so the common
+ * case allocates little more than the parser itself.
+ */
+public class ScoreResponseParser {
+
+    private static final String FIELD = "currentScore";
+    private static final String[] SINGLE_DIGIT_SCORES = new String[100];
+
+    static {
+        for (int home = 0; home < 10; home++) {
+            for (int away = 0; away < 10; away++) {
+                SINGLE_DIGIT_SCORES[home * 10 + away] = home + ":" + away;
+            }
+        }
+    }
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * @return the score, or null if the body has no string {@code currentScore} field
+     */
+    public String parseCurrentScore(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean match = FIELD.equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (match && value == JsonToken.VALUE_STRING) {
+                    return text(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        if (parser.getTextLength() == 3) {
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            char home = chars[offset];
+            char away = chars[offset + 2];
+            if (chars[offset + 1] == ':' && isDigit(home) && isDigit(away)) {
+                return SINGLE_DIGIT_SCORES[(home - '0') * 10 + (away - '0')];
+            }
+        }
+        return parser.getText();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
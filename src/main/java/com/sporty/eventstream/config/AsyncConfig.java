@@ -1,8 +1,10 @@
 package com.sporty.eventstream.config;
 
+import com.sporty.eventstream.scheduler.ExecutorLoadSampler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
@@ -21,9 +23,30 @@ public class AsyncConfig {
     @Value("${events.task-processor-queue-capacity:200}")
     private int queueCapacity;
 
+    @Value("${events.scheduler-pool-size:2}")
+    private int schedulerPoolSize;
 
+    @Value("${events.sse.dispatch-pool-size:4}")
+    private int sseDispatchPoolSize;
+
+    @Value("${events.sse.max-subscribers:10000}")
+    private int sseMaxSubscribers;
+
+    @Value("${external.api.hedging.pool-size:64}")
+    private int hedgePoolSize;
+
+    @Bean
+    public ExecutorLoadSampler executorLoadSampler() {
+        return new ExecutorLoadSampler();
+    }
+
+    /**
+     * Worker pool for task processing. Core and max size are the starting point; with
+     * {@code events.executor.auto-tune.enabled} {@link com.sporty.eventstream.scheduler.ExecutorAutoTuner}
+     * resizes the pool at runtime.
+     */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(ExecutorLoadSampler executorLoadSampler) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(poolSize);
         executor.setMaxPoolSize(maxPoolSize);
@@ -31,6 +54,40 @@ public class AsyncConfig {
         executor.setThreadNamePrefix("task-processor-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
+        executor.setRejectedExecutionHandler(new WorkerRejectionPolicy());
+        executor.setTaskDecorator(executorLoadSampler);
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes pre-encoded SSE frames to subscribers.
+     * At most one drain task per subscriber is queued, so the queue is bounded by the subscriber limit.
+     */
+    @Bean(name = "sseDispatchExecutor")
+    public Executor sseDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(sseDispatchPoolSize);
+        executor.setMaxPoolSize(sseDispatchPoolSize);
+        executor.setQueueCapacity(sseMaxSubscribers);
+        executor.setThreadNamePrefix("sse-dispatch-");
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs provider calls when hedging is enabled, so the caller can wait on the primary and the hedge together.
+     * Falls back to the caller thread when saturated rather than failing the fetch.
+     */
+    @Bean(name = "hedgeExecutor")
+    public ThreadPoolTaskExecutor hedgeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hedgePoolSize);
+        executor.setMaxPoolSize(hedgePoolSize);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("provider-hedge-");
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
 
         executor.initialize();
@@ -38,14 +95,52 @@ public class AsyncConfig {
     }
 
     @Bean
+    @Primary
     public ThreadPoolTaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(1);
+        scheduler.setPoolSize(schedulerPoolSize);
         scheduler.setThreadNamePrefix("adaptive-scheduler-");
         scheduler.setWaitForTasksToCompleteOnShutdown(true);
         scheduler.setAwaitTerminationSeconds(30);
         scheduler.initialize();
         return scheduler;
     }
-}
 
+    /**
+     * Own thread for the spill drainer, whose sends can wait out Kafka timeouts while the broker is down,
+     * so claim cycles on {@link #taskScheduler()} keep their pace.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler spillDrainScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("spill-drain-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Own thread for lease renewal. A renewal that waits behind a claim cycle, a relay run or a task the
+     * saturated executor handed back to a scheduler thread would let healthy leases expire.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler leaseRenewalScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("lease-renewal-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Own thread for the outbox relay, for the same reason as {@link #spillDrainScheduler()}.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler outboxRelayScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-relay-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -0,0 +1,18 @@
+package com.sporty.eventstream.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    /**
+     * Time source of the scheduling path, so tests and the scheduling simulation can run it on virtual time.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
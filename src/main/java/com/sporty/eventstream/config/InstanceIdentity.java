@@ -0,0 +1,32 @@
+package com.sporty.eventstream.config;
+
+import com.sporty.eventstream.logging.TraceIdContext;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Identifies this node in claimed task rows.
+ * <p>
+ * Must be stable across restarts of the same node (container hostname, pod name) so startup can
+ * release its own orphaned tasks, and unique across nodes running at the same time.
+ * Without a configured value a random id is used and orphans are left to the stuck-task timeout.
+ */
+@Slf4j
+@Getter
+@Component
+public class InstanceIdentity {
+
+    private final String id;
+
+    public InstanceIdentity(@Value("${events.instance-id:}") String instanceId) {
+        if (StringUtils.hasText(instanceId)) {
+            this.id = instanceId;
+        } else {
+            this.id = "random-" + TraceIdContext.generate().substring(0, 16);
+            log.warn("events.instance-id is not set, using {}; orphaned tasks are not released on restart", id);
+        }
+    }
+}
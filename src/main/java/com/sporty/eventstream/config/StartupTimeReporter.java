@@ -0,0 +1,61 @@
+package com.sporty.eventstream.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports how long after JVM start the context was ready and the first score reached Kafka,
+ * and whether the run used AOT-generated initializers and a CDS archive. The {@code cds} build profile
+ * compares these lines between a plain start and an AOT + CDS start.
+ */
+@Slf4j
+@Component
+public class StartupTimeReporter implements SmartInitializingSingleton {
+
+    private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    private final AtomicLong contextReadyMs = new AtomicLong(-1);
+    private final AtomicLong firstPublishMs = new AtomicLong(-1);
+
+    public StartupTimeReporter(MeterRegistry meterRegistry) {
+        Gauge.builder("events.startup.context-ready", contextReadyMs, AtomicLong::get)
+                .description("Milliseconds from JVM start until all singletons were created, -1 before")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("events.startup.first-publish", firstPublishMs, AtomicLong::get)
+                .description("Milliseconds from JVM start until the first score was acknowledged by Kafka, -1 before")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs before the context finishes refreshing, so it is also reported by training runs
+     * that exit on refresh.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        contextReadyMs.set(runtime.getUptime());
+        log.info("Context initialized {}ms after JVM start (aot={}, cds={})",
+                contextReadyMs.get(), AotDetector.useGeneratedArtifacts(), usesSharedArchive());
+    }
+
+    /**
+     * Records the first acknowledged publish; later calls are a single volatile read.
+     */
+    public void recordPublish() {
+        if (firstPublishMs.get() < 0 && firstPublishMs.compareAndSet(-1, runtime.getUptime())) {
+            log.info("First score published {}ms after JVM start", firstPublishMs.get());
+        }
+    }
+
+    private boolean usesSharedArchive() {
+        return runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.sporty.eventstream.config;
+
+import com.sporty.eventstream.messaging.StatusCommandRecoverer;
+import com.sporty.eventstream.model.kafka.EventStatusCommand;
+import com.sporty.eventstream.service.EventTaskService;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.Map;
+
+/**
+ * Batch consumer for live/not-live commands.
+ * Offsets are committed once per poll batch, after the listener (and its DB transaction) returns.
+ * A batch that keeps failing is retried {@code max-retries} times, then applied record by record; a record
+ * that fails on its own is published to {@code <topic>-dlt}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "events.status-commands.enabled", havingValue = "true")
+public class StatusCommandKafkaConfig {
+
+    @Value("${events.status-commands.group-id:event-stream-status-commands}")
+    private String groupId;
+
+    @Value("${events.status-commands.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${events.status-commands.concurrency:1}")
+    private int concurrency;
+
+    @Value("${events.status-commands.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${events.status-commands.max-retries:5}")
+    private long maxRetries;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EventStatusCommand> statusCommandListenerContainerFactory(
+            KafkaProperties kafkaProperties, EventTaskService eventTaskService, KafkaOperations<Object, Object> kafkaTemplate) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        JsonDeserializer<EventStatusCommand> valueDeserializer = new JsonDeserializer<>(EventStatusCommand.class, false);
+        DefaultKafkaConsumerFactory<String, EventStatusCommand> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+
+        ConcurrentKafkaListenerContainerFactory<String, EventStatusCommand> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        StatusCommandRecoverer recoverer = new StatusCommandRecoverer(eventTaskService,
+                new DeadLetterPublishingRecoverer(kafkaTemplate));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, new FixedBackOff(retryBackoffMs, maxRetries)));
+        return factory;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sporty.eventstream.config;
+
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Brings an EVENT_TASK schema created by an older version in line on startup, where
+ * {@code ddl-auto: update} only adds tables and columns.
+ * <ul>
+ *     <li>Moves the id sequence past existing ids. Databases created while ids came from an IDENTITY column
+ *     get a fresh sequence starting at 1; without this the first inserts would collide with existing rows.</li>
+ *     <li>Drops a status check constraint that does not list every {@link EventTaskStatus}; Hibernate
+ *     creates it with the table and never widens it, so new statuses would be rejected.</li>
+ * </ul>
+ * Runs before the web server and Kafka listeners start accepting status changes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskSchemaUpgrader {
+
+    private final JdbcTemplate jdbcTemplate;
+    // schema is created with the repositories' EntityManagerFactory
+    private final EventTaskRepository eventTaskRepository;
+
+    @PostConstruct
+    public void upgrade() {
+        alignIdSequence();
+        dropOutdatedStatusCheck();
+    }
+
+    private void alignIdSequence() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from event_task", Long.class);
+        Long sequenceValue = jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                Long.class, EventTaskEntity.ID_SEQUENCE);
+        if (maxId == null || sequenceValue == null || sequenceValue > maxId) {
+            return;
+        }
+
+        // one allocation block of headroom: the pooled optimizer hands out ids below the sequence value
+        long restartWith = maxId + EventTaskEntity.ID_ALLOCATION_SIZE + 1;
+        jdbcTemplate.execute("alter sequence " + EventTaskEntity.ID_SEQUENCE + " restart with " + restartWith);
+        log.info("Moved {} from {} to {}, past existing task ids", EventTaskEntity.ID_SEQUENCE, sequenceValue, restartWith);
+    }
+
+    private void dropOutdatedStatusCheck() {
+        List<String[]> checks = jdbcTemplate.query("""
+                        select cc.constraint_name, cc.check_clause
+                        from information_schema.check_constraints cc
+                        join information_schema.table_constraints tc
+                          on tc.constraint_schema = cc.constraint_schema
+                         and tc.constraint_name = cc.constraint_name
+                        where lower(tc.table_name) = 'event_task'
+                        """,
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)});
+        for (String[] check : checks) {
+            String clause = check[1].toUpperCase();
+            boolean statusCheck = clause.contains("STATUS") && clause.contains("'" + EventTaskStatus.ACTIVE.name() + "'");
+            boolean complete = Arrays.stream(EventTaskStatus.values()).allMatch(s -> clause.contains("'" + s.name() + "'"));
+            if (statusCheck && !complete) {
+                jdbcTemplate.execute("alter table event_task drop constraint " + check[0]);
+                log.info("Dropped outdated status check {} on event_task: {}", check[0], check[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.sporty.eventstream.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Rejection policy of the task executor. A saturated pool runs the task on the submitting thread, which
+ * slows the scheduler down to the pool's pace. Submissions made through {@link #submitWithoutCallerRuns}
+ * are rejected with a {@link RejectedExecutionException} instead, for threads that must not run a task
+ * inline, such as the shared scheduler threads that fire retries.
+ */
+public class WorkerRejectionPolicy implements RejectedExecutionHandler {
+
+    private static final ThreadLocal<Boolean> REJECT = new ThreadLocal<>();
+
+    /**
+     * Runs {@code submission} so that any task it hands to the executor is rejected, not run inline,
+     * when the pool is saturated.
+     *
+     * @throws RejectedExecutionException if the executor was saturated
+     */
+    public static void submitWithoutCallerRuns(Runnable submission) {
+        REJECT.set(Boolean.TRUE);
+        try {
+            submission.run();
+        } finally {
+            REJECT.remove();
+        }
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        if (REJECT.get() != null) {
+            throw new RejectedExecutionException("Task executor saturated, " + executor.getQueue().size() + " tasks queued");
+        }
+        if (!executor.isShutdown()) {
+            task.run();
+        }
+    }
+}
@@ -1,38 +1,115 @@
 package com.sporty.eventstream.controller;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Simple mock external API endpoint returning a JSON payload for an event.
+ * <p>
+ * The body is assembled from pre-encoded byte fragments and written as-is, so a call costs one
+ * byte array instead of a map plus a Jackson serialization.
+ * <p>
+ * With {@code external.api.mock.score-change-interval-ms} above 0 an event keeps its score for that long,
+ * with changes staggered across events. Responses carry an ETag per score and the time of the last
+ * change as Last-Modified, and a matching {@code If-None-Match} or {@code If-Modified-Since} gets an
+ * empty 304. At 0 every call draws a new random score.
  */
 @Slf4j
 @RestController
 @RequestMapping("/mock-api")
 public class MockExternalApiController {
 
-    private static final Random RANDOM = new Random();
+    private static final int MAX_GOALS = 5;
+    private static final byte[] PREFIX = "{\"eventId\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[][] SUFFIXES = new byte[MAX_GOALS * MAX_GOALS][];
+    private static final String[] ETAGS = new String[MAX_GOALS * MAX_GOALS];
 
-    @GetMapping("/events/{eventId}")
-    public Map<String, Object> getMockEvent(@PathVariable String eventId) {
-        int home = RANDOM.nextInt(5);
-        int away = RANDOM.nextInt(5);
-        String score = home + ":" + away;
+    static {
+        for (int home = 0; home < MAX_GOALS; home++) {
+            for (int away = 0; away < MAX_GOALS; away++) {
+                SUFFIXES[home * MAX_GOALS + away] = ("\",\"currentScore\":\"" + home + ":" + away + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                ETAGS[home * MAX_GOALS + away] = "\"" + home + "-" + away + "\"";
+            }
+        }
+    }
+
+    @Value("${external.api.mock.score-change-interval-ms:0}")
+    private long scoreChangeIntervalMs;
+
+    @GetMapping(value = "/events/{eventId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getMockEvent(@PathVariable String eventId, WebRequest webRequest) {
+        long now = System.currentTimeMillis();
+        int score;
+        long lastModified;
+        if (scoreChangeIntervalMs > 0) {
+            // the phase staggers score changes across events
+            long phase = Math.floorMod(eventId.hashCode(), scoreChangeIntervalMs);
+            long slot = (now + phase) / scoreChangeIntervalMs;
+            score = Math.floorMod(mix(eventId.hashCode() * 31L + slot), MAX_GOALS * MAX_GOALS);
+            lastModified = slot * scoreChangeIntervalMs - phase;
+        } else {
+            score = ThreadLocalRandom.current().nextInt(MAX_GOALS * MAX_GOALS);
+            lastModified = now;
+        }
+
+        String etag = ETAGS[score];
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        byte[] suffix = SUFFIXES[score];
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("eventId", eventId);
-        body.put("currentScore", score);
+        byte[] body;
+        if (isPlainAscii(eventId)) {
+            body = new byte[PREFIX.length + eventId.length() + suffix.length];
+            System.arraycopy(PREFIX, 0, body, 0, PREFIX.length);
+            for (int i = 0; i < eventId.length(); i++) {
+                body[PREFIX.length + i] = (byte) eventId.charAt(i);
+            }
+        } else {
+            byte[] quoted = JsonStringEncoder.getInstance().quoteAsUTF8(eventId);
+            body = new byte[PREFIX.length + quoted.length + suffix.length];
+            System.arraycopy(PREFIX, 0, body, 0, PREFIX.length);
+            System.arraycopy(quoted, 0, body, PREFIX.length, quoted.length);
+        }
+        System.arraycopy(suffix, 0, body, body.length - suffix.length, suffix.length);
 
-        log.info("Mock external API returning score {} for event {}", score, eventId);
-        return body;
+        if (log.isDebugEnabled()) {
+            log.debug("Mock external API returning score {}:{} for event {}", score / MAX_GOALS, score % MAX_GOALS, eventId);
+        }
+        return ResponseEntity.ok().eTag(etag).lastModified(lastModified).body(body);
     }
-}
 
+    /**
+     * SplitMix64 finalizer, so neighbouring slots get unrelated scores.
+     */
+    private static int mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31));
+    }
 
+    private static boolean isPlainAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c >= 0x7f || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
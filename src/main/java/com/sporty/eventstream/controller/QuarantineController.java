@@ -0,0 +1,60 @@
+package com.sporty.eventstream.controller;
+
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.model.response.TaskPageResponse;
+import com.sporty.eventstream.service.EventTaskService;
+import com.sporty.eventstream.service.TaskQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1/admin/quarantine")
+@Tag(name = "Quarantine", description = "Events that are no longer polled after failing repeatedly")
+public class QuarantineController {
+
+    private final TaskQueryService taskQueryService;
+    private final EventTaskService eventTaskService;
+
+    @Value("${events.tasks.max-page-size:500}")
+    private int maxPageSize;
+
+    @Operation(
+            summary = "List quarantined tasks",
+            description = "Keyset-paginated by id; pass the returned nextCursor as 'after'. "
+                    + "GET /api/v1/events/{eventId}/task shows the last error.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One page of quarantined tasks"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    @GetMapping
+    public TaskPageResponse listQuarantined(@RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        return taskQueryService.listTasks(EventTaskStatus.QUARANTINED, after, limit);
+    }
+
+    @Operation(summary = "Release a quarantined event", description = "Schedules it right away with its error count reset.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Event is polled again"),
+            @ApiResponse(responseCode = "404", description = "Event is not quarantined")
+    })
+    @PostMapping("/{eventId}/release")
+    public ResponseEntity<Void> release(@PathVariable String eventId) {
+        eventTaskService.releaseFromQuarantine(eventId);
+        return ResponseEntity.noContent().build();
+    }
+}
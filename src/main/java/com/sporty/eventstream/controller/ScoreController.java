@@ -0,0 +1,126 @@
+package com.sporty.eventstream.controller;
+
+import com.sporty.eventstream.exception.EventNotFoundException;
+import com.sporty.eventstream.model.response.LatestScoreResponse;
+import com.sporty.eventstream.service.LatestScoreService;
+import com.sporty.eventstream.service.ScoreStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1")
+@Tag(name = "Scores", description = "API for reading latest published scores")
+public class ScoreController {
+
+    private final LatestScoreService latestScoreService;
+    private final ScoreStreamService scoreStreamService;
+
+    @Value("${events.scores.max-bulk-ids:500}")
+    private int maxBulkIds;
+
+    @Operation(
+            summary = "Get latest score of an event",
+            description = "Served from memory. Supports If-None-Match with the returned ETag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Latest score"),
+            @ApiResponse(responseCode = "304", description = "Score not modified since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "No score published for this event yet")
+    })
+    @GetMapping("/events/{eventId}/score")
+    public ResponseEntity<LatestScoreResponse> getScore(@PathVariable String eventId, WebRequest webRequest) {
+        LatestScoreResponse score = latestScoreService.find(eventId)
+                .orElseThrow(() -> new EventNotFoundException("No score for event: " + eventId));
+
+        String etag = etag(score.sequence());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(score);
+    }
+
+    @Operation(
+            summary = "Get latest scores of several events",
+            description = "Unknown events are omitted. Supports If-None-Match with the returned ETag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Latest scores in request order"),
+            @ApiResponse(responseCode = "304", description = "None of the scores changed since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Too many ids requested")
+    })
+    @GetMapping("/scores")
+    public ResponseEntity<List<LatestScoreResponse>> getScores(@RequestParam List<String> ids, WebRequest webRequest) {
+        if (ids.size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " ids can be requested at once");
+        }
+
+        List<LatestScoreResponse> scores = latestScoreService.findAll(ids);
+
+        String etag = bulkEtag(ids, scores);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(scores);
+    }
+
+    @Operation(
+            summary = "Stream live score updates",
+            description = "Server-Sent Events stream of score updates, optionally filtered by event ids. "
+                    + "Slow clients receive only the latest pending update per event.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "503", description = "Subscriber limit reached")
+    })
+    @GetMapping(value = "/scores/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamScores(@RequestParam(required = false) Set<String> ids,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        scoreStreamService.subscribe(ids, request, response);
+    }
+
+    private static String etag(long sequence) {
+        return "\"" + Long.toHexString(sequence) + "\"";
+    }
+
+    /**
+     * Digest of the requested ids in sorted order, each paired with its sequence or a missing marker, so
+     * the tag changes when an entry is updated, appears or disappears, and differs between id sets.
+     * Ids are length-prefixed so no two requests can encode to the same input.
+     */
+    private static String bulkEtag(List<String> ids, List<LatestScoreResponse> scores) {
+        Map<String, Long> sequences = new HashMap<>(scores.size());
+        for (LatestScoreResponse score : scores) {
+            sequences.put(score.eventId(), score.sequence());
+        }
+
+        StringBuilder input = new StringBuilder();
+        for (String id : new TreeSet<>(ids)) {
+            Long sequence = sequences.get(id);
+            input.append(id.length()).append(':').append(id).append('=')
+                    .append(sequence == null ? "-" : Long.toHexString(sequence)).append(';');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(input.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
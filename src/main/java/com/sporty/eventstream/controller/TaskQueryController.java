@@ -0,0 +1,64 @@
+package com.sporty.eventstream.controller;
+
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.model.response.TaskDetailResponse;
+import com.sporty.eventstream.model.response.TaskPageResponse;
+import com.sporty.eventstream.service.TaskQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1")
+@Tag(name = "Tasks", description = "Read-only view of scheduled event tasks")
+public class TaskQueryController {
+
+    private final TaskQueryService taskQueryService;
+
+    @Value("${events.tasks.max-page-size:500}")
+    private int maxPageSize;
+
+    @Operation(
+            summary = "List tasks by status",
+            description = "Keyset-paginated on (nextExecutionTime, id); pass the returned nextCursor as 'after'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One page of tasks"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    @GetMapping("/tasks")
+    public TaskPageResponse listTasks(@RequestParam(defaultValue = "ACTIVE") EventTaskStatus status,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        return taskQueryService.listTasks(status, after, limit);
+    }
+
+    @Operation(summary = "Count tasks per status")
+    @GetMapping("/tasks/counts")
+    public Map<EventTaskStatus, Long> countTasks() {
+        return taskQueryService.countByStatus();
+    }
+
+    @Operation(summary = "Get the task of an event", description = "Includes execution count and last error.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task state"),
+            @ApiResponse(responseCode = "404", description = "No task for this event")
+    })
+    @GetMapping("/events/{eventId}/task")
+    public TaskDetailResponse getTask(@PathVariable String eventId) {
+        return taskQueryService.getTask(eventId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.sporty.eventstream.exception;
+
+
+public class EventNotFoundException extends RuntimeException {
+
+    public EventNotFoundException(String message) {
+        super(message);
+    }
+}
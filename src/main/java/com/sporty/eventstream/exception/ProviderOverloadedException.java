@@ -0,0 +1,9 @@
+package com.sporty.eventstream.exception;
+
+
+public class ProviderOverloadedException extends RuntimeException {
+
+    public ProviderOverloadedException(String message) {
+        super(message);
+    }
+}
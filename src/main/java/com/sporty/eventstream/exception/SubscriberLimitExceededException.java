@@ -0,0 +1,9 @@
+package com.sporty.eventstream.exception;
+
+
+public class SubscriberLimitExceededException extends RuntimeException {
+
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.sporty.eventstream.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Marker for high-volume log lines (one per task, per tick) that may be sampled.
+ * {@link SamplingTurboFilter} lets through a limited number of marked lines per logger per second;
+ * unmarked lines are never sampled.
+ */
+public final class LogSampling {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogSampling() {
+    }
+}
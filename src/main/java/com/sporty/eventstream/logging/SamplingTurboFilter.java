@@ -0,0 +1,58 @@
+package com.sporty.eventstream.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate-limits log lines marked with {@link LogSampling#SAMPLED}: at most {@code maxPerSecond} per logger
+ * in each one-second window, the rest are denied before the message is formatted.
+ * WARN and ERROR are never dropped.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private int maxPerSecond = 10;
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || !marker.contains(LogSampling.SAMPLED) || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!logger.isEnabledFor(level)) {
+            return FilterReply.DENY;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        return window.tryAcquire(System.nanoTime(), maxPerSecond) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private static final class Window {
+        private final AtomicLong start = new AtomicLong(System.nanoTime());
+        private final AtomicLong count = new AtomicLong();
+
+        boolean tryAcquire(long now, int max) {
+            long windowStart = start.get();
+            if (now - windowStart >= WINDOW_NANOS && start.compareAndSet(windowStart, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= max;
+        }
+    }
+}
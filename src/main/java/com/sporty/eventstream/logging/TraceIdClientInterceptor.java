@@ -0,0 +1,21 @@
+package com.sporty.eventstream.logging;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Forwards the current trace id to outgoing HTTP calls as {@value TraceIdContext#HEADER_NAME}.
+ */
+public class TraceIdClientInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        TraceIdContext.currentTraceId()
+                .ifPresent(traceId -> request.getHeaders().set(TraceIdContext.HEADER_NAME, traceId));
+        return execution.execute(request, body);
+    }
+}
@@ -4,7 +4,7 @@ import org.slf4j.MDC;
 import org.springframework.util.StringUtils;
 
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 public final class TraceIdContext {
@@ -12,6 +12,8 @@ public final class TraceIdContext {
     public static final String MDC_KEY = "traceId";
     public static final String HEADER_NAME = "X-Trace-Id";
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
     private TraceIdContext() {
     }
 
@@ -37,8 +39,23 @@ public final class TraceIdContext {
         MDC.remove(MDC_KEY);
     }
 
+    /**
+     * Random 128-bit id as 32 lowercase hex chars (W3C trace-id format).
+     * Uses {@link ThreadLocalRandom}, so there is no shared lock; ids are unique, not unpredictable.
+     */
     public static String generate() {
-        return UUID.randomUUID().toString();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[32];
+        writeHex(random.nextLong(), chars, 0);
+        writeHex(random.nextLong(), chars, 16);
+        return new String(chars);
+    }
+
+    private static void writeHex(long value, char[] chars, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
     }
 }
 
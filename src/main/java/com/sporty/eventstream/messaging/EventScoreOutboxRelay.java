@@ -0,0 +1,123 @@
+package com.sporty.eventstream.messaging;
+
+import com.sporty.eventstream.model.entity.EventScoreOutboxEntity;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.repository.EventScoreOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains EVENT_SCORE_OUTBOX to Kafka in id order.
+ * Whole batch is sent asynchronously, then acknowledged entries are deleted in bulk.
+ * A run ends at the first batch that is not fully acknowledged. After a batch with no acknowledgement at all
+ * each run sends a single entry as a probe until one is acknowledged, so an outage does not put a full batch
+ * into the producer every run. Runs on its own scheduler thread, since a run can wait out a send timeout.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "events.outbox.enabled", havingValue = "true")
+public class EventScoreOutboxRelay {
+
+    private final EventScoreOutboxRepository outboxRepository;
+    private final KafkaEventMessagePublisher eventScorePublisher;
+
+    @Value("${events.outbox.relay-batch-size:500}")
+    private int batchSize;
+
+    @Value("${events.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${events.kafka.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private volatile boolean probing;
+
+    @Scheduled(fixedDelayString = "${events.outbox.relay-interval-ms:100}", scheduler = "outboxRelayScheduler")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int size = probing ? 1 : batchSize;
+                int relayed = relayBatch(size);
+                if (relayed < size) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            probing = true;
+            log.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns number of entries acknowledged by Kafka.
+     * Every acknowledged entry is deleted. A failed entry stays for the next run unless a newer entry of the
+     * same event was acknowledged in this batch; it is dropped then, so an older score never follows a newer one.
+     * The whole batch shares one send timeout, counted from the first send.
+     */
+    int relayBatch(int size) {
+        List<EventScoreOutboxEntity> batch = outboxRepository.findNextBatch(PageRequest.of(0, size));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<CompletableFuture<SendResult<String, EventScoreMessage>>> futures = new ArrayList<>(batch.size());
+        for (EventScoreOutboxEntity entry : batch) {
+            EventScoreMessage message = new EventScoreMessage(entry.getEventId(), entry.getScore(), entry.getScoreTimestamp());
+            futures.add(eventScorePublisher.publishAsync(message, entry.getTraceId()));
+        }
+
+        boolean[] acknowledged = new boolean[batch.size()];
+        int acknowledgedCount = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                futures.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                acknowledged[i] = true;
+                acknowledgedCount++;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox relay could not publish entry {} (event {}): {}",
+                        batch.get(i).getId(), batch.get(i).getEventId(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deadline = System.nanoTime(); // collect what is already acknowledged, wait for nothing else
+            }
+        }
+
+        // walking backwards, an event seen acknowledged supersedes its older failed entries
+        List<Long> deletedIds = new ArrayList<>(batch.size());
+        Set<String> deliveredEvents = new HashSet<>();
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            EventScoreOutboxEntity entry = batch.get(i);
+            if (acknowledged[i]) {
+                deliveredEvents.add(entry.getEventId());
+                deletedIds.add(entry.getId());
+            } else if (deliveredEvents.contains(entry.getEventId())) {
+                deletedIds.add(entry.getId());
+            }
+        }
+        if (!deletedIds.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(deletedIds);
+        }
+
+        probing = acknowledgedCount == 0; // Kafka still down: try a single entry next time
+        log.debug("Relayed {} of {} outbox entries", acknowledgedCount, batch.size());
+        return acknowledgedCount;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sporty.eventstream.messaging;
+
+import com.sporty.eventstream.model.kafka.EventStatusCommand;
+import com.sporty.eventstream.service.EventTaskService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumes live/not-live commands in batches and applies each poll batch in one DB transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "events.status-commands.enabled", havingValue = "true")
+public class EventStatusCommandListener {
+
+    private final EventTaskService eventTaskService;
+
+    @KafkaListener(
+            topics = "${events.status-commands.topic:event-status-commands}",
+            containerFactory = "statusCommandListenerContainerFactory")
+    public void onCommands(List<ConsumerRecord<String, EventStatusCommand>> records) {
+        Map<String, Boolean> statuses = new LinkedHashMap<>();
+        int skipped = 0;
+
+        for (ConsumerRecord<String, EventStatusCommand> record : records) {
+            EventStatusCommand command = record.value();
+            if (command == null || !StringUtils.hasText(command.eventId()) || command.live() == null) {
+                skipped++;
+                continue;
+            }
+            // last command per event in the batch wins
+            statuses.remove(command.eventId());
+            statuses.put(command.eventId(), command.live());
+        }
+
+        if (skipped > 0) {
+            log.warn("Skipped {} invalid status commands out of {}", skipped, records.size());
+        }
+
+        eventTaskService.updateEventStatuses(statuses);
+        log.debug("Applied {} status commands from batch of {}", statuses.size(), records.size());
+    }
+}
@@ -1,9 +1,13 @@
 package com.sporty.eventstream.messaging;
 
+import com.sporty.eventstream.config.StartupTimeReporter;
 import com.sporty.eventstream.exception.KafkaPublishException;
+import com.sporty.eventstream.logging.LogSampling;
+import com.sporty.eventstream.logging.TraceIdContext;
 import com.sporty.eventstream.model.kafka.EventScoreMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -11,6 +15,8 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -24,6 +30,7 @@ import java.util.concurrent.TimeoutException;
 public class KafkaEventMessagePublisher {
 
     private final KafkaTemplate<String, EventScoreMessage> kafkaTemplate;
+    private final StartupTimeReporter startupTimeReporter;
 
     @Value("${events.kafka.topic:live-events-scores}")
     private String topic;
@@ -42,12 +49,22 @@ public class KafkaEventMessagePublisher {
             backoff = @Backoff(delayExpression = "#{${events.kafka.retry-backoff-ms:200}}", multiplier = 2.0)
     )
     public void publish(EventScoreMessage message) {
+        publishOnce(message);
+    }
+
+    /**
+     * Single synchronous attempt without {@link Retryable}, for callers that schedule their own retries.
+     *
+     * @throws KafkaPublishException if the broker did not acknowledge within the send timeout
+     */
+    public void publishOnce(EventScoreMessage message) {
         try {
             SendResult<String, EventScoreMessage> result = kafkaTemplate
-                    .send(topic, message.eventId(), message)
+                    .send(record(message, TraceIdContext.currentTraceId().orElse(null)))
                     .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            startupTimeReporter.recordPublish();
 
-            log.info("Successfully published event {} to topic {} partition {} offset {}",
+            log.info(LogSampling.SAMPLED, "Successfully published event {} to topic {} partition {} offset {}",
                     message.eventId(),
                     result.getRecordMetadata().topic(),
                     result.getRecordMetadata().partition(),
@@ -60,4 +77,29 @@ public class KafkaEventMessagePublisher {
             throw new KafkaPublishException("Interrupted while publishing event " + message.eventId(), e);
         }
     }
+
+    /**
+     * Sends a message without waiting for the broker acknowledgement.
+     * Callers are responsible for checking the returned future.
+     *
+     * @param message the message to publish
+     * @param traceId trace id of the task that produced the message, sent as a record header; may be null
+     * @return future completed when the broker acknowledges the record
+     */
+    public CompletableFuture<SendResult<String, EventScoreMessage>> publishAsync(EventScoreMessage message, String traceId) {
+        return kafkaTemplate.send(record(message, traceId))
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        startupTimeReporter.recordPublish();
+                    }
+                });
+    }
+
+    private ProducerRecord<String, EventScoreMessage> record(EventScoreMessage message, String traceId) {
+        ProducerRecord<String, EventScoreMessage> record = new ProducerRecord<>(topic, message.eventId(), message);
+        if (traceId != null) {
+            record.headers().add(TraceIdContext.HEADER_NAME, traceId.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
 }
@@ -0,0 +1,206 @@
+package com.sporty.eventstream.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps score messages on local disk while Kafka is unavailable.
+ * <p>
+ * After a failed publish the message is spilled to a {@link SpillQueue} instead of failing the task. While
+ * the backlog is not empty every new message is spilled as well, without trying Kafka, so workers do not
+ * wait out send timeouts and messages of one event stay in order. The drainer replays the backlog oldest
+ * first: whole batches are sent asynchronously and the acknowledged prefix is consumed; after a failed
+ * batch the next run sends a single message as a probe. Delivery is at least once: a batch that fails
+ * half-way is sent again from its first unacknowledged message.
+ */
+@Slf4j
+@Component
+public class ScoreSpillBuffer {
+
+    private final KafkaEventMessagePublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int drainBatchSize;
+    private final int maxBatchesPerRun;
+    private final long sendTimeoutMs;
+    private final SpillQueue queue;
+    private final Counter spilledBytes;
+    private final Counter spilledMessages;
+    private final Counter rejectedMessages;
+    private final Counter drainedMessages;
+    private volatile boolean probing;
+
+    public ScoreSpillBuffer(KafkaEventMessagePublisher publisher,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${events.spill.enabled:false}") boolean enabled,
+                            @Value("${events.spill.dir:./data/spill}") String directory,
+                            @Value("${events.spill.segment-bytes:8388608}") long segmentBytes,
+                            @Value("${events.spill.max-bytes:268435456}") long maxBytes,
+                            @Value("${events.spill.drain-batch-size:500}") int drainBatchSize,
+                            @Value("${events.spill.max-batches-per-run:20}") int maxBatchesPerRun,
+                            @Value("${events.kafka.send-timeout-ms:5000}") long sendTimeoutMs) throws IOException {
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.drainBatchSize = Math.max(1, drainBatchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.queue = enabled ? new SpillQueue(Path.of(directory), segmentBytes, maxBytes) : null;
+
+        this.spilledBytes = Counter.builder("events.spill.bytes")
+                .description("Bytes written to the local spill")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.spilledMessages = Counter.builder("events.spill.messages").register(meterRegistry);
+        this.rejectedMessages = Counter.builder("events.spill.rejected")
+                .description("Messages not spilled because the spill was full")
+                .register(meterRegistry);
+        this.drainedMessages = Counter.builder("events.spill.drained")
+                .description("Spilled messages replayed to Kafka")
+                .register(meterRegistry);
+        Gauge.builder("events.spill.backlog.messages", this, ScoreSpillBuffer::backlogMessages)
+                .register(meterRegistry);
+        Gauge.builder("events.spill.backlog.bytes", this, b -> b.enabled ? b.queue.backlogBytes() : 0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether messages must go to the spill without trying Kafka: earlier ones are still waiting there.
+     */
+    public boolean hasBacklog() {
+        return backlogMessages() > 0;
+    }
+
+    public long backlogMessages() {
+        return enabled ? queue.backlogRecords() : 0;
+    }
+
+    /**
+     * Appends the message to the spill.
+     *
+     * @param traceId trace id of the task that produced the message, replayed as a record header; may be null
+     * @return false if the spill is disabled or full; the caller still owns the message then
+     */
+    public boolean spill(EventScoreMessage message, String traceId) {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            byte[] record = objectMapper.writeValueAsBytes(new SpilledScore(
+                    message.eventId(), message.score(), message.timestamp(), traceId));
+            if (!queue.append(record)) {
+                rejectedMessages.increment();
+                return false;
+            }
+            spilledBytes.increment(record.length);
+            spilledMessages.increment();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill score message for event " + message.eventId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.spill.drain-interval-ms:500}", scheduler = "spillDrainScheduler")
+    public void drain() {
+        if (!enabled || !hasBacklog()) {
+            return;
+        }
+        try {
+            int drained = 0;
+            for (int i = 0; i < maxBatchesPerRun && hasBacklog(); i++) {
+                int batchSize = probing ? 1 : drainBatchSize;
+                int sent = drainBatch(batchSize);
+                drained += sent;
+                probing = sent == 0; // Kafka still down: try a single message next time
+                if (sent < batchSize) {
+                    break;
+                }
+            }
+
+            if (drained > 0) {
+                log.info("Replayed {} spilled score messages, {} left", drained, backlogMessages());
+            }
+        } catch (Exception e) {
+            probing = true;
+            log.error("Spill drain failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends up to {@code max} spilled messages and consumes those acknowledged, stopping at the first failure.
+     * The batch gets one send timeout, counted from the first send; {@code max.block.ms} bounds how long a
+     * send itself may wait for broker metadata.
+     *
+     * @return number of messages consumed
+     */
+    int drainBatch(int max) throws IOException {
+        List<byte[]> records = queue.peek(max);
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<CompletableFuture<SendResult<String, EventScoreMessage>>> futures = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            SpilledScore spilled = objectMapper.readValue(record, SpilledScore.class);
+            futures.add(publisher.publishAsync(
+                    new EventScoreMessage(spilled.eventId(), spilled.score(), spilled.timestamp()), spilled.traceId()));
+        }
+
+        int acknowledged = 0;
+        for (CompletableFuture<SendResult<String, EventScoreMessage>> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged++;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Spill drain stopped after {} of {} messages: {}", acknowledged, records.size(), e.getMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (acknowledged > 0) {
+            queue.ack(acknowledged);
+            drainedMessages.increment(acknowledged);
+        }
+        return acknowledged;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (enabled) {
+            queue.close();
+        }
+    }
+
+    record SpilledScore(String eventId, String score, Instant timestamp, String traceId) {
+    }
+}
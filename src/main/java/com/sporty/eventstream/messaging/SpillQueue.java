@@ -0,0 +1,330 @@
+package com.sporty.eventstream.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Bounded FIFO of byte records in append-only segment files.
+ * <p>
+ * Records are written sequentially as {@code [int length][bytes]} to {@code spill-<n>.log}; a new segment is
+ * started once the current one reaches the segment size. The read position (segment, offset) is kept in
+ * {@code spill.offset} and advanced by {@link #ack}; fully read segments are deleted. On open, segments are
+ * scanned from the read position and a torn record at the end of the last segment (crash during append) is cut
+ * off. Writes are not fsynced: records survive a process crash, not a power loss.
+ * <p>
+ * Any thread may append; {@link #peek} and {@link #ack} belong to a single consumer thread. Segments only grow
+ * at the end and are deleted by the consumer, so the consumer reads them without holding the monitor.
+ */
+@Slf4j
+public class SpillQueue implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_FILE = "spill.offset";
+    private static final int HEADER_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxBytes;
+    private final TreeSet<Long> segments = new TreeSet<>();
+    private final List<ReadPosition> peeked = new ArrayList<>();
+
+    private FileChannel writeChannel;
+    private long writeSegment;
+    private long writeOffset;
+    private long readSegment;
+    private long readOffset;
+    private long backlogBytes;
+    private long backlogRecords;
+
+    public SpillQueue(Path directory, long segmentBytes, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * @return false if the record would grow the backlog beyond the max size; nothing is written then
+     */
+    public synchronized boolean append(byte[] record) throws IOException {
+        long size = HEADER_BYTES + (long) record.length;
+        if (backlogBytes + size > maxBytes) {
+            return false;
+        }
+        if (writeOffset > 0 && writeOffset + size > segmentBytes) {
+            openWriteSegment(writeSegment + 1);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(record.length).put(record).flip();
+        while (buffer.hasRemaining()) {
+            writeChannel.write(buffer);
+        }
+        writeOffset += size;
+        backlogBytes += size;
+        backlogRecords++;
+        return true;
+    }
+
+    /**
+     * Up to {@code max} records from the read position, oldest first, without consuming them.
+     * Records are read outside the monitor, so appends are not blocked by the read.
+     */
+    public List<byte[]> peek(int max) throws IOException {
+        long segment;
+        long offset;
+        long available;
+        long lastSegment;
+        long lastSegmentEnd;
+        NavigableSet<Long> readable;
+        synchronized (this) {
+            segment = readSegment;
+            offset = readOffset;
+            available = backlogRecords;
+            lastSegment = writeSegment;
+            lastSegmentEnd = writeOffset;
+            readable = new TreeSet<>(segments.tailSet(readSegment, true));
+        }
+
+        List<byte[]> records = new ArrayList<>((int) Math.min(max, available));
+        peeked.clear();
+        long consumedBytes = 0;
+        while (records.size() < max && records.size() < available) {
+            boolean sealed = segment != lastSegment;
+            long length = sealed ? segmentPath(segment).toFile().length() : lastSegmentEnd;
+            if (offset >= length) {
+                Long next = readable.higher(segment);
+                if (next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                while (records.size() < max && records.size() < available && offset < length) {
+                    byte[] record = readRecord(channel, offset);
+                    records.add(record);
+                    offset += HEADER_BYTES + record.length;
+                    consumedBytes += HEADER_BYTES + record.length;
+                    peeked.add(new ReadPosition(segment, offset, consumedBytes, sealed && offset >= length));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Consumes the first {@code count} records, as returned by {@link #peek}. The read position after each
+     * peeked record is already known, so only the segment bookkeeping runs under the monitor; consumed
+     * segments are deleted and the position file is written outside of it.
+     */
+    public void ack(int count) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        if (peeked.size() < count) {
+            peek(count);
+        }
+        if (peeked.isEmpty()) {
+            return;
+        }
+        int consumedRecords = Math.min(count, peeked.size());
+        ReadPosition end = peeked.get(consumedRecords - 1);
+        peeked.clear();
+
+        List<Long> consumedSegments = new ArrayList<>();
+        long segment;
+        long offset;
+        synchronized (this) {
+            readSegment = end.segment();
+            readOffset = end.offset();
+            backlogBytes -= end.consumedBytes();
+            backlogRecords -= consumedRecords;
+            if (backlogRecords == 0) {
+                // everything consumed: start over in a fresh segment instead of growing this one forever
+                if (writeOffset > 0) {
+                    openWriteSegment(writeSegment + 1);
+                }
+                readSegment = writeSegment;
+                readOffset = 0;
+            } else if (end.endOfSealedSegment()
+                    || (readSegment != writeSegment && readOffset >= segmentPath(readSegment).toFile().length())) {
+                // the second check only stats the file when the segment was sealed after the peek
+                readSegment = segments.higher(readSegment);
+                readOffset = 0;
+            }
+            while (segments.first() < readSegment) {
+                consumedSegments.add(segments.pollFirst());
+            }
+            segment = readSegment;
+            offset = readOffset;
+        }
+
+        for (long consumed : consumedSegments) {
+            Files.deleteIfExists(segmentPath(consumed));
+        }
+        writeReadPosition(segment, offset);
+    }
+
+    public synchronized long backlogBytes() {
+        return backlogBytes;
+    }
+
+    public synchronized long backlogRecords() {
+        return backlogRecords;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writeChannel != null) {
+            writeChannel.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .forEach(segments::add);
+        }
+        readPosition();
+        // segments before the read position were consumed but not deleted
+        while (!segments.isEmpty() && segments.first() < readSegment) {
+            deleteSegment(segments.first());
+        }
+        if (segments.isEmpty()) {
+            openWriteSegment(readSegment);
+            readOffset = 0;
+            return;
+        }
+        if (readSegment < segments.first()) {
+            readSegment = segments.first();
+            readOffset = 0;
+        }
+
+        for (long segment : segments) {
+            long start = segment == readSegment ? readOffset : 0;
+            long valid = scan(segment, start);
+            if (valid < Files.size(segmentPath(segment))) {
+                log.warn("Truncating torn record at {} in spill segment {}", valid, segmentPath(segment));
+                try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                }
+            }
+        }
+        long last = segments.last();
+        writeSegment = last;
+        writeOffset = Files.size(segmentPath(last));
+        writeChannel = FileChannel.open(segmentPath(last), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (backlogRecords > 0) {
+            log.info("Recovered {} spilled records ({} bytes) from {}", backlogRecords, backlogBytes, directory);
+        }
+    }
+
+    /**
+     * Counts complete records from {@code start} into the backlog.
+     *
+     * @return offset after the last complete record
+     */
+    private long scan(long segment, long start) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = start;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (offset + HEADER_BYTES <= size) {
+                header.clear();
+                channel.read(header, offset);
+                int length = header.flip().getInt();
+                if (length < 0 || offset + HEADER_BYTES + length > size) {
+                    break;
+                }
+                offset += HEADER_BYTES + length;
+                backlogBytes += HEADER_BYTES + length;
+                backlogRecords++;
+            }
+            return offset;
+        }
+    }
+
+    private byte[] readRecord(FileChannel channel, long offset) throws IOException {
+        int length = readLength(channel, offset);
+        ByteBuffer body = ByteBuffer.allocate(length);
+        while (body.hasRemaining()) {
+            if (channel.read(body, offset + HEADER_BYTES + body.position()) < 0) {
+                throw new IOException("Truncated spill record at " + offset);
+            }
+        }
+        return body.array();
+    }
+
+    private int readLength(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, offset + header.position()) < 0) {
+                throw new IOException("Truncated spill record header at " + offset);
+            }
+        }
+        return header.flip().getInt();
+    }
+
+    private void openWriteSegment(long segment) throws IOException {
+        if (writeChannel != null) {
+            writeChannel.close();
+        }
+        writeChannel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segments.add(segment);
+        writeSegment = segment;
+        writeOffset = writeChannel.size();
+    }
+
+    private void deleteSegment(long segment) throws IOException {
+        segments.remove(segment);
+        Files.deleteIfExists(segmentPath(segment));
+    }
+
+    private void readPosition() throws IOException {
+        Path file = directory.resolve(OFFSET_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        String[] position = Files.readString(file).trim().split(":");
+        readSegment = Long.parseLong(position[0]);
+        readOffset = Long.parseLong(position[1]);
+    }
+
+    private void writeReadPosition(long segment, long offset) throws IOException {
+        Path tmp = directory.resolve(OFFSET_FILE + ".tmp");
+        Files.writeString(tmp, segment + ":" + offset);
+        Files.move(tmp, directory.resolve(OFFSET_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Read position after a peeked record.
+     *
+     * @param consumedBytes bytes from the read position at peek time up to here
+     * @param endOfSealedSegment whether the record was the last one of a segment no longer written to
+     */
+    private record ReadPosition(long segment, long offset, long consumedBytes, boolean endOfSealedSegment) {
+    }
+}
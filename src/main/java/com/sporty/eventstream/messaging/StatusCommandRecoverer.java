@@ -0,0 +1,40 @@
+package com.sporty.eventstream.messaging;
+
+import com.sporty.eventstream.model.kafka.EventStatusCommand;
+import com.sporty.eventstream.service.EventTaskService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.util.StringUtils;
+
+/**
+ * Recovers a status command batch that still failed after the batch retries, one record at a time and in
+ * offset order, so the last command per event still wins. Each record is applied in its own transaction; one
+ * that fails again (or cannot be applied) goes to the dead letter recoverer instead of being lost with its batch.
+ * Invalid commands are skipped as in the listener.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class StatusCommandRecoverer implements ConsumerRecordRecoverer {
+
+    private final EventTaskService eventTaskService;
+    private final ConsumerRecordRecoverer deadLetters;
+
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Exception batchFailure) {
+        if (!(record.value() instanceof EventStatusCommand command)
+                || !StringUtils.hasText(command.eventId()) || command.live() == null) {
+            log.warn("Skipping invalid status command at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
+
+        try {
+            eventTaskService.updateEventStatus(command.eventId(), command.live());
+        } catch (Exception e) {
+            log.error("Status command for event {} failed on its own, sending it to the dead letter topic: {}",
+                    command.eventId(), e.getMessage(), e);
+            deadLetters.accept(record, e);
+        }
+    }
+}
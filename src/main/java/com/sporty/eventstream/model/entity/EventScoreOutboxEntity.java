@@ -0,0 +1,37 @@
+package com.sporty.eventstream.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Score message waiting to be relayed to Kafka.
+ * Written in the same transaction as the task completion.
+ */
+@Entity
+@Table(name = "EVENT_SCORE_OUTBOX")
+@Getter
+@Setter
+public class EventScoreOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "score", nullable = false)
+    private String score;
+
+    @Column(name = "score_timestamp", nullable = false)
+    private Instant scoreTimestamp;
+
+    @Column(name = "trace_id", length = 64)
+    private String traceId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,63 @@
+package com.sporty.eventstream.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * INACTIVE task moved out of EVENT_TASK after the retention window; keeps the task id.
+ * Always new when saved, so inserts skip the merge lookup an assigned id would otherwise cause.
+ */
+@Entity
+@Table(name = "EVENT_TASK_ARCHIVE")
+@Getter
+@Setter
+public class EventTaskArchiveEntity implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "execution_count")
+    private Long executionCount;
+
+    @Column(name = "last_execution_time")
+    private Instant lastExecutionTime;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "last_error_time")
+    private Instant lastErrorTime;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    /**
+     * Last update of the task, i.e. when it became INACTIVE.
+     */
+    @Column(name = "deactivated_at")
+    private Instant deactivatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
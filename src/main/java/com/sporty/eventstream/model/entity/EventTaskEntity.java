@@ -7,13 +7,23 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "EVENT_TASK")
+@Table(name = "EVENT_TASK", indexes = {
+        @Index(name = "idx_event_task_status_next_exec", columnList = "status, next_execution_time")
+})
 @Getter
 @Setter
 public class EventTaskEntity {
 
+    public static final String ID_SEQUENCE = "event_task_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Pooled sequence instead of IDENTITY so inserts can be JDBC-batched: Hibernate reserves
+     * {@link #ID_ALLOCATION_SIZE} ids per sequence call.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "event_id", unique = true, nullable = false)
@@ -29,6 +39,21 @@ public class EventTaskEntity {
     @Column(name = "last_execution_time")
     private Instant lastExecutionTime;
 
+    /**
+     * Instance that claimed the task, set while IN_PROGRESS.
+     */
+    @Column(name = "owner_instance")
+    private String ownerInstance;
+
+    /**
+     * Fencing token of the current claim; completions carrying another token are discarded.
+     */
+    @Column(name = "lease_token")
+    private Long leaseToken;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
     @Column(name = "created_at")
     private Instant createdAt;
 
@@ -38,6 +63,12 @@ public class EventTaskEntity {
     @Column(name = "execution_count")
     private Long executionCount = 0L;
 
+    /**
+     * Failed executions since the last success; drives the retry backoff and quarantine.
+     */
+    @Column(name = "consecutive_errors")
+    private Integer consecutiveErrors = 0;
+
     @Column(name = "last_error")
     private String lastError;
 
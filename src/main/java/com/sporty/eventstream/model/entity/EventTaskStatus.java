@@ -4,5 +4,9 @@ public enum EventTaskStatus {
     ACTIVE,
     INACTIVE,
     IN_PROGRESS,
-    FAILED
-}
\ No newline at end of file
+    FAILED,
+    /**
+     * Failed too often; not claimed until released through the admin API or the event ends.
+     */
+    QUARANTINED
+}
@@ -0,0 +1,9 @@
+package com.sporty.eventstream.model.event;
+
+/**
+ * Published when events go live; the scheduler runs a claim cycle once the transaction commits.
+ *
+ * @param count number of events set live
+ */
+public record TaskActivatedEvent(int count) {
+}
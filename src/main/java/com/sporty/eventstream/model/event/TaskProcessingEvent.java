@@ -2,7 +2,18 @@ package com.sporty.eventstream.model.event;
 
 import java.time.Instant;
 
+/**
+ * @param leaseToken fencing token of the claim
+ * @param attempt    1 for the claim, incremented by each rescheduled retry
+ */
 public record TaskProcessingEvent
-        (Long taskId, String eventId, Instant processingTime) {
-}
+        (Long taskId, String eventId, Instant processingTime, long leaseToken, int attempt) {
+
+    public TaskProcessingEvent(Long taskId, String eventId, Instant processingTime, long leaseToken) {
+        this(taskId, eventId, processingTime, leaseToken, 1);
+    }
 
+    public TaskProcessingEvent nextAttempt() {
+        return new TaskProcessingEvent(taskId, eventId, processingTime, leaseToken, attempt + 1);
+    }
+}
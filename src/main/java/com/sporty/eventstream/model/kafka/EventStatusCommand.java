@@ -0,0 +1,4 @@
+package com.sporty.eventstream.model.kafka;
+
+public record EventStatusCommand(String eventId, Boolean live) {
+}
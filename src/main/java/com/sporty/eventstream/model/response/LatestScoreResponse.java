@@ -0,0 +1,15 @@
+package com.sporty.eventstream.model.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Latest published score of an event")
+public record LatestScoreResponse(
+        String eventId,
+        String score,
+        Instant timestamp,
+        @Schema(description = "Monotonic update sequence, also used as ETag")
+        long sequence
+) {
+}
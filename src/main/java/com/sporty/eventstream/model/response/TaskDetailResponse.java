@@ -0,0 +1,26 @@
+package com.sporty.eventstream.model.response;
+
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Scheduling state of an event's task")
+public record TaskDetailResponse(
+        Long id,
+        String eventId,
+        EventTaskStatus status,
+        Instant nextExecutionTime,
+        Instant lastExecutionTime,
+        Long executionCount,
+        @Schema(description = "Failed executions since the last success")
+        Integer consecutiveErrors,
+        String lastError,
+        Instant lastErrorTime,
+        @Schema(description = "Instance holding the task while IN_PROGRESS")
+        String ownerInstance,
+        Instant leaseExpiresAt,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
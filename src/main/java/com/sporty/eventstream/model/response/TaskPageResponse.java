@@ -0,0 +1,13 @@
+package com.sporty.eventstream.model.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of tasks ordered by next execution time, then id")
+public record TaskPageResponse(
+        List<TaskSummaryResponse> tasks,
+        @Schema(description = "Pass as 'after' to get the next page; null on the last page")
+        String nextCursor
+) {
+}
@@ -0,0 +1,16 @@
+package com.sporty.eventstream.model.response;
+
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "Task row of a listing page")
+public record TaskSummaryResponse(
+        Long id,
+        String eventId,
+        EventTaskStatus status,
+        Instant nextExecutionTime,
+        Long executionCount
+) {
+}
@@ -0,0 +1,39 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One claim query; its tasks' {@link TaskDispatchJfrEvent}s carry the same lease token.
+ */
+@Name("com.sporty.eventstream.ClaimBatch")
+@Label("Claim Batch")
+@Description("Claim of due tasks by the scheduler")
+@Enabled(false)
+@StackTrace(false)
+@Category({"Event Stream", "Tasks"})
+public class ClaimBatchJfrEvent extends Event {
+
+    @Label("Lease Token")
+    long leaseToken;
+
+    @Label("Requested")
+    int requested;
+
+    @Label("Claimed")
+    int claimed;
+
+    public ClaimBatchJfrEvent(long leaseToken, int requested) {
+        this.leaseToken = leaseToken;
+        this.requested = requested;
+    }
+
+    public void claimed(int count) {
+        this.claimed = count;
+    }
+}
@@ -0,0 +1,27 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.sporty.eventstream.CompletionWrite")
+@Label("Completion Write")
+@Description("Update recording the task outcome and its next execution")
+public class CompletionWriteJfrEvent extends TaskJfrEvent {
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Lease Held")
+    @Description("False if the task was released or claimed again before the write")
+    boolean leaseHeld;
+
+    public CompletionWriteJfrEvent(Long taskId, String eventId, String outcome) {
+        super(taskId, eventId);
+        this.outcome = outcome;
+    }
+
+    public void leaseHeld(boolean held) {
+        this.leaseHeld = held;
+    }
+}
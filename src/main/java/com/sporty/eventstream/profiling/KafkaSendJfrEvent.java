@@ -0,0 +1,27 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.sporty.eventstream.KafkaSend")
+@Label("Kafka Send")
+@Description("Publish of a score message, or its spill to disk")
+public class KafkaSendJfrEvent extends TaskJfrEvent {
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    @Label("Spilled")
+    @Description("Written to the local spill instead of Kafka")
+    boolean spilled;
+
+    public KafkaSendJfrEvent(Long taskId, String eventId) {
+        super(taskId, eventId);
+    }
+
+    public void succeeded(boolean spilled) {
+        this.succeeded = true;
+        this.spilled = spilled;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.sporty.eventstream.ProviderFetch")
+@Label("Provider Fetch")
+@Description("Score call to the external provider, including in-thread retries")
+public class ProviderFetchJfrEvent extends TaskJfrEvent {
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public ProviderFetchJfrEvent(Long taskId, String eventId, int attempt) {
+        super(taskId, eventId);
+        this.attempt = attempt;
+    }
+
+    public void succeeded() {
+        this.succeeded = true;
+    }
+}
@@ -0,0 +1,34 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Committed when a worker picks a task up; retries include their backoff delay in the wait.
+ */
+@Name("com.sporty.eventstream.QueueWait")
+@Label("Task Queue Wait")
+@Description("Time from the claim until a worker starts the task")
+public class QueueWaitJfrEvent extends TaskJfrEvent {
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Wait")
+    @Timespan(Timespan.MILLISECONDS)
+    long waitMs;
+
+    public QueueWaitJfrEvent(Long taskId, String eventId, int attempt) {
+        super(taskId, eventId);
+        this.attempt = attempt;
+    }
+
+    public void waitedSince(Instant claimTime) {
+        this.waitMs = Duration.between(claimTime, Instant.now()).toMillis();
+    }
+}
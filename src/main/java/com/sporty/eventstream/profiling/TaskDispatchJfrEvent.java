@@ -0,0 +1,19 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.sporty.eventstream.TaskDispatch")
+@Label("Task Dispatch")
+@Description("Hand-off of a claimed task to the task executor")
+public class TaskDispatchJfrEvent extends TaskJfrEvent {
+
+    @Label("Lease Token")
+    long leaseToken;
+
+    public TaskDispatchJfrEvent(Long taskId, String eventId, long leaseToken) {
+        super(taskId, eventId);
+        this.leaseToken = leaseToken;
+    }
+}
@@ -0,0 +1,135 @@
+package com.sporty.eventstream.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Starts, stops and dumps an in-process flight recording of the task lifecycle events.
+ * <p>
+ * The recording enables every {@link TaskJfrEvent} plus {@link ClaimBatchJfrEvent} without threshold, on top
+ * of a JDK settings file ({@code default} or {@code profile}) for CPU samples, GC and lock events; {@code none},
+ * the default, records the task events only. The JDK events that copy environment variables, system properties
+ * and JVM arguments into the file are always left out, since those carry credentials. Old data is dropped beyond max age and max size, so a forgotten recording
+ * does not fill the disk. Only one recording runs at a time; starting again replaces a stopped one.
+ */
+@Slf4j
+@Component
+public class TaskFlightRecorder {
+
+    static final List<Class<? extends Event>> TASK_EVENTS = List.of(
+            ClaimBatchJfrEvent.class,
+            TaskDispatchJfrEvent.class,
+            QueueWaitJfrEvent.class,
+            ProviderFetchJfrEvent.class,
+            KafkaSendJfrEvent.class,
+            CompletionWriteJfrEvent.class);
+
+    private static final String RECORDING_NAME = "event-stream-tasks";
+    private static final String NO_JDK_SETTINGS = "none";
+    static final List<String> SECRET_BEARING_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation");
+
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private Recording recording;
+
+    public TaskFlightRecorder(@Value("${events.profiling.jfr.settings:none}") String settings,
+                              @Value("${events.profiling.jfr.max-age-seconds:900}") long maxAgeSeconds,
+                              @Value("${events.profiling.jfr.max-size-bytes:268435456}") long maxSizeBytes) {
+        this.settings = settings;
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Starts a recording unless one is running.
+     */
+    public synchronized RecordingStatus start() throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+
+        Recording started = NO_JDK_SETTINGS.equals(settings)
+                ? new Recording()
+                : new Recording(Configuration.getConfiguration(settings));
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        for (Class<? extends Event> type : TASK_EVENTS) {
+            started.enable(type).withoutThreshold();
+        }
+        for (String name : SECRET_BEARING_EVENTS) {
+            started.disable(name);
+        }
+        started.start();
+        recording = started;
+        log.info("Started task flight recording with {} settings", settings);
+        return status();
+    }
+
+    /**
+     * Stops the running recording; its data stays available to {@link #dump()} until the next start.
+     */
+    public synchronized RecordingStatus stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped task flight recording after {} bytes", recording.getSize());
+        }
+        return status();
+    }
+
+    /**
+     * Writes the recorded data to a new temporary file, which the caller owns.
+     *
+     * @return null if nothing was recorded since startup
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        Path file = Files.createTempFile("task-profile-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    public synchronized RecordingStatus status() {
+        if (recording == null) {
+            return new RecordingStatus(RecordingState.NEW.name(), settings, null, null, 0);
+        }
+        return new RecordingStatus(recording.getState().name(), settings,
+                recording.getStartTime(), recording.getStopTime(), recording.getSize());
+    }
+
+    @PreDestroy
+    public synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * @param state NEW before the first start, then RUNNING or STOPPED
+     */
+    public record RecordingStatus(String state, String settings, Instant startTime, Instant stopTime, long sizeBytes) {
+    }
+}
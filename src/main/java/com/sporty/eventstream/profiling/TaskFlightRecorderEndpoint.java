@@ -0,0 +1,79 @@
+package com.sporty.eventstream.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * {@code POST /actuator/jfr/start} and {@code POST /actuator/jfr/stop} control the task flight recording,
+ * {@code GET /actuator/jfr} downloads what it holds as a {@code .jfr} file (404 before the first start).
+ * Other actions get a 400.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class TaskFlightRecorderEndpoint {
+
+    private final TaskFlightRecorder recorder;
+
+    @WriteOperation
+    public WebEndpointResponse<TaskFlightRecorder.RecordingStatus> control(@Selector String action)
+            throws IOException, ParseException {
+        return switch (action) {
+            case "start" -> new WebEndpointResponse<>(recorder.start());
+            case "stop" -> new WebEndpointResponse<>(recorder.stop());
+            default -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        };
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump() throws IOException {
+        Path file = recorder.dump();
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Deletes the dump once it has been streamed to the client.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            return false; // stream it, so the file is deleted afterwards
+        }
+    }
+}
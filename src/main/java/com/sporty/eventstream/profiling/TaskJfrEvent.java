@@ -0,0 +1,31 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the per-task flight recorder events.
+ * <p>
+ * All events are disabled unless a recording enables them, see {@link TaskFlightRecorder}. Disabled,
+ * {@code begin()} and {@code commit()} are no-ops and the JIT removes the allocation, so the instrumentation
+ * can stay on the hot path.
+ */
+@Enabled(false)
+@StackTrace(false)
+@Category({"Event Stream", "Tasks"})
+public abstract class TaskJfrEvent extends Event {
+
+    @Label("Task Id")
+    long taskId;
+
+    @Label("Event Id")
+    String eventId;
+
+    protected TaskJfrEvent(Long taskId, String eventId) {
+        this.taskId = taskId != null ? taskId : 0;
+        this.eventId = eventId;
+    }
+}
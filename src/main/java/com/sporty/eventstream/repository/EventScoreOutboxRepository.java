@@ -0,0 +1,18 @@
+package com.sporty.eventstream.repository;
+
+import com.sporty.eventstream.model.entity.EventScoreOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface EventScoreOutboxRepository extends JpaRepository<EventScoreOutboxEntity, Long> {
+
+    @Query("""
+            select o
+            from EventScoreOutboxEntity o
+            order by o.id asc
+            """)
+    List<EventScoreOutboxEntity> findNextBatch(Pageable pageable);
+}
@@ -0,0 +1,7 @@
+package com.sporty.eventstream.repository;
+
+import com.sporty.eventstream.model.entity.EventTaskArchiveEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EventTaskArchiveRepository extends JpaRepository<EventTaskArchiveEntity, Long> {
+}
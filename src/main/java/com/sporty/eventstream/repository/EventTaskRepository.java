@@ -2,13 +2,18 @@ package com.sporty.eventstream.repository;
 
 import com.sporty.eventstream.model.entity.EventTaskEntity;
 import com.sporty.eventstream.model.entity.EventTaskStatus;
-import org.springframework.data.domain.Page;
+import com.sporty.eventstream.model.response.TaskSummaryResponse;
+import com.sporty.eventstream.service.ClaimedTask;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,22 +21,267 @@ public interface EventTaskRepository extends JpaRepository<EventTaskEntity, Long
 
     Optional<EventTaskEntity> findByEventId(String eventId);
 
+    /**
+     * Due tasks, oldest first; no entities are loaded and no count query is issued.
+     */
     @Query("""
-            select t
+            select new com.sporty.eventstream.service.ClaimedTask(t.id, t.eventId)
             from EventTaskEntity t
             where t.status = :status
               and t.nextExecutionTime <= :now
             order by t.nextExecutionTime asc
             """)
-    Page<EventTaskEntity> findReadyTasks(@Param("status") EventTaskStatus status,
-                                         @Param("now") Instant now,
-                                         Pageable pageable);
+    List<ClaimedTask> findReadyTasks(@Param("status") EventTaskStatus status,
+                                     @Param("now") Instant now,
+                                     Pageable pageable);
+
+    @Query("""
+            select t.eventId
+            from EventTaskEntity t
+            where t.id = :taskId
+            """)
+    Optional<String> findEventIdById(@Param("taskId") Long taskId);
 
+    @Query("""
+            select coalesce(t.consecutiveErrors, 0)
+            from EventTaskEntity t
+            where t.id = :taskId
+            """)
+    Optional<Integer> findConsecutiveErrorsById(@Param("taskId") Long taskId);
+
+    boolean existsByEventId(String eventId);
+
+    @Query("""
+            select min(t.nextExecutionTime)
+            from EventTaskEntity t
+            where t.status = :status
+            """)
+    Instant findEarliestNextExecutionTime(@Param("status") EventTaskStatus status);
+
+    /**
+     * Keyset page over (nextExecutionTime, id) of tasks with a next execution time, projected without
+     * loading entities.
+     */
+    @Query("""
+            select new com.sporty.eventstream.model.response.TaskSummaryResponse(
+                t.id, t.eventId, t.status, t.nextExecutionTime, t.executionCount)
+            from EventTaskEntity t
+            where t.status = :status
+              and t.nextExecutionTime is not null
+              and (t.nextExecutionTime > :afterTime
+                   or (t.nextExecutionTime = :afterTime and t.id > :afterId))
+            order by t.nextExecutionTime asc, t.id asc
+            """)
+    List<TaskSummaryResponse> findScheduledPage(@Param("status") EventTaskStatus status,
+                                                @Param("afterTime") Instant afterTime,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    /**
+     * Keyset page over id of tasks without a next execution time; these follow the scheduled ones.
+     */
+    @Query("""
+            select new com.sporty.eventstream.model.response.TaskSummaryResponse(
+                t.id, t.eventId, t.status, t.nextExecutionTime, t.executionCount)
+            from EventTaskEntity t
+            where t.status = :status
+              and t.nextExecutionTime is null
+              and t.id > :afterId
+            order by t.id asc
+            """)
+    List<TaskSummaryResponse> findUnscheduledPage(@Param("status") EventTaskStatus status,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    /**
+     * Next chunk of INACTIVE tasks not updated since {@code cutoff}, row-locked so a concurrent
+     * reactivation waits for the archive transaction instead of being deleted.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
             select t
             from EventTaskEntity t
+            where t.status = 'INACTIVE'
+              and t.updatedAt < :cutoff
+            order by t.id asc
+            """)
+    List<EventTaskEntity> findArchivableTasks(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    long countByStatusIn(Collection<EventTaskStatus> statuses);
+
+    @Query("""
+            select t.status, count(t)
+            from EventTaskEntity t
+            group by t.status
+            """)
+    List<Object[]> countByStatus();
+
+    @Query("""
+            select t.id
+            from EventTaskEntity t
+            where t.status = 'IN_PROGRESS'
+              and (t.leaseExpiresAt < :now
+                   or (t.leaseExpiresAt is null and t.lastExecutionTime < :threshold))
+            """)
+    List<Long> findExpiredInProgressTaskIds(@Param("now") Instant now,
+                                            @Param("threshold") Instant threshold);
+
+    @Query("""
+            select t.eventId
+            from EventTaskEntity t
+            where t.eventId in :eventIds
+            """)
+    List<String> findExistingEventIds(@Param("eventIds") Collection<String> eventIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update EventTaskEntity t
+            set t.status = :status,
+                t.nextExecutionTime = :nextExecutionTime,
+                t.updatedAt = :now
+            where t.eventId in :eventIds
+            """)
+    int updateStatusByEventIds(@Param("eventIds") Collection<String> eventIds,
+                               @Param("status") EventTaskStatus status,
+                               @Param("nextExecutionTime") Instant nextExecutionTime,
+                               @Param("now") Instant now);
+
+    /**
+     * Sets the given events live; quarantined tasks stay quarantined until released explicitly.
+     * Errors from an earlier live period are forgotten, a repeated live message keeps the error count.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update EventTaskEntity t
+            set t.consecutiveErrors = case when t.status = 'INACTIVE' then 0 else t.consecutiveErrors end,
+                t.status = 'ACTIVE',
+                t.nextExecutionTime = :nextExecutionTime,
+                t.updatedAt = :now
+            where t.eventId in :eventIds
+              and t.status <> 'QUARANTINED'
+            """)
+    int activateByEventIds(@Param("eventIds") Collection<String> eventIds,
+                           @Param("nextExecutionTime") Instant nextExecutionTime,
+                           @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update EventTaskEntity t
+            set t.status = 'ACTIVE',
+                t.consecutiveErrors = 0,
+                t.nextExecutionTime = :nextExecutionTime,
+                t.updatedAt = :now
+            where t.eventId = :eventId
+              and t.status = 'QUARANTINED'
+            """)
+    int releaseQuarantined(@Param("eventId") String eventId,
+                           @Param("nextExecutionTime") Instant nextExecutionTime,
+                           @Param("now") Instant now);
+
+    /**
+     * Claims the given tasks if they are still ACTIVE; rows taken by another instance in between are skipped.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update EventTaskEntity t
+            set t.status = 'IN_PROGRESS',
+                t.lastExecutionTime = :now,
+                t.ownerInstance = :owner,
+                t.leaseToken = :leaseToken,
+                t.leaseExpiresAt = :leaseExpiresAt,
+                t.updatedAt = :now
+            where t.id in :taskIds
+              and t.status = 'ACTIVE'
+            """)
+    int claimTasks(@Param("taskIds") Collection<Long> taskIds,
+                   @Param("owner") String owner,
+                   @Param("leaseToken") Long leaseToken,
+                   @Param("leaseExpiresAt") Instant leaseExpiresAt,
+                   @Param("now") Instant now);
+
+    @Query("""
+            select t.id
+            from EventTaskEntity t
+            where t.id in :taskIds
+              and t.leaseToken = :leaseToken
+            """)
+    List<Long> findClaimedTaskIds(@Param("taskIds") Collection<Long> taskIds,
+                                  @Param("leaseToken") Long leaseToken);
+
+    /**
+     * Finishes an execution: to {@code status} (ACTIVE, or QUARANTINED after too many errors) with the next
+     * execution time, claim cleared, execution count incremented. Fenced by the lease token.
+     * Native SQL: it runs once per task, and skipping HQL translation makes it cheaper than load + save.
+     *
+     * @return 0 if the task does not exist or the lease was lost
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            update event_task
+            set status = :status,
+                owner_instance = null,
+                lease_token = null,
+                lease_expires_at = null,
+                execution_count = execution_count + 1,
+                consecutive_errors = :consecutiveErrors,
+                last_error = :lastError,
+                last_error_time = :lastErrorTime,
+                next_execution_time = :nextExecutionTime,
+                updated_at = :now
+            where id = :taskId
+              and lease_token = :leaseToken
+              and status = 'IN_PROGRESS'
+            """, nativeQuery = true)
+    int completeTask(@Param("taskId") Long taskId,
+                     @Param("leaseToken") long leaseToken,
+                     @Param("status") String status,
+                     @Param("nextExecutionTime") Instant nextExecutionTime,
+                     @Param("consecutiveErrors") int consecutiveErrors,
+                     @Param("lastError") String lastError,
+                     @Param("lastErrorTime") Instant lastErrorTime,
+                     @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update EventTaskEntity t
+            set t.status = 'ACTIVE',
+                t.ownerInstance = null,
+                t.leaseToken = null,
+                t.leaseExpiresAt = null,
+                t.nextExecutionTime = :nextExecutionTime,
+                t.updatedAt = :now
+            where t.id in :taskIds
+              and t.status = 'IN_PROGRESS'
+            """)
+    int releaseInProgressByIds(@Param("taskIds") Collection<Long> taskIds,
+                               @Param("nextExecutionTime") Instant nextExecutionTime,
+                               @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update EventTaskEntity t
+            set t.status = 'ACTIVE',
+                t.ownerInstance = null,
+                t.leaseToken = null,
+                t.leaseExpiresAt = null,
+                t.nextExecutionTime = :nextExecutionTime,
+                t.updatedAt = :now
             where t.status = 'IN_PROGRESS'
-              and t.lastExecutionTime < :threshold
+              and t.ownerInstance = :owner
+            """)
+    int releaseInProgressByOwner(@Param("owner") String owner,
+                                 @Param("nextExecutionTime") Instant nextExecutionTime,
+                                 @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update EventTaskEntity t
+            set t.leaseExpiresAt = :expiresAt
+            where t.id in :taskIds
+              and t.leaseToken = :leaseToken
+              and t.status = 'IN_PROGRESS'
             """)
-    List<EventTaskEntity> findStuckInProgressTasks(@Param("threshold") Instant threshold);
+    int renewLeases(@Param("taskIds") Collection<Long> taskIds,
+                    @Param("leaseToken") Long leaseToken,
+                    @Param("expiresAt") Instant expiresAt);
 }
@@ -1,6 +1,9 @@
 package com.sporty.eventstream.scheduler;
 
+import com.sporty.eventstream.logging.LogSampling;
 import com.sporty.eventstream.logging.TraceIdContext;
+import com.sporty.eventstream.model.event.TaskActivatedEvent;
+import com.sporty.eventstream.service.DispatchResult;
 import com.sporty.eventstream.service.EventTaskService;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -9,9 +12,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.time.Instant;
+import java.time.Clock;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -20,8 +26,18 @@ import java.util.concurrent.atomic.AtomicLong;
 @RequiredArgsConstructor
 public class EventTaskScheduler {
 
+    private static final String LAG_MODE = "lag";
+
     private final EventTaskService eventTaskService;
     private final ThreadPoolTaskScheduler taskScheduler;
+    private final LagController lagController;
+    private final Clock clock;
+
+    /**
+     * {@code adaptive}: count-based interval steps; {@code lag}: {@link LagController} targets a schedule lag.
+     */
+    @Value("${events.scheduler.mode:adaptive}")
+    private String mode;
 
     @Value("${events.task-processor-interval-min-ms:100}")
     private long minIntervalMs;
@@ -35,19 +51,77 @@ public class EventTaskScheduler {
     @Value("${events.task-execution-interval-seconds:10}")
     private int executionIntervalSeconds;
 
+    /**
+     * Activations within this window share one claim cycle.
+     */
+    @Value("${events.scheduler.wake-debounce-ms:20}")
+    private long wakeDebounceMs;
+
     private final AtomicLong currentIntervalMs = new AtomicLong(1000); // Start with 1 second
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
+    private final AtomicBoolean wakePending = new AtomicBoolean(false);
     private volatile ScheduledFuture<?> scheduledFuture;
+    private volatile boolean stopped;
 
     @PostConstruct
     public void start() {
-        log.info("Starting adaptive scheduler: polling interval {}-{}ms, task execution every {}s",
-                minIntervalMs, maxIntervalMs, executionIntervalSeconds);
+        log.info("Starting {} scheduler: polling interval {}-{}ms, task execution every {}s",
+                mode, minIntervalMs, maxIntervalMs, executionIntervalSeconds);
+        // tasks this instance left IN_PROGRESS when it last stopped are due again right away
+        try {
+            eventTaskService.releaseOwnedTasks();
+        } catch (Exception e) {
+            log.warn("Could not release orphaned tasks on startup: {}", e.getMessage());
+        }
         scheduleNext();
     }
 
+    /**
+     * Stops claiming new tasks and waits up to {@code timeoutMs} for a running tick to finish.
+     *
+     * @return true if no tick is running any more
+     */
+    public boolean stopClaiming(long timeoutMs) {
+        stop();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (isRunning.get() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return !isRunning.get();
+    }
+
+    /**
+     * Runs a claim cycle within the debounce window instead of waiting out the current interval.
+     * Repeated calls before that cycle starts are coalesced; during a running cycle the next one is
+     * scheduled after the debounce window.
+     */
+    public void wakeUp() {
+        if (stopped || !wakePending.compareAndSet(false, true) || isRunning.get()) {
+            return;
+        }
+        ScheduledFuture<?> pending = scheduledFuture;
+        if (pending == null || pending.getDelay(TimeUnit.MILLISECONDS) > wakeDebounceMs) {
+            schedule(wakeDebounceMs);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskActivated(TaskActivatedEvent event) {
+        log.debug("{} events activated, waking up scheduler", event.count());
+        wakeUp();
+    }
+
     @PreDestroy
-    public void stop() {
+    public synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
         if (scheduledFuture != null) {
             scheduledFuture.cancel(false);
             log.info("Stopped adaptive scheduler");
@@ -56,28 +130,56 @@ public class EventTaskScheduler {
 
     private void scheduleNext() {
         long delayMs = currentIntervalMs.get();
-        scheduledFuture = taskScheduler.schedule(this::processTasks, Instant.now().plusMillis(delayMs));
+        schedule(wakePending.get() ? Math.min(delayMs, wakeDebounceMs) : delayMs);
+    }
+
+    /**
+     * Replaces the pending cycle, so a wake-up never leaves two scheduling chains behind.
+     */
+    private synchronized void schedule(long delayMs) {
+        if (stopped) {
+            return;
+        }
+        ScheduledFuture<?> previous = scheduledFuture;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        scheduledFuture = taskScheduler.schedule(this::processTasks, clock.instant().plusMillis(delayMs));
     }
 
     private void processTasks() {
+        if (stopped) {
+            return;
+        }
         // Skip if previous execution is still running
         if (!isRunning.compareAndSet(false, true)) {
             log.warn("Previous execution still running, skipping");
             scheduleNext();
             return;
         }
+        // this cycle claims everything activated so far
+        wakePending.set(false);
 
         String traceId = TraceIdContext.generate();
         TraceIdContext.setTraceId(traceId);
-        long startTime = System.currentTimeMillis();
+        long startTime = clock.millis();
 
         try {
-            int processed = eventTaskService.processDueTasks();
-            long duration = System.currentTimeMillis() - startTime;
-            
-            adjustInterval(processed, duration);
-            
-            log.info("traceId={} Processed {} tasks in {}ms, next interval: {}ms",
+            int processed;
+            if (LAG_MODE.equals(mode)) {
+                DispatchResult result = eventTaskService.dispatchDueTasks(lagController.batchSize());
+                processed = result.claimed();
+                currentIntervalMs.set(lagController.update(clock.instant(), result));
+            } else {
+                processed = eventTaskService.processDueTasks();
+            }
+            long duration = clock.millis() - startTime;
+
+            if (!LAG_MODE.equals(mode)) {
+                adjustInterval(processed, duration);
+            }
+
+            log.info(LogSampling.SAMPLED, "traceId={} Processed {} tasks in {}ms, next interval: {}ms",
                     traceId, processed, duration, currentIntervalMs.get());
 
         } catch (Exception e) {
@@ -0,0 +1,151 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.service.EventTaskPersistenceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Sizes the task executor from Little's law: threads needed = arrival rate x time per task.
+ * <p>
+ * The arrival rate is the number of scheduled tasks divided by the execution interval, i.e. the due tasks per
+ * second the pool has to keep up with; the time per task is the mean run time measured by
+ * {@link ExecutorLoadSampler}, smoothed with an EWMA. The result times {@code headroom} is the target core size
+ * within [min, max]. To avoid oscillation the pool only moves halfway to the target per evaluation and not at
+ * all while the target is within the deadband. The max pool size keeps its configured distance above core,
+ * as burst capacity for a full queue. Every resize is logged with its inputs.
+ */
+@Slf4j
+@Component
+public class ExecutorAutoTuner {
+
+    private final EventTaskPersistenceService persistence;
+    private final ExecutorLoadSampler sampler;
+    private final ThreadPoolTaskExecutor executor;
+    private final boolean enabled;
+    private final int executionIntervalSeconds;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final int burstThreads;
+    private final double headroom;
+    private final double latencySmoothing;
+    private final double deadband;
+    private final Counter resizes;
+
+    private double latencyMs;
+    private volatile double arrivalRate;
+    private volatile int targetPoolSize;
+
+    public ExecutorAutoTuner(EventTaskPersistenceService persistence,
+                             ExecutorLoadSampler sampler,
+                             @Qualifier("taskExecutor") Executor taskExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${events.executor.auto-tune.enabled:false}") boolean enabled,
+                             @Value("${events.task-execution-interval-seconds:10}") int executionIntervalSeconds,
+                             @Value("${events.executor.auto-tune.min-pool-size:4}") int minPoolSize,
+                             @Value("${events.executor.auto-tune.max-pool-size:200}") int maxPoolSize,
+                             @Value("${events.executor.auto-tune.headroom:1.2}") double headroom,
+                             @Value("${events.executor.auto-tune.latency-smoothing:0.3}") double latencySmoothing,
+                             @Value("${events.executor.auto-tune.deadband:0.1}") double deadband) {
+        this.persistence = persistence;
+        this.sampler = sampler;
+        this.executor = (ThreadPoolTaskExecutor) taskExecutor;
+        this.enabled = enabled;
+        this.executionIntervalSeconds = Math.max(1, executionIntervalSeconds);
+        this.minPoolSize = Math.max(1, minPoolSize);
+        this.maxPoolSize = Math.max(this.minPoolSize, maxPoolSize);
+        this.burstThreads = Math.max(0, executor.getMaxPoolSize() - executor.getCorePoolSize());
+        this.headroom = Math.max(1, headroom);
+        this.latencySmoothing = Math.max(0.01, Math.min(1, latencySmoothing));
+        this.deadband = Math.max(0, deadband);
+        this.targetPoolSize = executor.getCorePoolSize();
+
+        this.resizes = Counter.builder("events.executor.resizes")
+                .description("Pool size changes made by the auto-tuner")
+                .register(meterRegistry);
+        Gauge.builder("events.executor.pool.core", executor, ThreadPoolTaskExecutor::getCorePoolSize)
+                .register(meterRegistry);
+        Gauge.builder("events.executor.pool.target", this, t -> t.targetPoolSize)
+                .description("Pool size Little's law asks for, before damping")
+                .register(meterRegistry);
+        Gauge.builder("events.executor.task.latency", this, t -> t.latencyMs)
+                .description("Smoothed mean run time of executor tasks")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("events.executor.arrival.rate", this, t -> t.arrivalRate)
+                .description("Due tasks per second the pool is sized for")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${events.executor.auto-tune.interval-ms:10000}",
+            initialDelayString = "${events.executor.auto-tune.interval-ms:10000}")
+    public void tune() {
+        ExecutorLoadSampler.Sample sample = sampler.sampleAndReset();
+        if (!enabled) {
+            return;
+        }
+        try {
+            double arrivals = (double) persistence.countScheduledTasks() / executionIntervalSeconds;
+            int current = executor.getCorePoolSize();
+            int next = evaluate(current, arrivals, sample);
+            if (next != current) {
+                resize(next);
+                resizes.increment();
+                log.info("Executor resized {} -> {} threads: {} tasks/s x {}ms x {} headroom = target {}",
+                        current, next, String.format("%.1f", arrivals), String.format("%.1f", latencyMs),
+                        headroom, targetPoolSize);
+            } else {
+                log.debug("Executor kept at {} threads: {} tasks/s x {}ms, target {}",
+                        current, String.format("%.1f", arrivals), String.format("%.1f", latencyMs), targetPoolSize);
+            }
+        } catch (Exception e) {
+            log.warn("Executor auto-tuning skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Folds one measurement interval into the latency estimate and returns the damped pool size.
+     */
+    synchronized int evaluate(int current, double arrivalsPerSecond, ExecutorLoadSampler.Sample sample) {
+        arrivalRate = arrivalsPerSecond;
+        if (sample.completed() > 0) {
+            latencyMs = latencyMs == 0
+                    ? sample.meanLatencyMs()
+                    : latencySmoothing * sample.meanLatencyMs() + (1 - latencySmoothing) * latencyMs;
+        }
+        if (latencyMs == 0) {
+            return current; // nothing measured yet
+        }
+
+        int target = (int) Math.ceil(arrivalsPerSecond * latencyMs / 1000.0 * headroom);
+        target = Math.max(minPoolSize, Math.min(maxPoolSize, target));
+        targetPoolSize = target;
+
+        int gap = target - current;
+        if (gap == 0 || Math.abs(gap) <= deadband * current) {
+            return current;
+        }
+        int step = gap > 0 ? (gap + 1) / 2 : (gap - 1) / 2;
+        return current + step;
+    }
+
+    private void resize(int corePoolSize) {
+        int maxPool = corePoolSize + burstThreads;
+        // ThreadPoolExecutor rejects core > max at every intermediate step
+        if (corePoolSize > executor.getCorePoolSize()) {
+            executor.setMaxPoolSize(maxPool);
+            executor.setCorePoolSize(corePoolSize);
+        } else {
+            executor.setCorePoolSize(corePoolSize);
+            executor.setMaxPoolSize(maxPool);
+        }
+    }
+}
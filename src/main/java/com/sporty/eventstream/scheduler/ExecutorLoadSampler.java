@@ -0,0 +1,49 @@
+package com.sporty.eventstream.scheduler;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long task executor jobs run, as input for {@link ExecutorAutoTuner}.
+ * Installed as the executor's {@link TaskDecorator}; queue wait is not included.
+ */
+public class ExecutorLoadSampler implements TaskDecorator {
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                runnable.run();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    void record(long runNanos) {
+        busyNanos.add(runNanos);
+        completed.increment();
+    }
+
+    /**
+     * Jobs finished and their total run time since the previous call.
+     */
+    public Sample sampleAndReset() {
+        return new Sample(completed.sumThenReset(), busyNanos.sumThenReset());
+    }
+
+    public record Sample(long completed, long busyNanos) {
+
+        /**
+         * Mean run time in milliseconds, 0 if nothing completed.
+         */
+        public double meanLatencyMs() {
+            return completed == 0 ? 0 : busyNanos / 1e6 / completed;
+        }
+    }
+}
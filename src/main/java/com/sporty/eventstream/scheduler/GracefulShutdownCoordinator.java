@@ -0,0 +1,112 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.service.EventTaskService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shutdown protocol for task processing, run before any bean is destroyed:
+ * <ol>
+ *     <li>stop claiming new tasks and drop rescheduled retries that come due,</li>
+ *     <li>give in-flight tasks {@code events.shutdown.drain-timeout-ms} to finish, then interrupt them
+ *     and drop queued ones,</li>
+ *     <li>release everything this instance still holds IN_PROGRESS to ACTIVE in one update.</li>
+ * </ol>
+ * Another node (or this one after restart) picks the released tasks up on its next tick instead of
+ * waiting for the stuck-task timeout.
+ */
+@Slf4j
+@Component
+public class GracefulShutdownCoordinator implements SmartLifecycle {
+
+    /**
+     * Above the Kafka listener containers and the web server's graceful shutdown. Lifecycles stop in
+     * descending phase order, so this stops first.
+     */
+    public static final int PHASE = AbstractMessageListenerContainer.DEFAULT_PHASE + 50;
+
+    private final EventTaskScheduler scheduler;
+    private final TaskRetryScheduler retries;
+    private final EventTaskService eventTaskService;
+    private final Executor taskExecutor;
+    private final long drainTimeoutMs;
+
+    private volatile boolean running;
+
+    public GracefulShutdownCoordinator(EventTaskScheduler scheduler,
+                                       TaskRetryScheduler retries,
+                                       EventTaskService eventTaskService,
+                                       @Qualifier("taskExecutor") Executor taskExecutor,
+                                       @Value("${events.shutdown.drain-timeout-ms:5000}") long drainTimeoutMs) {
+        this.scheduler = scheduler;
+        this.retries = retries;
+        this.eventTaskService = eventTaskService;
+        this.taskExecutor = taskExecutor;
+        this.drainTimeoutMs = drainTimeoutMs;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        long start = System.nanoTime();
+
+        retries.stop();
+        scheduler.stopClaiming(drainTimeoutMs);
+        boolean drained = drainExecutor(start);
+
+        try {
+            int released = eventTaskService.releaseOwnedTasks();
+            log.info("Task processing stopped in {}ms (drained={}, released={})",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), drained, released);
+        } catch (Exception e) {
+            log.error("Could not release in-flight tasks on shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean drainExecutor(long start) {
+        if (!(taskExecutor instanceof ThreadPoolTaskExecutor executor)) {
+            return true;
+        }
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        pool.shutdown();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs) - (System.nanoTime() - start);
+            if (pool.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int dropped = pool.shutdownNow().size();
+        log.warn("In-flight tasks did not finish within {}ms, interrupted them and dropped {} queued",
+                drainTimeoutMs, dropped);
+        return false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop before web server and Kafka containers so nothing is claimed while they shut down.
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
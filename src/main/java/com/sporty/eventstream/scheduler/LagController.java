@@ -0,0 +1,129 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.service.DispatchResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * PID controller for the claim loop that keeps schedule lag (how late tasks are claimed) under a maximum.
+ * <p>
+ * The set point is half the maximum. The normalized error {@code (lag - setPoint) / setPoint} drives one
+ * output, pressure in [0, 1]. At or below the set point pressure is 0: the configured batch size is claimed
+ * and, if a backlog is left, the next poll follows after the set point. Above it, pressure raises the batch
+ * size towards the max batch size and shortens the poll towards the min interval. The batch size grows at once
+ * but only shrinks halfway per cycle.
+ * Without a backlog the scheduler sleeps until the next task is due, bounded by the min and max interval.
+ * The integral is clamped to [0, 1 / ki] (anti-windup) and decays while idle.
+ */
+@Component
+public class LagController {
+
+    private static final double IDLE_INTEGRAL_DECAY = 0.5;
+
+    private final long setPointMs;
+    private final double kp;
+    private final double ki;
+    private final double kd;
+    private final int baseBatch;
+    private final int maxBatch;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final double maxIntegral;
+
+    private long lastUpdateMs;
+    private double integral;
+    private double previousError;
+    private volatile long lastLagMs;
+    private volatile int batchSize;
+
+    public LagController(MeterRegistry meterRegistry,
+                         @Value("${events.scheduler.max-lag-ms:500}") long maxLagMs,
+                         @Value("${events.scheduler.kp:1.0}") double kp,
+                         @Value("${events.scheduler.ki:1.0}") double ki,
+                         @Value("${events.scheduler.kd:0.1}") double kd,
+                         @Value("${events.task-processor-batch-size:100}") int baseBatch,
+                         @Value("${events.scheduler.max-batch-size:1000}") int maxBatch,
+                         @Value("${events.task-processor-interval-min-ms:100}") long minIntervalMs,
+                         @Value("${events.task-processor-interval-max-ms:5000}") long maxIntervalMs) {
+        this.setPointMs = Math.max(1, maxLagMs / 2);
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        this.baseBatch = Math.max(1, baseBatch);
+        this.maxBatch = Math.max(this.baseBatch, maxBatch);
+        this.minIntervalMs = Math.max(1, minIntervalMs);
+        this.maxIntervalMs = Math.max(this.minIntervalMs, maxIntervalMs);
+        this.maxIntegral = ki > 0 ? 1 / ki : 0;
+        this.batchSize = this.baseBatch;
+
+        Gauge.builder("events.scheduler.lag", this, c -> c.lastLagMs)
+                .description("Schedule lag of the oldest due task at the last claim")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("events.scheduler.batch-size", this, c -> c.batchSize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Batch size to use for the next claim.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Feeds the result of a claim cycle finished at {@code now}.
+     *
+     * @return delay until the next claim cycle
+     */
+    public synchronized long update(Instant now, DispatchResult result) {
+        long nowMs = now.toEpochMilli();
+        double dtSeconds = lastUpdateMs == 0 ? 0 : Math.max(0.001, (nowMs - lastUpdateMs) / 1000.0);
+        lastUpdateMs = nowMs;
+
+        Instant nextDue = result.nextDueTime();
+        boolean backlog = nextDue != null && !nextDue.isAfter(now);
+        long remainingLagMs = backlog ? Duration.between(nextDue, now).toMillis() : 0;
+        long lagMs = Math.max(result.lagMs(), remainingLagMs);
+        lastLagMs = lagMs;
+
+        double error = (lagMs - setPointMs) / (double) setPointMs;
+        double derivative = dtSeconds > 0 ? (error - previousError) / dtSeconds : 0;
+        previousError = error;
+        if (lagMs == 0 && !backlog) {
+            // idle: keep the batch size for the next wake-up and let the integral bleed off
+            integral *= IDLE_INTEGRAL_DECAY;
+            return idleDelay(now, nextDue);
+        }
+        if (dtSeconds > 0) {
+            integral = clamp(integral + error * dtSeconds, 0, maxIntegral);
+        }
+
+        double pressure = clamp(kp * error + ki * integral + kd * derivative, 0, 1);
+        int target = (int) Math.round(baseBatch + pressure * (maxBatch - baseBatch));
+        // grow at once, shrink halfway per cycle: a recurring burst still finds a large batch on its next round
+        batchSize = target >= batchSize ? target : (batchSize + target) / 2;
+
+        if (backlog) {
+            long slowest = Math.min(maxIntervalMs, Math.max(minIntervalMs, setPointMs));
+            return Math.round(minIntervalMs + (1 - pressure) * (slowest - minIntervalMs));
+        }
+        return idleDelay(now, nextDue);
+    }
+
+    private long idleDelay(Instant now, Instant nextDue) {
+        if (nextDue == null) {
+            return maxIntervalMs;
+        }
+        return (long) clamp(Duration.between(now, nextDue).toMillis(), minIntervalMs, maxIntervalMs);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,45 @@
+package com.sporty.eventstream.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts processed tasks and logs one aggregated summary line per interval,
+ * replacing per-task INFO lines as the normal way to watch throughput.
+ */
+@Slf4j
+@Component
+public class ProcessingStats {
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private long lastReportNanos = System.nanoTime();
+
+    public void recordSuccess() {
+        succeeded.increment();
+    }
+
+    public void recordError() {
+        failed.increment();
+    }
+
+    @Scheduled(fixedRateString = "${events.logging.summary-interval-ms:10000}",
+            initialDelayString = "${events.logging.summary-interval-ms:10000}")
+    public void logSummary() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastReportNanos) / 1e9);
+        lastReportNanos = now;
+
+        long tasks = succeeded.sumThenReset();
+        long errors = failed.sumThenReset();
+        if (tasks == 0 && errors == 0) {
+            return;
+        }
+        log.info("Task summary: {} succeeded ({} tasks/s), {} failed ({} errors/s) in last {}s",
+                tasks, String.format("%.1f", tasks / seconds), errors, String.format("%.1f", errors / seconds),
+                String.format("%.1f", seconds));
+    }
+}
@@ -0,0 +1,111 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.service.TaskArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically archives INACTIVE tasks older than the retention window.
+ * <p>
+ * A run archives one chunk per transaction. Between chunks it does not sleep on the shared scheduler
+ * pool: the next chunk is scheduled {@code chunk-pause-ms} later, so claim cycles and lease renewals
+ * keep their threads and the database gets breathing room. A run stops after {@code max-chunks-per-run}
+ * chunks and continues at the next interval.
+ */
+@Slf4j
+@Component
+public class TaskArchiver {
+
+    private final TaskArchiveService archiveService;
+    private final ThreadPoolTaskScheduler taskScheduler;
+    private final Clock clock;
+    private final Counter archivedCounter;
+    private final Timer chunkTimer;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${events.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${events.archive.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${events.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${events.archive.chunk-pause-ms:100}")
+    private long chunkPauseMs;
+
+    @Value("${events.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    public TaskArchiver(TaskArchiveService archiveService, ThreadPoolTaskScheduler taskScheduler,
+                        MeterRegistry meterRegistry, Clock clock) {
+        this.archiveService = archiveService;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+        this.archivedCounter = Counter.builder("events.archive.tasks")
+                .description("INACTIVE tasks moved to the archive table")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("events.archive.chunk")
+                .description("Duration of one archive chunk transaction")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${events.archive.interval-ms:600000}",
+            initialDelayString = "${events.archive.initial-delay-ms:60000}")
+    public void startRun() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        Instant cutoff = clock.instant().minus(Duration.ofDays(retentionDays));
+        runChunk(new Run(cutoff, System.nanoTime()));
+    }
+
+    private void runChunk(Run run) {
+        int archived;
+        try {
+            archived = chunkTimer.record(() -> archiveService.archiveChunk(run.cutoff, chunkSize, clock.instant()));
+        } catch (Exception e) {
+            log.warn("Archiving INACTIVE tasks failed after {} tasks: {}", run.archived, e.getMessage());
+            running.set(false);
+            return;
+        }
+        archivedCounter.increment(archived);
+        run.archived += archived;
+        run.chunks++;
+
+        if (archived == chunkSize && run.chunks < maxChunksPerRun) {
+            taskScheduler.schedule(() -> runChunk(run), clock.instant().plusMillis(chunkPauseMs));
+            return;
+        }
+        if (run.archived > 0) {
+            log.info("Archived {} INACTIVE tasks older than {} in {} chunks ({}ms){}", run.archived, run.cutoff,
+                    run.chunks, Duration.ofNanos(System.nanoTime() - run.startNanos).toMillis(),
+                    archived == chunkSize ? ", more left for the next run" : "");
+        }
+        running.set(false);
+    }
+
+    private static final class Run {
+        private final Instant cutoff;
+        private final long startNanos;
+        private long archived;
+        private int chunks;
+
+        private Run(Instant cutoff, long startNanos) {
+            this.cutoff = cutoff;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.sporty.eventstream.scheduler;
 
 import com.sporty.eventstream.client.ExternalServiceEventScoreClient;
+import com.sporty.eventstream.exception.KafkaPublishException;
+import com.sporty.eventstream.logging.LogSampling;
 import com.sporty.eventstream.logging.TraceIdContext;
 import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.messaging.ScoreSpillBuffer;
 import com.sporty.eventstream.model.event.TaskProcessingEvent;
 import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.profiling.CompletionWriteJfrEvent;
+import com.sporty.eventstream.profiling.KafkaSendJfrEvent;
+import com.sporty.eventstream.profiling.ProviderFetchJfrEvent;
+import com.sporty.eventstream.profiling.QueueWaitJfrEvent;
 import com.sporty.eventstream.service.EventTaskPersistenceService;
+import com.sporty.eventstream.service.LatestScoreService;
+import com.sporty.eventstream.service.ScoreStreamService;
+import com.sporty.eventstream.service.TaskLeaseRenewer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.time.Instant;
 
@@ -27,6 +39,15 @@ public class TaskProcessingListener {
     private final EventTaskPersistenceService persistence;
     private final ExternalServiceEventScoreClient serviceEventClient;
     private final KafkaEventMessagePublisher eventScorePublisher;
+    private final LatestScoreService latestScores;
+    private final ScoreStreamService scoreStream;
+    private final ProcessingStats processingStats;
+    private final TaskLeaseRenewer leases;
+    private final TaskRetryScheduler retries;
+    private final ScoreSpillBuffer spill;
+
+    @Value("${events.outbox.enabled:false}")
+    private boolean outboxEnabled;
 
     /**
      * Process task asynchronously in thread pool
@@ -40,38 +61,158 @@ public class TaskProcessingListener {
         Long taskId = event.taskId();
         String eventId = event.eventId();
         Instant processingTime = event.processingTime();
+        long leaseToken = event.leaseToken();
+
+        log.debug("Processing task {} for event {} (attempt {}) in thread {}",
+                taskId, eventId, event.attempt(), Thread.currentThread().getName());
 
-        log.debug("Processing task {} for event {} in thread {}", taskId, eventId, Thread.currentThread().getName());
+        QueueWaitJfrEvent queueWait = new QueueWaitJfrEvent(taskId, eventId, event.attempt());
+        if (queueWait.shouldCommit()) {
+            queueWait.waitedSince(processingTime);
+            queueWait.commit();
+        }
 
+        boolean retryScheduled = false;
         try {
             // Call external API
-            String score = serviceEventClient.fetchScore(eventId);
+            String score = fetchScore(event);
+
+            if (score == null) {
+                // 304 Not Modified: the last fetched score was already published
+                CompletionWriteJfrEvent completion = new CompletionWriteJfrEvent(taskId, eventId, "unchanged");
+                completion.begin();
+                completion.leaseHeld(persistence.markTaskSuccess(taskId, processingTime, leaseToken));
+                completion.commit();
+                processingStats.recordSuccess();
+                log.debug("Score of event {} unchanged, task {} skipped publishing", eventId, taskId);
+                return;
+            }
 
-            // Publish to Kafka
             EventScoreMessage message = new EventScoreMessage(
                     eventId,
                     score,
                     processingTime
             );
-            eventScorePublisher.publish(message);
 
-            // Mark success and schedule next execution
-            persistence.markTaskSuccess(taskId, processingTime);
+            boolean leaseHeld;
+            if (outboxEnabled) {
+                // Mark success and store message in one transaction, relay publishes it
+                CompletionWriteJfrEvent completion = new CompletionWriteJfrEvent(taskId, eventId, "outbox");
+                completion.begin();
+                leaseHeld = persistence.markTaskSuccessWithOutbox(taskId, processingTime, leaseToken, message);
+                completion.leaseHeld(leaseHeld);
+                completion.commit();
+            } else {
+                // Publish to Kafka, or to the local spill while Kafka is unavailable
+                publishScore(taskId, message);
+
+                // Mark success and schedule next execution
+                CompletionWriteJfrEvent completion = new CompletionWriteJfrEvent(taskId, eventId, "success");
+                completion.begin();
+                leaseHeld = persistence.markTaskSuccess(taskId, processingTime, leaseToken);
+                completion.leaseHeld(leaseHeld);
+                completion.commit();
+            }
+
+            if (!leaseHeld) {
+                // another claim owns the task now; its fetch must return the full score, not a 304
+                serviceEventClient.forgetValidators(eventId);
+                log.debug("Lease of task {} was lost, score of event {} not applied", taskId, eventId);
+                return;
+            }
+            latestScores.update(message).ifPresent(scoreStream::broadcast);
 
-            log.info("Successfully processed task {} for event {}", taskId, eventId);
+            processingStats.recordSuccess();
+            log.info(LogSampling.SAMPLED, "Successfully processed task {} for event {}", taskId, eventId);
 
         } catch (Exception ex) {
+            // the next fetch must return the full score, whatever happened to this one
+            serviceEventClient.forgetValidators(eventId);
+            if (retries.retryLater(event, ex)) {
+                retryScheduled = true; // the lease stays held until the retry finishes
+                return;
+            }
+
             String errorMessage = ex.getMessage();
             if (errorMessage != null && errorMessage.length() > MAX_ERROR_MESSAGE_LENGTH) {
                 errorMessage = errorMessage.substring(0, MAX_ERROR_MESSAGE_LENGTH);
             }
 
-            persistence.markTaskError(taskId, processingTime, errorMessage);
+            CompletionWriteJfrEvent completion = new CompletionWriteJfrEvent(taskId, eventId, "error");
+            completion.begin();
+            completion.leaseHeld(persistence.markTaskError(taskId, processingTime, leaseToken, errorMessage, isPermanent(ex)));
+            completion.commit();
+            processingStats.recordError();
 
             log.error("Failed to process task {} for event {}: {}", taskId, eventId, ex.getMessage(), ex);
         } finally {
+            if (!retryScheduled) {
+                leases.release(taskId, leaseToken);
+            }
             TraceIdContext.clear();
         }
     }
-}
 
+    /**
+     * @return the score, or null if it did not change since the last successful fetch
+     */
+    private String fetchScore(TaskProcessingEvent event) {
+        ProviderFetchJfrEvent fetchEvent = new ProviderFetchJfrEvent(event.taskId(), event.eventId(), event.attempt());
+        fetchEvent.begin();
+        try {
+            // with rescheduled retries one attempt only, the retry timer takes failures
+            String score = retries.isEnabled()
+                    ? serviceEventClient.fetchScoreOnce(event.eventId())
+                    : serviceEventClient.fetchScore(event.eventId());
+            fetchEvent.succeeded();
+            return score;
+        } finally {
+            fetchEvent.commit();
+        }
+    }
+
+    private void publishScore(Long taskId, EventScoreMessage message) {
+        KafkaSendJfrEvent sendEvent = new KafkaSendJfrEvent(taskId, message.eventId());
+        sendEvent.begin();
+        try {
+            sendEvent.succeeded(sendOrSpill(message));
+        } finally {
+            sendEvent.commit();
+        }
+    }
+
+    /**
+     * @return true if the message went to the spill instead of Kafka
+     */
+    private boolean sendOrSpill(EventScoreMessage message) {
+        String traceId = TraceIdContext.currentTraceId().orElse(null);
+        if (spill.hasBacklog() && spill.spill(message, traceId)) {
+            return true;
+        }
+        try {
+            if (retries.isEnabled()) {
+                eventScorePublisher.publishOnce(message);
+            } else {
+                eventScorePublisher.publish(message);
+            }
+            return false;
+        } catch (KafkaPublishException e) {
+            if (!spill.spill(message, traceId)) {
+                throw e;
+            }
+            log.warn("Kafka publish failed for event {}, spilled to disk: {}", message.eventId(), e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * The provider rejected the request itself (4xx); 408 and 429 only ask to come back later.
+     */
+    static boolean isPermanent(Exception ex) {
+        if (!(ex instanceof HttpClientErrorException clientError)) {
+            return false;
+        }
+        int status = clientError.getStatusCode().value();
+        return status != 408 && status != 429;
+    }
+}
@@ -0,0 +1,160 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.config.WorkerRejectionPolicy;
+import com.sporty.eventstream.exception.KafkaPublishException;
+import com.sporty.eventstream.model.event.TaskProcessingEvent;
+import com.sporty.eventstream.service.EventTaskPersistenceService;
+import com.sporty.eventstream.service.TaskLeaseRenewer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retries failed provider calls and Kafka publishes without blocking a worker.
+ * <p>
+ * In {@code rescheduled} mode the listener makes single attempts. A retryable failure hands the task here
+ * and the worker returns to the pool at once; after the backoff delay the task is published again as a
+ * {@link TaskProcessingEvent} with the next attempt number and re-enters the task executor. The claim's lease
+ * stays held, and renewed, while the retry waits. A retry never runs on the timer thread: when the task executor
+ * is saturated, the retry fails with an error and the lease is released. In {@code blocking} mode (default)
+ * {@code @Retryable} sleeps on the worker instead and nothing is handed over.
+ */
+@Slf4j
+@Component
+public class TaskRetryScheduler {
+
+    private static final String RESCHEDULED_MODE = "rescheduled";
+
+    private final ThreadPoolTaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskLeaseRenewer leases;
+    private final EventTaskPersistenceService persistence;
+    private final ProcessingStats processingStats;
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long initialDelayMs;
+    private final double multiplier;
+    private final long maxDelayMs;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter scheduledRetries;
+    private final Counter rejectedRetries;
+    private volatile boolean stopped;
+
+    public TaskRetryScheduler(ThreadPoolTaskScheduler taskScheduler,
+                              ApplicationEventPublisher eventPublisher,
+                              TaskLeaseRenewer leases,
+                              EventTaskPersistenceService persistence,
+                              ProcessingStats processingStats,
+                              MeterRegistry meterRegistry,
+                              @Value("${events.retry.mode:blocking}") String mode,
+                              @Value("${events.retry.max-attempts:3}") int maxAttempts,
+                              @Value("${events.retry.initial-delay-ms:100}") long initialDelayMs,
+                              @Value("${events.retry.multiplier:2.0}") double multiplier,
+                              @Value("${events.retry.max-delay-ms:1000}") long maxDelayMs) {
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+        this.leases = leases;
+        this.persistence = persistence;
+        this.processingStats = processingStats;
+        this.enabled = RESCHEDULED_MODE.equals(mode);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialDelayMs = Math.max(0, initialDelayMs);
+        this.multiplier = Math.max(1, multiplier);
+        this.maxDelayMs = Math.max(this.initialDelayMs, maxDelayMs);
+
+        this.scheduledRetries = Counter.builder("events.retry.scheduled")
+                .description("Failed attempts handed to the retry timer instead of retried in-thread")
+                .register(meterRegistry);
+        this.rejectedRetries = Counter.builder("events.retry.rejected")
+                .description("Due retries dropped because the task executor was saturated")
+                .register(meterRegistry);
+        Gauge.builder("events.retry.pending", pending, AtomicInteger::get)
+                .description("Retries waiting for their backoff delay")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the listener should make single attempts and hand failures to {@link #retryLater}.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schedules the next attempt if the failure is retryable and attempts are left.
+     *
+     * @return true if the task was handed over: the caller must neither record the error nor release the lease
+     */
+    public boolean retryLater(TaskProcessingEvent event, Exception failure) {
+        if (!enabled || stopped || event.attempt() >= maxAttempts || !isRetryable(failure)) {
+            return false;
+        }
+        long delayMs = delayMs(event.attempt());
+        pending.incrementAndGet();
+        scheduledRetries.increment();
+        taskScheduler.schedule(() -> fire(event.nextAttempt()), Instant.now().plusMillis(delayMs));
+        log.debug("Task {} attempt {} failed ({}), retrying in {}ms",
+                event.taskId(), event.attempt(), failure.getMessage(), delayMs);
+        return true;
+    }
+
+    /**
+     * Drops retries that come due from now on; their tasks stay claimed until the shutdown release.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Same classes {@code @Retryable} retries: provider I/O errors, 5xx and 429, and Kafka publish failures.
+     */
+    static boolean isRetryable(Exception failure) {
+        if (failure instanceof KafkaPublishException) {
+            return true;
+        }
+        return failure instanceof RestClientException && !TaskProcessingListener.isPermanent(failure);
+    }
+
+    /**
+     * {@code initialDelay * multiplier^(attempt - 1)}, capped at the max delay.
+     */
+    long delayMs(int attempt) {
+        double delay = initialDelayMs * Math.pow(multiplier, Math.max(0, attempt - 1));
+        return (long) Math.min(maxDelayMs, delay);
+    }
+
+    private void fire(TaskProcessingEvent event) {
+        pending.decrementAndGet();
+        if (stopped) {
+            leases.release(event.taskId(), event.leaseToken());
+            return;
+        }
+        try {
+            WorkerRejectionPolicy.submitWithoutCallerRuns(() -> eventPublisher.publishEvent(event));
+        } catch (RejectedExecutionException e) {
+            rejectedRetries.increment();
+            log.warn("Task {} retry attempt {} rejected: {}", event.taskId(), event.attempt(), e.getMessage());
+            try {
+                persistence.markTaskError(event.taskId(), event.processingTime(), event.leaseToken(),
+                        "Retry rejected: " + e.getMessage(), false);
+                processingStats.recordError();
+            } finally {
+                leases.release(event.taskId(), event.leaseToken());
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.sporty.eventstream.service;
+
+/**
+ * Task claimed for one execution, with the event id read in the same query.
+ */
+public record ClaimedTask(Long taskId, String eventId) {
+}
@@ -0,0 +1,14 @@
+package com.sporty.eventstream.service;
+
+import java.time.Instant;
+
+/**
+ * Outcome of one claim cycle.
+ *
+ * @param claimed     tasks claimed and published
+ * @param lagMs       how late the oldest due task was when the cycle started, 0 if nothing was due
+ * @param nextDueTime earliest next execution time of the remaining ACTIVE tasks, null if there are none;
+ *                    not after now means a backlog is left
+ */
+public record DispatchResult(int claimed, long lagMs, Instant nextDueTime) {
+}
@@ -1,19 +1,30 @@
 package com.sporty.eventstream.service;
 
+import com.sporty.eventstream.logging.TraceIdContext;
+import com.sporty.eventstream.model.entity.EventScoreOutboxEntity;
 import com.sporty.eventstream.model.entity.EventTaskEntity;
 import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.model.event.TaskActivatedEvent;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.repository.EventScoreOutboxRepository;
 import com.sporty.eventstream.repository.EventTaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -21,131 +32,321 @@ import java.util.List;
 public class EventTaskPersistenceService {
 
     private final EventTaskRepository repository;
+    private final EventScoreOutboxRepository outboxRepository;
+    private final TaskLoadSmoother loadSmoother;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskRetryPolicy retryPolicy;
+    private final Clock clock;
 
     @Value("${events.task-execution-interval-seconds:10}")
     private int executionIntervalSeconds;
 
 
+    /**
+     * Sets one event live or not live with a single UPDATE; the task is inserted only if the event is new.
+     * A quarantined task stays quarantined when the event is set live again.
+     */
     @Transactional
     public void updateEventStatus(String eventId, boolean live) {
-        Instant now = Instant.now();
+        Instant now = clock.instant();
+        EventTaskStatus status = live ? EventTaskStatus.ACTIVE : EventTaskStatus.INACTIVE;
+        Instant nextExecutionTime = live ? firstExecutionTime(now) : null; // immediate execution, or nothing to schedule
 
-        EventTaskEntity task = repository.findByEventId(eventId)
-                .orElseGet(() -> {
-                    EventTaskEntity t = new EventTaskEntity();
-                    t.setEventId(eventId);
-                    t.setCreatedAt(now);
-                    t.setExecutionCount(0L);
-                    return t;
-                });
+        int updated = live
+                ? repository.activateByEventIds(List.of(eventId), nextExecutionTime, now)
+                : repository.updateStatusByEventIds(List.of(eventId), status, null, now);
+        if (updated == 0 && live && repository.existsByEventId(eventId)) {
+            log.info("Event {} is quarantined, not activating it", eventId);
+            return;
+        }
 
+        boolean created = false;
+        if (updated == 0) {
+            EventTaskEntity task = new EventTaskEntity();
+            task.setEventId(eventId);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            task.setExecutionCount(0L);
+            task.setStatus(status);
+            task.setNextExecutionTime(nextExecutionTime);
+            repository.save(task);
+            created = true;
+        }
         if (live) {
-            task.setStatus(EventTaskStatus.ACTIVE);
-            task.setNextExecutionTime(now); // schedule immediate execution
-        } else {
-            task.setStatus(EventTaskStatus.INACTIVE);
-            task.setNextExecutionTime(null); // nothing to schedule
+            eventPublisher.publishEvent(new TaskActivatedEvent(1));
+        }
+
+        log.info("Event {} status set to {}{}", eventId, status, created ? " (new task)" : "");
+    }
+
+    /**
+     * Applies a batch of live/not-live changes in one transaction using set-based updates.
+     * New events are inserted, existing ones are updated by two bulk UPDATE statements.
+     *
+     * @param statuses eventId to live flag, already de-duplicated by the caller
+     * @return number of events inserted
+     */
+    @Transactional
+    public int updateEventStatuses(Map<String, Boolean> statuses) {
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = clock.instant();
+        List<String> liveIds = new ArrayList<>();
+        List<String> notLiveIds = new ArrayList<>();
+        statuses.forEach((eventId, live) -> (live ? liveIds : notLiveIds).add(eventId));
+
+        Set<String> existing = new HashSet<>(repository.findExistingEventIds(statuses.keySet()));
+
+        if (!liveIds.isEmpty()) {
+            if (loadSmoother.isEnabled()) {
+                // one bulk update per assigned slot
+                Map<Instant, List<String>> bySlot = new LinkedHashMap<>();
+                for (String eventId : liveIds) {
+                    if (!existing.contains(eventId)) {
+                        continue; // slot is reserved on insert
+                    }
+                    bySlot.computeIfAbsent(loadSmoother.firstExecutionTime(now), k -> new ArrayList<>()).add(eventId);
+                }
+                bySlot.forEach((nextExecutionTime, eventIds) ->
+                        repository.activateByEventIds(eventIds, nextExecutionTime, now));
+            } else {
+                repository.activateByEventIds(liveIds, now, now);
+            }
+        }
+        if (!notLiveIds.isEmpty()) {
+            repository.updateStatusByEventIds(notLiveIds, EventTaskStatus.INACTIVE, null, now);
         }
 
-        task.setUpdatedAt(now);
-        repository.save(task);
+        List<EventTaskEntity> created = new ArrayList<>();
+        statuses.forEach((eventId, live) -> {
+            if (!existing.contains(eventId)) {
+                EventTaskEntity task = new EventTaskEntity();
+                task.setEventId(eventId);
+                task.setCreatedAt(now);
+                task.setUpdatedAt(now);
+                task.setExecutionCount(0L);
+                task.setStatus(live ? EventTaskStatus.ACTIVE : EventTaskStatus.INACTIVE);
+                task.setNextExecutionTime(live ? firstExecutionTime(now) : null);
+                created.add(task);
+            }
+        });
+        if (!created.isEmpty()) {
+            repository.saveAll(created);
+        }
+        if (!liveIds.isEmpty()) {
+            eventPublisher.publishEvent(new TaskActivatedEvent(liveIds.size()));
+        }
 
-        log.info("Event {} status set to {} (task id={})",
-                eventId, live ? "ACTIVE" : "INACTIVE", task.getId());
+        log.info("Applied {} event status changes ({} live, {} not live, {} new)",
+                statuses.size(), liveIds.size(), notLiveIds.size(), created.size());
+        return created.size();
     }
 
     /**
-     * Returns number of tasks released and set nexExecutionTime to Now.
+     * Releases IN_PROGRESS tasks whose lease expired (or, for rows claimed without a lease,
+     * that started before {@code stuckThreshold}). Returns number of tasks released and set nexExecutionTime to Now.
      */
     @Transactional
     public int releaseInProgressTasks(Instant now, Instant stuckThreshold) {
-        List<EventTaskEntity> stuckTasks = repository.findStuckInProgressTasks(stuckThreshold);
-        if (stuckTasks.isEmpty()) {
+        List<Long> stuckTaskIds = repository.findExpiredInProgressTaskIds(now, stuckThreshold);
+        if (stuckTaskIds.isEmpty()) {
             return 0;
         }
 
-        for (EventTaskEntity task : stuckTasks) {
-            task.setStatus(EventTaskStatus.ACTIVE);
-            task.setNextExecutionTime(now); // retry immediately
-            task.setUpdatedAt(now);
-            repository.save(task);
+        // retry immediately; one bulk update per slot when load smoothing spreads them
+        Map<Instant, List<Long>> bySlot = new LinkedHashMap<>();
+        for (Long taskId : stuckTaskIds) {
+            bySlot.computeIfAbsent(firstExecutionTime(now), k -> new ArrayList<>()).add(taskId);
         }
-
-        return stuckTasks.size();
+        int released = 0;
+        for (Map.Entry<Instant, List<Long>> slot : bySlot.entrySet()) {
+            released += repository.releaseInProgressByIds(slot.getValue(), slot.getKey(), now);
+        }
+        return released;
     }
 
     /**
-     * Returns list of task IDs to process.
+     * Releases every IN_PROGRESS task claimed by the given instance in one update,
+     * used on shutdown and to recover this node's orphans on startup.
+     *
+     * @return number of tasks released
      */
     @Transactional
-    public List<Long> claimTasksForProcessing(Instant now, int batchSize) {
-        var pageRequest = PageRequest.of(0, batchSize);
-        var page = repository.findReadyTasks(EventTaskStatus.ACTIVE, now, pageRequest);
+    public int releaseTasksOwnedBy(String owner, Instant now) {
+        return repository.releaseInProgressByOwner(owner, firstExecutionTime(now), now);
+    }
 
-        List<EventTaskEntity> tasks = page.getContent();
-        if (tasks.isEmpty()) {
+    /**
+     * Returns the tasks to process with their event ids.
+     * All tasks of one claim share {@code leaseToken}; the lease runs until {@code leaseExpiresAt}
+     * unless renewed.
+     */
+    @Transactional
+    public List<ClaimedTask> claimTasksForProcessing(Instant now, int batchSize, String owner,
+                                                     long leaseToken, Instant leaseExpiresAt) {
+        List<ClaimedTask> ready = repository.findReadyTasks(EventTaskStatus.ACTIVE, now, PageRequest.of(0, batchSize));
+        if (ready.isEmpty()) {
             return List.of();
         }
 
-        if (page.getTotalElements() > batchSize) {
-            log.warn("Found {} due tasks, claiming only {} in this run",
-                    page.getTotalElements(), batchSize);
+        List<Long> readyIds = ready.stream().map(ClaimedTask::taskId).toList();
+        int claimed = repository.claimTasks(readyIds, owner, leaseToken, leaseExpiresAt, now);
+        List<ClaimedTask> tasks = ready;
+        if (claimed < ready.size()) {
+            // another instance took some of them between select and update: keep only ours
+            Set<Long> ours = new HashSet<>(repository.findClaimedTaskIds(readyIds, leaseToken));
+            tasks = ready.stream().filter(task -> ours.contains(task.taskId())).toList();
         }
 
-        List<Long> taskIds = new ArrayList<>(tasks.size());
-        for (EventTaskEntity task : tasks) {
-            task.setStatus(EventTaskStatus.IN_PROGRESS);
-            task.setLastExecutionTime(now); // mark start time of this attempt
-            task.setUpdatedAt(now);
-            repository.save(task);
-            taskIds.add(task.getId());
-        }
+        log.debug("Claimed {} tasks for processing", tasks.size());
+        return tasks;
+    }
 
-        log.debug("Claimed {} tasks for processing", taskIds.size());
-        return taskIds;
+    /**
+     * Earliest next execution time of ACTIVE tasks, served from the (status, next_execution_time) index.
+     */
+    @Transactional(readOnly = true)
+    public Instant findEarliestNextExecutionTime() {
+        return repository.findEarliestNextExecutionTime(EventTaskStatus.ACTIVE);
     }
 
+    /**
+     * Tasks on the recurring schedule: ACTIVE or currently IN_PROGRESS.
+     */
+    @Transactional(readOnly = true)
+    public long countScheduledTasks() {
+        return repository.countByStatusIn(List.of(EventTaskStatus.ACTIVE, EventTaskStatus.IN_PROGRESS));
+    }
 
     @Transactional(readOnly = true)
     public String getEventIdByTaskId(Long taskId) {
-        return repository.findById(taskId)
-                .map(EventTaskEntity::getEventId)
+        return repository.findEventIdById(taskId)
                 .orElseThrow(() -> new IllegalStateException("Task not found: " + taskId));
     }
 
     /**
      * Mark task as successfully processed and schedule next run.
+     *
+     * @param leaseToken token the task was claimed with
+     * @return false if the lease was lost (task released or claimed again), nothing is changed then
      */
     @Transactional
-    public void markTaskSuccess(Long taskId, Instant executionTime) {
-        EventTaskEntity task = repository.findById(taskId)
-                .orElseThrow(() -> new IllegalStateException("Task not found: " + taskId));
+    public boolean markTaskSuccess(Long taskId, Instant executionTime, long leaseToken) {
+        return complete(taskId, leaseToken, EventTaskStatus.ACTIVE, nextExecutionTime(taskId, executionTime),
+                0, null, null);
+    }
 
-        task.setStatus(EventTaskStatus.ACTIVE); // back to ACTIVE for next cycle
-        task.setExecutionCount(task.getExecutionCount() + 1);
-        task.setLastError(null);
-        task.setLastErrorTime(null);
-        task.setNextExecutionTime(executionTime.plus(Duration.ofSeconds(executionIntervalSeconds)));
-        task.setUpdatedAt(Instant.now());
+    /**
+     * Mark task as successfully processed and store the score message in the outbox,
+     * both in one transaction. The outbox relay publishes it to Kafka later.
+     *
+     * @return false if the lease was lost; no outbox entry is written then
+     */
+    @Transactional
+    public boolean markTaskSuccessWithOutbox(Long taskId, Instant executionTime, long leaseToken, EventScoreMessage message) {
+        if (!markTaskSuccess(taskId, executionTime, leaseToken)) {
+            return false;
+        }
 
-        repository.save(task);
+        EventScoreOutboxEntity entry = new EventScoreOutboxEntity();
+        entry.setEventId(message.eventId());
+        entry.setScore(message.score());
+        entry.setScoreTimestamp(message.timestamp());
+        entry.setTraceId(TraceIdContext.currentTraceId().orElse(null));
+        entry.setCreatedAt(clock.instant());
+        outboxRepository.save(entry);
+        return true;
     }
 
     /**
-     * Mark task as failed but keep it ACTIVE for future retry.
+     * Mark task as failed and schedule the retry with backoff, or quarantine it once
+     * {@link TaskRetryPolicy} says it failed too often.
+     *
+     * @param permanent the provider rejected the request, retrying the same request will not help
+     * @return false if the lease was lost, nothing is changed then
      */
     @Transactional
-    public void markTaskError(Long taskId, Instant executionTime, String errorMessage) {
-        EventTaskEntity task = repository.findById(taskId)
-                .orElseThrow(() -> new IllegalStateException("Task not found: " + taskId));
+    public boolean markTaskError(Long taskId, Instant executionTime, long leaseToken, String errorMessage,
+                                 boolean permanent) {
+        int consecutiveErrors = repository.findConsecutiveErrorsById(taskId)
+                .orElseThrow(() -> new IllegalStateException("Task not found: " + taskId)) + 1;
 
-        task.setStatus(EventTaskStatus.ACTIVE);
-        task.setExecutionCount(task.getExecutionCount() + 1);
-        task.setLastError(errorMessage);
-        task.setLastErrorTime(executionTime);
-        task.setNextExecutionTime(executionTime.plus(Duration.ofSeconds(executionIntervalSeconds)));
-        task.setUpdatedAt(Instant.now());
+        if (retryPolicy.shouldQuarantine(consecutiveErrors, permanent)) {
+            boolean quarantined = complete(taskId, leaseToken, EventTaskStatus.QUARANTINED, null,
+                    consecutiveErrors, errorMessage, executionTime);
+            if (quarantined) {
+                log.warn("Task {} quarantined after {} consecutive {} errors, last: {}",
+                        taskId, consecutiveErrors, permanent ? "permanent" : "transient", errorMessage);
+            }
+            return quarantined;
+        }
+
+        Instant next = retryPolicy.isFirstError(consecutiveErrors)
+                ? nextExecutionTime(taskId, executionTime)
+                : retryPolicy.nextAttempt(executionTime, consecutiveErrors);
+        return complete(taskId, leaseToken, EventTaskStatus.ACTIVE, next, consecutiveErrors, errorMessage, executionTime);
+    }
+
+    /**
+     * Puts a quarantined task back on the schedule with its error count reset.
+     *
+     * @return false if the event has no quarantined task
+     */
+    @Transactional
+    public boolean releaseFromQuarantine(String eventId) {
+        Instant now = clock.instant();
+        if (repository.releaseQuarantined(eventId, firstExecutionTime(now), now) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new TaskActivatedEvent(1));
+        log.info("Event {} released from quarantine", eventId);
+        return true;
+    }
+
+    /**
+     * Extends the leases of tasks still being worked on, one UPDATE per claim token.
+     * Rows whose lease was already lost are not touched.
+     *
+     * @param leases task id to lease token
+     * @return number of leases extended
+     */
+    @Transactional
+    public int renewLeases(Map<Long, Long> leases, Instant expiresAt) {
+        Map<Long, List<Long>> byToken = new LinkedHashMap<>();
+        leases.forEach((taskId, token) -> byToken.computeIfAbsent(token, k -> new ArrayList<>()).add(taskId));
+
+        int renewed = 0;
+        for (Map.Entry<Long, List<Long>> entry : byToken.entrySet()) {
+            renewed += repository.renewLeases(entry.getValue(), entry.getKey(), expiresAt);
+        }
+        return renewed;
+    }
+
+    /**
+     * One fenced UPDATE; the row is only read again to tell a missing task from a lost lease.
+     */
+    private boolean complete(Long taskId, long leaseToken, EventTaskStatus status, Instant next,
+                             int consecutiveErrors, String lastError, Instant lastErrorTime) {
+        if (repository.completeTask(taskId, leaseToken, status.name(), next, consecutiveErrors,
+                lastError, lastErrorTime, clock.instant()) == 1) {
+            return true;
+        }
+        if (!repository.existsById(taskId)) {
+            throw new IllegalStateException("Task not found: " + taskId);
+        }
+        log.warn("Lease lost for task {}, discarding stale completion", taskId);
+        return false;
+    }
+
+    private Instant nextExecutionTime(Long taskId, Instant executionTime) {
+        return loadSmoother.isEnabled()
+                ? loadSmoother.nextExecutionTime(getEventIdByTaskId(taskId), executionTime)
+                : executionTime.plus(Duration.ofSeconds(executionIntervalSeconds));
+    }
 
-        repository.save(task);
+    private Instant firstExecutionTime(Instant now) {
+        return loadSmoother.isEnabled() ? loadSmoother.firstExecutionTime(now) : now;
     }
 }
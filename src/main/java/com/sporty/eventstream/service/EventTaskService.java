@@ -1,14 +1,23 @@
 package com.sporty.eventstream.service;
 
+import com.sporty.eventstream.client.AdaptiveConcurrencyLimiter;
+import com.sporty.eventstream.config.InstanceIdentity;
+import com.sporty.eventstream.exception.EventNotFoundException;
 import com.sporty.eventstream.model.event.TaskProcessingEvent;
+import com.sporty.eventstream.profiling.ClaimBatchJfrEvent;
+import com.sporty.eventstream.profiling.TaskDispatchJfrEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Service
@@ -17,6 +26,11 @@ public class EventTaskService {
 
     private final EventTaskPersistenceService persistence;
     private final ApplicationEventPublisher eventPublisher;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final InstanceIdentity instance;
+    private final TaskLeaseRenewer leases;
+    private final LatestScoreService latestScores;
+    private final Clock clock;
 
 
     @Value("${events.task-processor-batch-size:100}")
@@ -27,6 +41,49 @@ public class EventTaskService {
 
     public void updateEventStatus(String eventId, boolean live) {
         persistence.updateEventStatus(eventId, live);
+        if (!live) {
+            latestScores.removeAll(List.of(eventId));
+        }
+    }
+
+    /**
+     * Applies a batch of status changes, last change per event wins.
+     * Latest scores of events set not live are dropped once the batch is committed.
+     */
+    public void updateEventStatuses(Map<String, Boolean> statuses) {
+        persistence.updateEventStatuses(statuses);
+        List<String> notLiveIds = statuses.entrySet().stream()
+                .filter(entry -> !entry.getValue())
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!notLiveIds.isEmpty()) {
+            latestScores.removeAll(notLiveIds);
+        }
+    }
+
+    /**
+     * Puts a quarantined event back on the schedule.
+     *
+     * @throws EventNotFoundException if the event has no quarantined task
+     */
+    public void releaseFromQuarantine(String eventId) {
+        if (!persistence.releaseFromQuarantine(eventId)) {
+            throw new EventNotFoundException("No quarantined task for event: " + eventId);
+        }
+    }
+
+    /**
+     * Releases all IN_PROGRESS tasks claimed by this instance in one update:
+     * leftovers of a previous run on startup, unfinished work on shutdown.
+     *
+     * @return number of tasks released
+     */
+    public int releaseOwnedTasks() {
+        int released = persistence.releaseTasksOwnedBy(instance.getId(), clock.instant());
+        if (released > 0) {
+            log.info("Released {} IN_PROGRESS tasks owned by instance {}", released, instance.getId());
+        }
+        return released;
     }
 
     /**
@@ -35,41 +92,90 @@ public class EventTaskService {
      * @return number of tasks processed
      */
     public int processDueTasks() {
-        Instant now = Instant.now();
+        return claimAndPublish(clock.instant(), batchSize);
+    }
+
+    /**
+     * Same as {@link #processDueTasks()} with a caller-chosen batch size, plus what the lag controller needs:
+     * the schedule lag of the oldest due task before claiming and the next due time afterwards.
+     */
+    public DispatchResult dispatchDueTasks(int maxTasks) {
+        Instant now = clock.instant();
+        Instant oldestDue = persistence.findEarliestNextExecutionTime();
+        long lagMs = oldestDue != null && !oldestDue.isAfter(now) ? Duration.between(oldestDue, now).toMillis() : 0;
+
+        int claimed = claimAndPublish(now, maxTasks);
+
+        // nothing was due: the peeked time is still the next one
+        Instant nextDue = lagMs == 0 && claimed == 0 ? oldestDue : persistence.findEarliestNextExecutionTime();
+        return new DispatchResult(claimed, lagMs, nextDue);
+    }
 
-        // Release IN_PROGRESS tasks
+    private int claimAndPublish(Instant now, int maxTasks) {
+        // Release IN_PROGRESS tasks whose lease expired (or claimed without lease and older than the timeout)
         Instant stuckThreshold = now.minusSeconds(inProgressTimeoutSeconds);
         int released = persistence.releaseInProgressTasks(now, stuckThreshold);
         if (released > 0) {
             log.warn("Released {} stuck IN_PROGRESS tasks for retry", released);
         }
 
+        // Claim only as many tasks as the provider can take on top of those already claimed
+        int claimSize = concurrencyLimiter.isEnabled()
+                ? Math.min(maxTasks, providerHeadroom())
+                : maxTasks;
+        if (claimSize == 0) {
+            log.debug("Provider concurrency limit {} reached with {} claimed tasks, not claiming tasks",
+                    concurrencyLimiter.currentLimit(), leases.heldCount());
+            return 0;
+        }
+
         // Claim tasks for this run
-        List<Long> taskIds = persistence.claimTasksForProcessing(now, batchSize);
-        if (taskIds.isEmpty()) {
+        long leaseToken = ThreadLocalRandom.current().nextLong();
+        ClaimBatchJfrEvent claimEvent = new ClaimBatchJfrEvent(leaseToken, claimSize);
+        claimEvent.begin();
+        List<ClaimedTask> tasks = persistence.claimTasksForProcessing(now, claimSize, instance.getId(),
+                leaseToken, leases.leaseExpiry(now));
+        claimEvent.claimed(tasks.size());
+        claimEvent.commit();
+        if (tasks.isEmpty()) {
             log.debug("No tasks due for execution at {}", now);
             return 0;
         }
 
-        log.info("Claimed {} tasks, publishing async events for processing", taskIds.size());
+        log.info("Claimed {} tasks, publishing async events for processing", tasks.size());
 
-        for (Long taskId : taskIds) {
-            String eventId;
+        for (ClaimedTask task : tasks) {
+            Long taskId = task.taskId();
+            String eventId = task.eventId();
+            TaskDispatchJfrEvent dispatchEvent = new TaskDispatchJfrEvent(taskId, eventId, leaseToken);
+            dispatchEvent.begin();
             try {
-                eventId = persistence.getEventIdByTaskId(taskId);
+                leases.hold(taskId, leaseToken);
 
                 // Publish event - listener will process asynchronously
-                TaskProcessingEvent event = new TaskProcessingEvent(taskId, eventId, now);
+                TaskProcessingEvent event = new TaskProcessingEvent(taskId, eventId, now, leaseToken);
                 eventPublisher.publishEvent(event);
+                dispatchEvent.commit();
 
                 log.debug("Published async event for task {} (event {})", taskId, eventId);
             } catch (Exception e) {
                 log.error("Failed to publish event for task {}: {}", taskId, e.getMessage(), e);
                 // Mark as error so it can be retried
-                persistence.markTaskError(taskId, now, "Failed to publish event: " + e.getMessage());
+                leases.release(taskId, leaseToken);
+                persistence.markTaskError(taskId, now, leaseToken, "Failed to publish event: " + e.getMessage(), false);
             }
         }
 
-        return taskIds.size();
+        return tasks.size();
+    }
+
+    /**
+     * Provider slots not yet spoken for. Held leases cover every claimed task that has not finished: queued,
+     * running or waiting for a retry. In-flight calls can exceed them while hedges run, so the larger
+     * of the two counts is subtracted from the limit.
+     */
+    private int providerHeadroom() {
+        int committed = Math.max(leases.heldCount(), concurrencyLimiter.inFlight());
+        return Math.max(0, concurrencyLimiter.currentLimit() - committed);
     }
 }
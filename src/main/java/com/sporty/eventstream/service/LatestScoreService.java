@@ -0,0 +1,67 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.model.response.LatestScoreResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of the latest published score per event.
+ * Reads are lock-free map lookups and never touch H2 or Kafka.
+ */
+@Service
+public class LatestScoreService {
+
+    private final ConcurrentHashMap<String, LatestScoreResponse> scores = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Stores the score if it is not older than the current one.
+     *
+     * @return the stored entry, or empty if a newer score is already present
+     */
+    public Optional<LatestScoreResponse> update(EventScoreMessage message) {
+        LatestScoreResponse candidate = new LatestScoreResponse(
+                message.eventId(), message.score(), message.timestamp(), sequence.incrementAndGet());
+
+        LatestScoreResponse stored = scores.merge(message.eventId(), candidate,
+                (current, next) -> next.timestamp().isBefore(current.timestamp()) ? current : next);
+
+        return stored == candidate ? Optional.of(candidate) : Optional.empty();
+    }
+
+    public Optional<LatestScoreResponse> find(String eventId) {
+        return Optional.ofNullable(scores.get(eventId));
+    }
+
+    /**
+     * Returns entries for the given ids in request order, skipping unknown events.
+     */
+    public List<LatestScoreResponse> findAll(Collection<String> eventIds) {
+        List<LatestScoreResponse> result = new ArrayList<>(eventIds.size());
+        for (String eventId : eventIds) {
+            LatestScoreResponse score = scores.get(eventId);
+            if (score != null) {
+                result.add(score);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the entries of events that are no longer live, so the view only holds live events.
+     */
+    public void removeAll(Collection<String> eventIds) {
+        scores.keySet().removeAll(eventIds);
+    }
+
+    public int size() {
+        return scores.size();
+    }
+}
@@ -0,0 +1,368 @@
+package com.sporty.eventstream.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sporty.eventstream.exception.SubscriberLimitExceededException;
+import com.sporty.eventstream.model.response.LatestScoreResponse;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans out score updates to Server-Sent Events subscribers.
+ * Each update is encoded once into a shared SSE frame; every subscriber has a small
+ * pending buffer keyed by eventId, so a slow client only ever holds the latest frame per event.
+ * <p>
+ * Responses use non-blocking servlet output: a dispatch thread writes a subscriber's pending frames only while
+ * the output is ready and otherwise leaves them pending until the container reports it writable again, so a
+ * client that stops reading never holds a dispatch thread. A subscriber whose output has not been ready for
+ * {@code events.sse.write-timeout-ms} is evicted.
+ */
+@Slf4j
+@Service
+public class ScoreStreamService {
+
+    private static final String HEARTBEAT_KEY = "";
+    private static final byte[] HEARTBEAT_FRAME = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Executor dispatchExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong evictedSubscribers = new AtomicLong();
+
+    @Value("${events.sse.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${events.sse.subscriber-buffer-size:256}")
+    private int subscriberBufferSize;
+
+    @Value("${events.sse.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${events.sse.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    public ScoreStreamService(ObjectMapper objectMapper,
+                              @Qualifier("sseDispatchExecutor") Executor dispatchExecutor) {
+        this.objectMapper = objectMapper;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * Starts an asynchronous SSE response for a new subscriber.
+     *
+     * @param eventIds events to receive, or empty for all events
+     */
+    public void subscribe(Set<String> eventIds, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitExceededException("Too many score stream subscribers");
+        }
+
+        Subscriber subscriber;
+        try {
+            response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            response.setHeader("X-Accel-Buffering", "no");
+            AsyncContext asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(streamTimeoutMs);
+            subscriber = new Subscriber(asyncContext, response.getOutputStream(),
+                    eventIds == null || eventIds.isEmpty() ? null : Set.copyOf(eventIds));
+            asyncContext.addListener(subscriber);
+            // the container calls onWritePossible once the output can take the first frame
+            subscriber.output.setWriteListener(subscriber);
+        } catch (IOException | RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+        subscribers.add(subscriber);
+
+        log.debug("Score stream subscriber added, filter={}, subscribers={}", eventIds, subscriberCount.get());
+    }
+
+    public void broadcast(LatestScoreResponse score) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        byte[] frame;
+        try {
+            frame = encode(score);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to encode score frame for event {}", score.eventId(), e);
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(score.eventId())) {
+                subscriber.offer(score.eventId(), frame);
+            }
+        }
+    }
+
+    /**
+     * Comment frames keep idle connections open through proxies and surface dead clients.
+     */
+    @Scheduled(fixedDelayString = "${events.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT_KEY, HEARTBEAT_FRAME);
+        }
+    }
+
+    /**
+     * Evicts subscribers whose output has not been ready for the write timeout: the client stopped reading.
+     */
+    @Scheduled(fixedDelayString = "${events.sse.write-timeout-check-interval-ms:1000}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.blockedMs(now) >= writeTimeoutMs && remove(subscriber)) {
+                subscriber.close();
+                evictedSubscribers.incrementAndGet();
+                log.debug("Score stream subscriber evicted after its output was blocked for {}ms", writeTimeoutMs);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long droppedFrameCount() {
+        return droppedFrames.get();
+    }
+
+    public long evictedSubscriberCount() {
+        return evictedSubscribers.get();
+    }
+
+    /**
+     * Releases the subscriber's slot exactly once, whichever of completion, timeout, error or eviction comes first.
+     */
+    private boolean remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private byte[] encode(LatestScoreResponse score) throws JsonProcessingException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(160);
+        out.writeBytes(("id:" + score.sequence() + "\nevent:score\ndata:").getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(objectMapper.writeValueAsBytes(score));
+        out.writeBytes("\n\n".getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes, the ready check and completion all run under the subscriber's monitor. None of them block, and
+     * the container callbacks take the same monitor, so nothing is written once the container has completed
+     * the response and may reuse it.
+     */
+    private final class Subscriber implements WriteListener, AsyncListener {
+
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream output;
+        private final Set<String> eventIds;
+        private final LinkedHashMap<String, byte[]> pending = new LinkedHashMap<>();
+        private boolean draining;
+        private boolean completed;
+        private volatile boolean closed;
+        private volatile long blockedSinceNanos;
+
+        private Subscriber(AsyncContext asyncContext, ServletOutputStream output, Set<String> eventIds) {
+            this.asyncContext = asyncContext;
+            this.output = output;
+            this.eventIds = eventIds;
+        }
+
+        boolean accepts(String eventId) {
+            return eventIds == null || eventIds.contains(eventId);
+        }
+
+        /**
+         * Conflates with a pending frame of the same event; drops the frame when the buffer is full.
+         */
+        void offer(String key, byte[] frame) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (!pending.containsKey(key) && pending.size() >= subscriberBufferSize) {
+                    droppedFrames.incrementAndGet();
+                    return;
+                }
+                pending.put(key, frame);
+            }
+            wake(false);
+        }
+
+        /**
+         * @return milliseconds the output has not been ready to write, or -1 while it is
+         */
+        long blockedMs(long nowNanos) {
+            long since = blockedSinceNanos;
+            return since == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nowNanos - since);
+        }
+
+        /**
+         * Stops accepting frames and completes the response, or leaves that to the running drain.
+         */
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            complete();
+        }
+
+        @Override
+        public void onWritePossible() {
+            wake(true);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Score stream subscriber disconnected: {}", t.getMessage());
+            remove(this);
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            remove(this);
+            synchronized (this) {
+                closed = true;
+                completed = true;
+                pending.clear();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            remove(this);
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        /**
+         * Starts a drain on the dispatch pool. While the output is blocked only the container's
+         * {@link #onWritePossible} does, so new frames to a stalled client cost no dispatch.
+         */
+        private void wake(boolean writable) {
+            synchronized (this) {
+                if (writable) {
+                    blockedSinceNanos = 0;
+                }
+                if (draining || closed || blockedSinceNanos != 0) {
+                    return; // a running drain checks the output again before it stops
+                }
+                draining = true;
+            }
+
+            try {
+                dispatchExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        /**
+         * Writes the pending frames as one chunk per round while the output is ready. Once it is not, the
+         * container calls {@link #onWritePossible} after the client has read enough, which starts the next drain.
+         */
+        private void drain() {
+            while (true) {
+                synchronized (this) {
+                    if (closed) {
+                        break;
+                    }
+                    try {
+                        if (!output.isReady()) {
+                            if (blockedSinceNanos == 0) {
+                                long now = System.nanoTime();
+                                blockedSinceNanos = now != 0 ? now : 1;
+                            }
+                            draining = false;
+                            return;
+                        }
+                        blockedSinceNanos = 0;
+                        if (pending.isEmpty()) {
+                            draining = false;
+                            return;
+                        }
+                        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+                        pending.values().forEach(chunk::writeBytes);
+                        pending.clear();
+                        output.write(chunk.toByteArray());
+                        if (output.isReady()) {
+                            output.flush(); // otherwise the container is still sending and flushes the rest itself
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Score stream subscriber disconnected: {}", e.getMessage());
+                        remove(this);
+                        closed = true;
+                        pending.clear();
+                        break;
+                    }
+                }
+            }
+            complete();
+        }
+
+        private synchronized void complete() {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                log.debug("Score stream response already completed: {}", e.getMessage());
+            }
+        }
+    }
+}
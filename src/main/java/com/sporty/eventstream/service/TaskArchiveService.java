@@ -0,0 +1,56 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.model.entity.EventTaskArchiveEntity;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.repository.EventTaskArchiveRepository;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves INACTIVE tasks past retention to EVENT_TASK_ARCHIVE, one small transaction per chunk.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskArchiveService {
+
+    private final EventTaskRepository repository;
+    private final EventTaskArchiveRepository archiveRepository;
+
+    /**
+     * Copies up to {@code chunkSize} INACTIVE tasks last updated before {@code cutoff} to the archive
+     * and deletes them by id in one statement.
+     *
+     * @return number of tasks archived, less than {@code chunkSize} once nothing is left
+     */
+    @Transactional
+    public int archiveChunk(Instant cutoff, int chunkSize, Instant now) {
+        List<EventTaskEntity> tasks = repository.findArchivableTasks(cutoff, PageRequest.of(0, chunkSize));
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        archiveRepository.saveAll(tasks.stream().map(task -> toArchive(task, now)).toList());
+        repository.deleteAllByIdInBatch(tasks.stream().map(EventTaskEntity::getId).toList());
+        return tasks.size();
+    }
+
+    private static EventTaskArchiveEntity toArchive(EventTaskEntity task, Instant now) {
+        EventTaskArchiveEntity archived = new EventTaskArchiveEntity();
+        archived.setId(task.getId());
+        archived.setEventId(task.getEventId());
+        archived.setExecutionCount(task.getExecutionCount());
+        archived.setLastExecutionTime(task.getLastExecutionTime());
+        archived.setLastError(task.getLastError());
+        archived.setLastErrorTime(task.getLastErrorTime());
+        archived.setCreatedAt(task.getCreatedAt());
+        archived.setDeactivatedAt(task.getUpdatedAt());
+        archived.setArchivedAt(now);
+        return archived;
+    }
+}
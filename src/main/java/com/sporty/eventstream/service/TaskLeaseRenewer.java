@@ -0,0 +1,94 @@
+package com.sporty.eventstream.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps leases of claimed tasks alive while this instance still holds them (queued or running).
+ * <p>
+ * Tasks are registered at claim time and removed when the worker finishes. Every
+ * {@code events.lease.renew-interval-ms} all held leases are extended to now + {@code events.lease.duration-ms}
+ * in a few bulk updates. If the instance dies, renewals stop and the tasks are released once the
+ * lease expires, a few seconds instead of the old fixed 30s. Renewal runs on its own scheduler thread, so
+ * claim cycles and other scheduled work cannot delay it past the lease expiry.
+ */
+@Slf4j
+@Component
+public class TaskLeaseRenewer {
+
+    private static final int RENEW_CHUNK_SIZE = 500;
+
+    private final EventTaskPersistenceService persistence;
+    private final Clock clock;
+    private final Duration leaseDuration;
+    private final Map<Long, Long> heldLeases = new ConcurrentHashMap<>();
+
+    public TaskLeaseRenewer(EventTaskPersistenceService persistence,
+                            Clock clock,
+                            @Value("${events.lease.duration-ms:5000}") long leaseDurationMs) {
+        this.persistence = persistence;
+        this.clock = clock;
+        this.leaseDuration = Duration.ofMillis(leaseDurationMs);
+    }
+
+    /**
+     * Expiry for a lease taken or renewed at {@code now}.
+     */
+    public Instant leaseExpiry(Instant now) {
+        return now.plus(leaseDuration);
+    }
+
+    public void hold(Long taskId, long leaseToken) {
+        heldLeases.put(taskId, leaseToken);
+    }
+
+    /**
+     * Stops renewing the lease; a newer claim of the same task under another token is kept.
+     */
+    public void release(Long taskId, long leaseToken) {
+        heldLeases.remove(taskId, leaseToken);
+    }
+
+    public int heldCount() {
+        return heldLeases.size();
+    }
+
+    @Scheduled(fixedDelayString = "${events.lease.renew-interval-ms:1000}", scheduler = "leaseRenewalScheduler")
+    public void renewHeldLeases() {
+        if (heldLeases.isEmpty()) {
+            return;
+        }
+        Instant expiresAt = leaseExpiry(clock.instant());
+        int held = 0;
+        int renewed = 0;
+        try {
+            Map<Long, Long> chunk = new HashMap<>();
+            Iterator<Map.Entry<Long, Long>> it = heldLeases.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Long> lease = it.next();
+                chunk.put(lease.getKey(), lease.getValue());
+                held++;
+                if (chunk.size() == RENEW_CHUNK_SIZE || !it.hasNext()) {
+                    renewed += persistence.renewLeases(chunk, expiresAt);
+                    chunk.clear();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Lease renewal failed: {}", e.getMessage(), e);
+            return;
+        }
+        if (renewed < held) {
+            log.warn("Renewed {} of {} held leases, the rest were lost", renewed, held);
+        }
+    }
+}
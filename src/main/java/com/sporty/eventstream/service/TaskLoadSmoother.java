@@ -0,0 +1,99 @@
+package com.sporty.eventstream.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Spreads task executions evenly across the execution interval.
+ * <p>
+ * The interval is divided into fixed slots. Every event gets a deterministic phase (slot) derived from
+ * its id, and regular executions are aligned to that phase instead of {@code executionTime + interval},
+ * so events that went live together drift apart after their first run. Each slot accepts a limited
+ * number of tasks; overflow moves to the next slot with free capacity, which also spreads activation
+ * bursts. Capacity is tracked per node.
+ */
+@Component
+public class TaskLoadSmoother {
+
+    private final boolean enabled;
+    private final long intervalMs;
+    private final long slotMs;
+    private final int slotCapacity;
+    private final int slotsPerInterval;
+
+    // ring of reservation counters covering a few intervals ahead
+    private final long[] ringSlotNumbers;
+    private final int[] ringCounts;
+
+    public TaskLoadSmoother(@Value("${events.smoothing.enabled:false}") boolean enabled,
+                            @Value("${events.task-execution-interval-seconds:10}") int executionIntervalSeconds,
+                            @Value("${events.smoothing.slot-ms:100}") long slotMs,
+                            @Value("${events.smoothing.slot-capacity:50}") int slotCapacity) {
+        this.enabled = enabled;
+        this.intervalMs = executionIntervalSeconds * 1000L;
+        this.slotMs = Math.max(1, Math.min(slotMs, intervalMs));
+        this.slotCapacity = Math.max(1, slotCapacity);
+        this.slotsPerInterval = (int) Math.max(1, intervalMs / this.slotMs);
+
+        int ringSize = slotsPerInterval * 4;
+        this.ringSlotNumbers = new long[ringSize];
+        this.ringCounts = new int[ringSize];
+        Arrays.fill(ringSlotNumbers, -1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * First execution after activation or release: earliest slot from {@code now} with free capacity.
+     */
+    public Instant firstExecutionTime(Instant now) {
+        return reserveFrom(Math.floorDiv(now.toEpochMilli(), slotMs), now);
+    }
+
+    /**
+     * Next regular execution: the event's phase closest to {@code executionTime + interval},
+     * moved forward if that slot is already full.
+     */
+    public Instant nextExecutionTime(String eventId, Instant executionTime) {
+        long target = executionTime.toEpochMilli() + intervalMs;
+        long aligned = target - Math.floorMod(target, intervalMs) + phaseMs(eventId);
+        if (aligned < target - intervalMs / 2) {
+            aligned += intervalMs;
+        } else if (aligned >= target + intervalMs / 2) {
+            aligned -= intervalMs;
+        }
+
+        Instant alignedTime = Instant.ofEpochMilli(aligned);
+        return reserveFrom(Math.floorDiv(aligned, slotMs), alignedTime);
+    }
+
+    /**
+     * Deterministic offset of an event within the interval, aligned to slot start.
+     */
+    long phaseMs(String eventId) {
+        int hash = eventId.hashCode() * 0x9E3779B9; // spread similar ids
+        return Math.floorMod(hash ^ (hash >>> 16), slotsPerInterval) * slotMs;
+    }
+
+    private synchronized Instant reserveFrom(long slot, Instant preferred) {
+        for (int i = 0; i < slotsPerInterval; i++) {
+            long candidate = slot + i;
+            int index = (int) Math.floorMod(candidate, (long) ringSlotNumbers.length);
+            if (ringSlotNumbers[index] != candidate) {
+                ringSlotNumbers[index] = candidate;
+                ringCounts[index] = 0;
+            }
+            if (ringCounts[index] < slotCapacity) {
+                ringCounts[index]++;
+                return i == 0 ? preferred : Instant.ofEpochMilli(candidate * slotMs);
+            }
+        }
+        // every slot in the interval is full, capacity is too low for the load - keep the phase
+        return preferred;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.exception.EventNotFoundException;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.model.response.TaskDetailResponse;
+import com.sporty.eventstream.model.response.TaskPageResponse;
+import com.sporty.eventstream.model.response.TaskSummaryResponse;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only task diagnostics. Listings use keyset pagination on (nextExecutionTime, id) and
+ * constructor projections, so deep pages cost the same as the first and nothing is loaded into
+ * the persistence context the claim path works with.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TaskQueryService {
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+    private final EventTaskRepository repository;
+
+    /**
+     * Tasks with a next execution time come first in (time, id) order, then those without one by id.
+     *
+     * @param after cursor returned with the previous page, null for the first page
+     */
+    public TaskPageResponse listTasks(EventTaskStatus status, String after, int limit) {
+        Cursor cursor = after == null || after.isBlank() ? null : Cursor.decode(after);
+
+        List<TaskSummaryResponse> tasks = new ArrayList<>(limit);
+        if (cursor == null || cursor.nextExecutionTime() != null) {
+            Instant afterTime = cursor == null ? Instant.EPOCH : cursor.nextExecutionTime();
+            long afterId = cursor == null ? 0 : cursor.id();
+            tasks.addAll(repository.findScheduledPage(status, afterTime, afterId, PageRequest.of(0, limit)));
+        }
+        if (tasks.size() < limit) {
+            long afterId = cursor != null && cursor.nextExecutionTime() == null ? cursor.id() : 0;
+            tasks.addAll(repository.findUnscheduledPage(status, afterId, PageRequest.of(0, limit - tasks.size())));
+        }
+
+        String nextCursor = tasks.size() < limit ? null : Cursor.of(tasks.get(tasks.size() - 1)).encode();
+        return new TaskPageResponse(tasks, nextCursor);
+    }
+
+    public TaskDetailResponse getTask(String eventId) {
+        EventTaskEntity task = repository.findByEventId(eventId)
+                .orElseThrow(() -> new EventNotFoundException("No task for event: " + eventId));
+        return new TaskDetailResponse(
+                task.getId(),
+                task.getEventId(),
+                task.getStatus(),
+                task.getNextExecutionTime(),
+                task.getLastExecutionTime(),
+                task.getExecutionCount(),
+                task.getConsecutiveErrors(),
+                task.getLastError(),
+                task.getLastErrorTime(),
+                task.getOwnerInstance(),
+                task.getLeaseExpiresAt(),
+                task.getCreatedAt(),
+                task.getUpdatedAt());
+    }
+
+    /**
+     * @return number of tasks per status, 0 for statuses without tasks
+     */
+    public Map<EventTaskStatus, Long> countByStatus() {
+        Map<EventTaskStatus, Long> counts = new EnumMap<>(EventTaskStatus.class);
+        for (EventTaskStatus status : EventTaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : repository.countByStatus()) {
+            counts.put((EventTaskStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Position after the last row of a page; opaque to clients.
+     */
+    private record Cursor(Instant nextExecutionTime, long id) {
+
+        static Cursor of(TaskSummaryResponse task) {
+            return new Cursor(task.nextExecutionTime(), task.id());
+        }
+
+        String encode() {
+            String raw = (nextExecutionTime == null ? "" : nextExecutionTime.toString()) + "|" + id;
+            return CURSOR_ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(CURSOR_DECODER.decode(value), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                String time = raw.substring(0, separator);
+                return new Cursor(time.isEmpty() ? null : Instant.parse(time), Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+        }
+    }
+}
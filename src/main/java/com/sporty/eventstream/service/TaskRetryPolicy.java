@@ -0,0 +1,72 @@
+package com.sporty.eventstream.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry schedule for failing tasks.
+ * <p>
+ * The first error keeps the regular execution interval. From the second consecutive error on, the delay
+ * doubles per error up to the max delay, and a random share of up to {@code jitter} is taken off so events
+ * that failed together do not retry together. Permanent errors (the provider rejected the request) and
+ * transient errors (timeouts, 5xx, publish failures) have separate quarantine thresholds; 0 disables one.
+ */
+@Component
+public class TaskRetryPolicy {
+
+    private static final int MAX_DOUBLINGS = 30;
+
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final double jitter;
+    private final int permanentErrorThreshold;
+    private final int transientErrorThreshold;
+
+    public TaskRetryPolicy(@Value("${events.task-execution-interval-seconds:10}") int executionIntervalSeconds,
+                           @Value("${events.backoff.max-delay-seconds:600}") long maxDelaySeconds,
+                           @Value("${events.backoff.jitter:0.2}") double jitter,
+                           @Value("${events.quarantine.permanent-error-threshold:3}") int permanentErrorThreshold,
+                           @Value("${events.quarantine.transient-error-threshold:50}") int transientErrorThreshold) {
+        this.baseDelayMs = executionIntervalSeconds * 1000L;
+        this.maxDelayMs = Math.max(baseDelayMs, maxDelaySeconds * 1000L);
+        this.jitter = Math.max(0, Math.min(1, jitter));
+        this.permanentErrorThreshold = permanentErrorThreshold;
+        this.transientErrorThreshold = transientErrorThreshold;
+    }
+
+    /**
+     * Whether the regular schedule still applies, i.e. this is the first error in a row.
+     */
+    public boolean isFirstError(int consecutiveErrors) {
+        return consecutiveErrors <= 1;
+    }
+
+    /**
+     * @param consecutiveErrors errors in a row including the one just recorded
+     */
+    public boolean shouldQuarantine(int consecutiveErrors, boolean permanent) {
+        int threshold = permanent ? permanentErrorThreshold : transientErrorThreshold;
+        return threshold > 0 && consecutiveErrors >= threshold;
+    }
+
+    /**
+     * Next attempt after a failed execution at {@code executionTime}.
+     *
+     * @param consecutiveErrors errors in a row including the one just recorded
+     */
+    public Instant nextAttempt(Instant executionTime, int consecutiveErrors) {
+        return executionTime.plusMillis(delayMs(consecutiveErrors, ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * {@code base * 2^(errors - 1)}, capped, minus {@code random * jitter} of it.
+     */
+    long delayMs(int consecutiveErrors, double random) {
+        int doublings = Math.min(MAX_DOUBLINGS, Math.max(0, consecutiveErrors - 1));
+        long delay = Math.min(maxDelayMs, baseDelayMs << doublings);
+        return Math.round(delay * (1 - jitter * random));
+    }
+}
@@ -0,0 +1,89 @@
+package com.sporty.eventstream.client;
+
+import com.sporty.eventstream.exception.ProviderOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, initialLimit, 1, 200,
+                50, 0.5, 1000, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while latency stays at the no-load baseline")
+    void shouldIncreaseLimitWhenLatencyIsStable() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        // When
+        for (int round = 0; round < 10; round++) {
+            runFullyUtilizedRound(limiter, 10);
+        }
+
+        // Then
+        assertThat(limiter.currentLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("Should lower the limit when latency grows above the baseline")
+    void shouldDecreaseLimitWhenLatencyGrows() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+        runFullyUtilizedRound(limiter, 10);
+        int before = limiter.currentLimit();
+
+        // When
+        for (int round = 0; round < 10; round++) {
+            runFullyUtilizedRound(limiter, 40);
+        }
+
+        // Then
+        assertThat(limiter.currentLimit()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit on dropped calls")
+    void shouldDecreaseLimitOnDrops() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+        runFullyUtilizedRound(limiter, 10);
+        int before = limiter.currentLimit();
+
+        // When
+        limiter.acquire();
+        limiter.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(2000), true);
+
+        // Then
+        assertThat(limiter.currentLimit()).isLessThan(before).isLessThanOrEqualTo((int) Math.ceil(before * 0.9));
+    }
+
+    @Test
+    @DisplayName("Should reject callers when the limit is reached")
+    void shouldRejectWhenLimitReached() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        limiter.acquire();
+
+        // When / Then
+        assertThat(limiter.availablePermits()).isZero();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ProviderOverloadedException.class);
+    }
+
+    private void runFullyUtilizedRound(AdaptiveConcurrencyLimiter limiter, long rttMs) {
+        int permits = limiter.currentLimit();
+        for (int i = 0; i < permits; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < permits; i++) {
+            limiter.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(rttMs), false);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sporty.eventstream.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ExternalServiceEventScoreClientTest {
+
+    private static final String URL = "http://provider/events/event-1";
+    private static final String BODY = "{\"eventId\":\"event-1\",\"currentScore\":\"1:0\"}";
+    private static final String LAST_MODIFIED = "Sun, 18 Oct 2026 12:00:00 GMT";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockServerRestTemplateCustomizer mockServer = new MockServerRestTemplateCustomizer();
+
+    private ExternalServiceEventScoreClient client(boolean streamingParse, boolean conditionalRequests) {
+        return new ExternalServiceEventScoreClient(new RestTemplateBuilder(mockServer),
+                new AdaptiveConcurrencyLimiter(meterRegistry, false, 20, 1, 200, 2000, 0.2, 1000, 0, 50),
+                new HedgingPolicy(null, meterRegistry, false, 0.95, 50, 5),
+                meterRegistry, "http://provider", 1000, 2000, streamingParse, conditionalRequests, 100);
+    }
+
+    @ParameterizedTest(name = "streamingParse={0}")
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Should send the stored validators and report 304 as not modified")
+    void shouldSendValidatorsAndHandleNotModified(boolean streamingParse) {
+        // Given
+        ExternalServiceEventScoreClient client = client(streamingParse, true);
+        MockRestServiceServer server = mockServer.getServer();
+        server.expect(requestTo(URL))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(validators("\"1-0\"")));
+        server.expect(requestTo(URL))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                .andExpect(header(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // When
+        String first = client.fetchScoreOnce("event-1");
+        String second = client.fetchScoreOnce("event-1");
+
+        // Then
+        server.verify();
+        assertThat(first).isEqualTo("1:0");
+        assertThat(second).isNull();
+        assertThat(meterRegistry.counter("events.provider.not-modified").count()).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "conditionalRequests={0}")
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Should fetch unconditionally when disabled or after the validators were forgotten")
+    void shouldFetchUnconditionally(boolean conditionalRequests) {
+        // Given
+        ExternalServiceEventScoreClient client = client(true, conditionalRequests);
+        MockRestServiceServer server = mockServer.getServer();
+        server.expect(requestTo(URL))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(validators("\"1-0\"")));
+        server.expect(requestTo(URL))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_MODIFIED_SINCE))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(validators("\"1-0\"")));
+
+        // When
+        client.fetchScoreOnce("event-1");
+        client.forgetValidators("event-1");
+        String score = client.fetchScoreOnce("event-1");
+
+        // Then
+        server.verify();
+        assertThat(score).isEqualTo("1:0");
+    }
+
+    private static HttpHeaders validators(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.set(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED);
+        return headers;
+    }
+}
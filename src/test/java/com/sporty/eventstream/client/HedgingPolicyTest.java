@@ -0,0 +1,121 @@
+package com.sporty.eventstream.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingPolicyTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should take the hedge result when the primary call is slow")
+    void shouldReturnHedgeWhenPrimaryIsSlow() throws Exception {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy(executor, meterRegistry, true, 0.95, 10, 100);
+        warmUp(policy);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+        // When
+        String result = policy.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    primaryCancelled.countDown();
+                    throw e;
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("hedge");
+        assertThat(primaryCancelled.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("events.provider.hedge.issued").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("events.provider.hedge.wins").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not hedge once the budget is spent")
+    void shouldNotHedgeWithoutBudget() throws Exception {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy(executor, meterRegistry, true, 0.95, 10, 0);
+        warmUp(policy);
+
+        // When
+        String result = policy.execute(() -> {
+            Thread.sleep(50);
+            return "primary";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("primary");
+        assertThat(meterRegistry.counter("events.provider.hedge.issued").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should propagate the failure when every attempt fails")
+    void shouldPropagateFailure() {
+        // Given
+        HedgingPolicy policy = new HedgingPolicy(executor, meterRegistry, true, 0.95, 10, 100);
+
+        // When / Then
+        assertThatThrownBy(() -> policy.execute(() -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    @DisplayName("Should keep the caller's MDC when an attempt runs on the calling thread")
+    void shouldKeepCallerContextWhenRunInline() throws Exception {
+        // Given - a saturated pool with CallerRunsPolicy runs attempts on the caller
+        HedgingPolicy policy = new HedgingPolicy(new ConcurrentTaskExecutor(Runnable::run), meterRegistry, true, 0.95, 10, 100);
+        MDC.put("traceId", "trace-1");
+
+        try {
+            // When
+            String result = policy.execute(() -> MDC.get("traceId"));
+
+            // Then
+            assertThat(result).isEqualTo("trace-1");
+            assertThat(MDC.get("traceId")).isEqualTo("trace-1");
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private void warmUp(HedgingPolicy policy) throws Exception {
+        for (int i = 0; i < 128; i++) {
+            policy.execute(() -> "ok");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sporty.eventstream.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sporty.eventstream.model.response.EventScoreResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreResponseParserTest {
+
+    private static final byte[] BODY = "{\"eventId\":\"event-42\",\"currentScore\":\"2:1\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ScoreResponseParser parser = new ScoreResponseParser();
+
+    @Test
+    @DisplayName("Should extract the current score and skip other fields")
+    void shouldExtractCurrentScore() throws IOException {
+        // Given
+        String json = "{\"meta\":{\"currentScore\":\"9:9\",\"tags\":[1,2]},\"eventId\":\"e1\",\"currentScore\":\"12:3\"}";
+
+        // When
+        String score = parser.parseCurrentScore(stream(json));
+
+        // Then
+        assertThat(score).isEqualTo("12:3");
+    }
+
+    @Test
+    @DisplayName("Should share instances for single-digit scores")
+    void shouldReuseSingleDigitScores() throws IOException {
+        // When
+        String first = parser.parseCurrentScore(new ByteArrayInputStream(BODY));
+        String second = parser.parseCurrentScore(new ByteArrayInputStream(BODY));
+
+        // Then
+        assertThat(first).isEqualTo("2:1").isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("Should return null when the score is missing or not a string")
+    void shouldReturnNullForMissingScore() throws IOException {
+        assertThat(parser.parseCurrentScore(stream("{\"eventId\":\"e1\"}"))).isNull();
+        assertThat(parser.parseCurrentScore(stream("{\"currentScore\":null}"))).isNull();
+        assertThat(parser.parseCurrentScore(stream("[]"))).isNull();
+    }
+
+    /**
+     * Allocation comparison against full data binding (what the RestTemplate message converter does).
+     * Run with {@code mvn test -Dtest=ScoreResponseParserTest -Dbenchmarks=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkAllocatedBytesPerParse() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        int iterations = 200_000;
+
+        // warm up both paths so JIT-compiled code is measured
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readValue(new ByteArrayInputStream(BODY), EventScoreResponse.class);
+            parser.parseCurrentScore(new ByteArrayInputStream(BODY));
+        }
+
+        long databind = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readValue(new ByteArrayInputStream(BODY), EventScoreResponse.class);
+        }
+        databind = allocatedBytes() - databind;
+
+        long streaming = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            parser.parseCurrentScore(new ByteArrayInputStream(BODY));
+        }
+        streaming = allocatedBytes() - streaming;
+
+        System.out.printf("Bytes allocated per parse: databind=%d, streaming=%d%n",
+                databind / iterations, streaming / iterations);
+        assertThat(streaming).isLessThan(databind);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.sporty.eventstream.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkerRejectionPolicyTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        // one busy thread and no queue: every further task is rejected
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new WorkerRejectionPolicy());
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run a rejected task on the caller by default")
+    void shouldRunOnCallerByDefault() {
+        // Given
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        // When
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        // Then
+        assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("Should reject instead of running inline for submissions that opted out")
+    void shouldRejectWithoutCallerRuns() {
+        // Given
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        // When / Then
+        assertThatThrownBy(() -> WorkerRejectionPolicy.submitWithoutCallerRuns(
+                () -> executor.execute(() -> ranOn.set(Thread.currentThread()))))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(ranOn.get()).isNull();
+
+        executor.execute(() -> ranOn.set(Thread.currentThread())); // the opt-out does not stick to the thread
+        assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+    }
+}
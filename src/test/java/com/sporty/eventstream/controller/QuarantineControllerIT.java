@@ -0,0 +1,124 @@
+package com.sporty.eventstream.controller;
+
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import com.sporty.eventstream.service.EventTaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999"
+})
+class QuarantineControllerIT {
+
+    private static final Instant BASE = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventTaskRepository eventTaskRepository;
+
+    @Autowired
+    private EventTaskService eventTaskService;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    @BeforeEach
+    void setUp() {
+        eventTaskRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should list quarantined tasks and put a released one back on the schedule")
+    void shouldListAndReleaseQuarantinedTasks() throws Exception {
+        // Given
+        save("event-1", EventTaskStatus.QUARANTINED, 3);
+        save("event-2", EventTaskStatus.ACTIVE, 0);
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/admin/quarantine"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks.length()").value(1))
+                .andExpect(jsonPath("$.tasks[0].eventId").value("event-1"));
+
+        mockMvc.perform(post("/api/v1/admin/quarantine/event-1/release"))
+                .andExpect(status().isNoContent());
+
+        EventTaskEntity released = eventTaskRepository.findByEventId("event-1").orElseThrow();
+        assertThat(released.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
+        assertThat(released.getConsecutiveErrors()).isZero();
+        assertThat(released.getNextExecutionTime()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should return 404 when releasing an event that is not quarantined")
+    void shouldRejectReleaseOfActiveEvent() throws Exception {
+        // Given
+        save("event-2", EventTaskStatus.ACTIVE, 0);
+
+        // When / Then
+        mockMvc.perform(post("/api/v1/admin/quarantine/event-2/release"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/admin/quarantine/unknown/release"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should keep a task quarantined when its event is set live again, until the event ends")
+    void shouldKeepQuarantineOnLiveStatus() {
+        // Given
+        save("event-1", EventTaskStatus.QUARANTINED, 3);
+
+        // When
+        eventTaskService.updateEventStatus("event-1", true);
+
+        // Then
+        assertThat(eventTaskRepository.findByEventId("event-1").orElseThrow().getStatus())
+                .isEqualTo(EventTaskStatus.QUARANTINED);
+
+        // When - the event ends and goes live again later
+        eventTaskService.updateEventStatus("event-1", false);
+        eventTaskService.updateEventStatus("event-1", true);
+
+        // Then
+        EventTaskEntity task = eventTaskRepository.findByEventId("event-1").orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
+        assertThat(task.getConsecutiveErrors()).isZero();
+    }
+
+    private void save(String eventId, EventTaskStatus status, int consecutiveErrors) {
+        EventTaskEntity task = new EventTaskEntity();
+        task.setEventId(eventId);
+        task.setStatus(status);
+        task.setConsecutiveErrors(consecutiveErrors);
+        task.setNextExecutionTime(status == EventTaskStatus.ACTIVE ? BASE : null);
+        task.setCreatedAt(BASE);
+        task.setUpdatedAt(BASE);
+        eventTaskRepository.save(task);
+    }
+}
@@ -0,0 +1,107 @@
+package com.sporty.eventstream.controller;
+
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.service.LatestScoreService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:scoredb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999"
+})
+class ScoreControllerIT {
+
+    private static final Instant BASE = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LatestScoreService latestScores;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    @Test
+    @DisplayName("Should answer 304 to a matching If-None-Match and 200 once a score changes")
+    void shouldRevalidateSingleScore() throws Exception {
+        // Given
+        latestScores.update(new EventScoreMessage("single-1", "1:0", BASE));
+        String etag = etagOf("/api/v1/events/single-1/score");
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/events/single-1/score").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        latestScores.update(new EventScoreMessage("single-1", "2:0", BASE.plusSeconds(1)));
+        mockMvc.perform(get("/api/v1/events/single-1/score").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.score").value("2:0"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to a matching bulk If-None-Match regardless of id order")
+    void shouldRevalidateBulkScores() throws Exception {
+        // Given
+        latestScores.update(new EventScoreMessage("bulk-1", "1:0", BASE));
+        latestScores.update(new EventScoreMessage("bulk-2", "0:1", BASE));
+        String etag = etagOf("/api/v1/scores?ids=bulk-1,bulk-2");
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/scores?ids=bulk-2,bulk-1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        latestScores.update(new EventScoreMessage("bulk-2", "0:2", BASE.plusSeconds(1)));
+        mockMvc.perform(get("/api/v1/scores?ids=bulk-1,bulk-2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].score").value("0:2"));
+    }
+
+    @Test
+    @DisplayName("Should change the bulk ETag when a missing id gets a score or the id set changes")
+    void shouldIncludeMissingIdsInBulkEtag() throws Exception {
+        // Given
+        latestScores.update(new EventScoreMessage("missing-1", "1:0", BASE));
+        String withMissing = etagOf("/api/v1/scores?ids=missing-1,missing-2");
+        String withoutMissing = etagOf("/api/v1/scores?ids=missing-1");
+
+        // When
+        latestScores.update(new EventScoreMessage("missing-2", "0:0", BASE));
+
+        // Then
+        assertThat(withMissing).isNotEqualTo(withoutMissing);
+        mockMvc.perform(get("/api/v1/scores?ids=missing-1,missing-2").header(HttpHeaders.IF_NONE_MATCH, withMissing))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/v1/scores?ids=missing-1").header(HttpHeaders.IF_NONE_MATCH, withoutMissing))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(String uri) throws Exception {
+        return mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,103 @@
+package com.sporty.eventstream.controller;
+
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.model.response.LatestScoreResponse;
+import com.sporty.eventstream.service.ScoreStreamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the stream against the embedded Tomcat with a single dispatch thread, so a client that stops reading
+ * would starve every other subscriber if a write could block that thread.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streamdb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999",
+        "events.sse.dispatch-pool-size=1",
+        "events.sse.write-timeout-ms=500",
+        "events.sse.write-timeout-check-interval-ms=100"
+})
+class ScoreStreamControllerIT {
+
+    private static final String LARGE_SCORE = "1:0 ".repeat(16 * 1024);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ScoreStreamService scoreStreamService;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    @Test
+    @DisplayName("Should evict a client that stops reading while other clients keep receiving frames")
+    void shouldEvictStalledClientWithoutBlockingOthers() throws Exception {
+        // Given - one client never reads its socket, the other reads everything
+        try (Socket stalled = new Socket(); Socket healthy = new Socket()) {
+            stalled.setReceiveBufferSize(1024);
+            open(stalled);
+            open(healthy);
+            StringBuffer received = new StringBuffer();
+            Thread reader = new Thread(() -> readInto(healthy, received));
+            reader.setDaemon(true);
+            reader.start();
+            await().atMost(Duration.ofSeconds(5)).until(() -> scoreStreamService.subscriberCount() == 2);
+
+            // When - large frames fill the stalled client's socket buffers
+            for (int i = 1; i <= 500 && scoreStreamService.evictedSubscriberCount() == 0; i++) {
+                scoreStreamService.broadcast(new LatestScoreResponse("event-1", LARGE_SCORE, Instant.now(), i));
+                Thread.sleep(10);
+            }
+            scoreStreamService.broadcast(new LatestScoreResponse("event-2", "final", Instant.now(), 1000));
+
+            // Then
+            assertThat(scoreStreamService.evictedSubscriberCount()).isEqualTo(1);
+            assertThat(scoreStreamService.subscriberCount()).isEqualTo(1);
+            await().atMost(Duration.ofSeconds(5)).until(() -> received.indexOf("\"score\":\"final\"") >= 0);
+        }
+    }
+
+    private void open(Socket socket) throws IOException {
+        socket.connect(new InetSocketAddress("localhost", port), 5000);
+        socket.getOutputStream().write(("GET /api/v1/scores/stream HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+    }
+
+    private static void readInto(Socket socket, StringBuffer received) {
+        byte[] buffer = new byte[64 * 1024];
+        try {
+            InputStream in = socket.getInputStream();
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                // frames are large; keep the tail only so the final marker is found without holding megabytes
+                received.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                if (received.length() > 256 * 1024) {
+                    received.delete(0, received.length() - 1024);
+                }
+            }
+        } catch (IOException e) {
+            // socket closed at the end of the test
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.sporty.eventstream.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999"
+})
+class TaskQueryControllerIT {
+
+    private static final Instant BASE = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventTaskRepository eventTaskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    @BeforeEach
+    void setUp() {
+        eventTaskRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should page through tasks by (next execution time, id) without gaps or duplicates")
+    void shouldPageThroughTasksWithKeysetCursor() throws Exception {
+        // Given - two tasks share a next execution time, one INACTIVE task has none
+        save("event-c", EventTaskStatus.ACTIVE, BASE.plusSeconds(2));
+        save("event-a", EventTaskStatus.ACTIVE, BASE);
+        save("event-b", EventTaskStatus.ACTIVE, BASE);
+        save("event-d", EventTaskStatus.ACTIVE, BASE.plusSeconds(5));
+        save("event-x", EventTaskStatus.INACTIVE, null);
+
+        // When
+        List<String> eventIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/v1/tasks?status=ACTIVE&limit=3" + (cursor == null ? "" : "&after=" + cursor);
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("tasks").forEach(task -> eventIds.add(task.get("eventId").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(eventIds).containsExactly("event-a", "event-b", "event-c", "event-d");
+        assertThat(pages).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should list tasks without next execution time after the scheduled ones")
+    void shouldListUnscheduledTasks() throws Exception {
+        // Given
+        save("event-1", EventTaskStatus.INACTIVE, null);
+        save("event-2", EventTaskStatus.INACTIVE, null);
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/tasks?status=INACTIVE&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].eventId").value("event-1"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return task detail with execution count and last error")
+    void shouldReturnTaskDetail() throws Exception {
+        // Given
+        EventTaskEntity task = save("event-9", EventTaskStatus.ACTIVE, BASE);
+        task.setExecutionCount(7L);
+        task.setLastError("Connection timeout");
+        eventTaskRepository.save(task);
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/events/event-9/task"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.executionCount").value(7))
+                .andExpect(jsonPath("$.lastError").value("Connection timeout"));
+        mockMvc.perform(get("/api/v1/events/unknown/task"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should count tasks per status including empty ones")
+    void shouldCountTasksPerStatus() throws Exception {
+        // Given
+        save("event-1", EventTaskStatus.ACTIVE, BASE);
+        save("event-2", EventTaskStatus.ACTIVE, BASE);
+        save("event-3", EventTaskStatus.INACTIVE, null);
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/tasks/counts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ACTIVE").value(2))
+                .andExpect(jsonPath("$.INACTIVE").value(1))
+                .andExpect(jsonPath("$.IN_PROGRESS").value(0));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and oversized pages")
+    void shouldRejectInvalidPaging() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks?after=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks?limit=100000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private EventTaskEntity save(String eventId, EventTaskStatus status, Instant nextExecutionTime) {
+        EventTaskEntity task = new EventTaskEntity();
+        task.setEventId(eventId);
+        task.setStatus(status);
+        task.setNextExecutionTime(nextExecutionTime);
+        task.setCreatedAt(BASE);
+        task.setUpdatedAt(BASE);
+        return eventTaskRepository.save(task);
+    }
+}
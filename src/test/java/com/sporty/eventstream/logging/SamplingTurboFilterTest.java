@@ -0,0 +1,121 @@
+package com.sporty.eventstream.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.MarkerFactory;
+
+import java.io.OutputStream;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTest {
+
+    @Test
+    @DisplayName("Should let through at most maxPerSecond sampled lines per logger")
+    void shouldRateLimitSampledLines() {
+        // Given
+        LoggerContext context = new LoggerContext();
+        Logger first = context.getLogger("first");
+        Logger second = context.getLogger("second");
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setMaxPerSecond(5);
+
+        // When
+        long firstAccepted = IntStream.range(0, 100)
+                .filter(i -> filter.decide(LogSampling.SAMPLED, first, Level.INFO, "msg", null, null) == FilterReply.NEUTRAL)
+                .count();
+        long secondAccepted = IntStream.range(0, 100)
+                .filter(i -> filter.decide(LogSampling.SAMPLED, second, Level.INFO, "msg", null, null) == FilterReply.NEUTRAL)
+                .count();
+
+        // Then
+        assertThat(firstAccepted).isEqualTo(5);
+        assertThat(secondAccepted).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should never sample unmarked lines or warnings")
+    void shouldIgnoreUnmarkedLinesAndWarnings() {
+        // Given
+        Logger logger = new LoggerContext().getLogger("test");
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setMaxPerSecond(0);
+
+        // Then
+        assertThat(filter.decide(null, logger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(MarkerFactory.getMarker("OTHER"), logger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(LogSampling.SAMPLED, logger, Level.WARN, "msg", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(LogSampling.SAMPLED, logger, Level.INFO, "msg", null, null)).isEqualTo(FilterReply.DENY);
+    }
+
+    /**
+     * Caller-thread cost of one per-task success line.
+     * Run with {@code mvn test -Dtest=SamplingTurboFilterTest -Dbenchmarks=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkPerTaskLogOverhead() {
+        int iterations = 200_000;
+        System.out.printf("Per-task log line, caller thread: sync=%dns, async=%dns, async+sampled=%dns%n",
+                measure(iterations, false, false), measure(iterations, true, false), measure(iterations, true, true));
+    }
+
+    private long measure(int iterations, boolean async, boolean sampled) {
+        LoggerContext context = new LoggerContext();
+        Logger logger = context.getLogger("com.sporty.eventstream.scheduler.TaskProcessingListener");
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        if (sampled) {
+            SamplingTurboFilter filter = new SamplingTurboFilter();
+            filter.setContext(context);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+        Appender<ILoggingEvent> appender = sink(context);
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1638);
+            asyncAppender.addAppender(appender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        logger.addAppender(appender);
+
+        for (int i = 0; i < iterations; i++) {
+            logger.info(LogSampling.SAMPLED, "Successfully processed task {} for event {}", i, "event-1");
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            logger.info(LogSampling.SAMPLED, "Successfully processed task {} for event {}", i, "event-1");
+        }
+        long perCall = (System.nanoTime() - start) / iterations;
+        context.stop();
+        return perCall;
+    }
+
+    private static Appender<ILoggingEvent> sink(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{40} [traceId=%X{traceId:-NO_TRACE}] - %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sporty.eventstream.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceIdContextTest {
+
+    @Test
+    @DisplayName("Should generate unique 128-bit lowercase hex trace ids")
+    void shouldGenerateHexTraceIds() {
+        // When
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(TraceIdContext.generate());
+        }
+
+        // Then
+        assertThat(ids).hasSize(10_000).allMatch(id -> id.matches("[0-9a-f]{32}"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.sporty.eventstream.messaging;
+
+import com.sporty.eventstream.model.entity.EventScoreOutboxEntity;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.repository.EventScoreOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventScoreOutboxRelayTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private EventScoreOutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaEventMessagePublisher publisher;
+
+    @InjectMocks
+    private EventScoreOutboxRelay relay;
+
+    @Captor
+    private ArgumentCaptor<List<Long>> deletedIds;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "maxBatchesPerRun", 20);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+    }
+
+    @Test
+    @DisplayName("Should delete every acknowledged entry, not only the prefix before a failure")
+    void shouldDeleteAllAcknowledgedEntries() {
+        // Given
+        when(outboxRepository.findNextBatch(any())).thenReturn(List.of(
+                entry(1L, "event-1", "1:0"), entry(2L, "event-2", "0:1"), entry(3L, "event-3", "2:2")));
+        when(publisher.publishAsync(any(), any())).thenReturn(acknowledged());
+        when(publisher.publishAsync(eq(message("event-2", "0:1")), any())).thenReturn(failed());
+
+        // When
+        int relayed = relay.relayBatch(500);
+
+        // Then
+        assertThat(relayed).isEqualTo(2);
+        verify(outboxRepository).deleteAllByIdInBatch(deletedIds.capture());
+        assertThat(deletedIds.getValue()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should drop a failed entry superseded by a newer acknowledged score of the same event")
+    void shouldDropSupersededFailedEntry() {
+        // Given
+        when(outboxRepository.findNextBatch(any())).thenReturn(List.of(
+                entry(1L, "event-1", "1:0"), entry(2L, "event-1", "2:0"), entry(3L, "event-2", "0:1")));
+        when(publisher.publishAsync(any(), any())).thenReturn(acknowledged());
+        when(publisher.publishAsync(eq(message("event-1", "1:0")), any())).thenReturn(failed());
+        when(publisher.publishAsync(eq(message("event-2", "0:1")), any())).thenReturn(failed());
+
+        // When
+        int relayed = relay.relayBatch(500);
+
+        // Then - entry 1 is older than the delivered entry 2; entry 3 is kept for the next run
+        assertThat(relayed).isEqualTo(1);
+        verify(outboxRepository).deleteAllByIdInBatch(deletedIds.capture());
+        assertThat(deletedIds.getValue()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should stop the run after a batch that was not fully acknowledged")
+    void shouldStopRunOnPartialBatch() {
+        // Given
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        when(outboxRepository.findNextBatch(any())).thenReturn(List.of(
+                entry(1L, "event-1", "1:0"), entry(2L, "event-2", "0:1")));
+        when(publisher.publishAsync(any(), any())).thenReturn(acknowledged());
+        when(publisher.publishAsync(eq(message("event-2", "0:1")), any())).thenReturn(failed());
+
+        // When
+        relay.relay();
+
+        // Then
+        verify(outboxRepository, times(1)).findNextBatch(any());
+    }
+
+    @Test
+    @DisplayName("Should probe with a single entry after a batch without acknowledgement until one is acknowledged")
+    void shouldProbeWhileKafkaIsDown() {
+        // Given
+        when(outboxRepository.findNextBatch(any())).thenReturn(List.of(
+                entry(1L, "event-1", "1:0"), entry(2L, "event-2", "0:1")));
+        when(publisher.publishAsync(any(), any())).thenReturn(failed());
+        relay.relay();
+
+        // When
+        relay.relay();
+        when(publisher.publishAsync(any(), any())).thenReturn(acknowledged());
+        relay.relay();
+        relay.relay();
+
+        // Then - the full batch, two single-entry probes, then full batches again
+        verify(outboxRepository, times(3)).findNextBatch(PageRequest.of(0, 500));
+        verify(outboxRepository, times(2)).findNextBatch(PageRequest.of(0, 1));
+    }
+
+    private static EventScoreOutboxEntity entry(Long id, String eventId, String score) {
+        EventScoreOutboxEntity entry = new EventScoreOutboxEntity();
+        entry.setId(id);
+        entry.setEventId(eventId);
+        entry.setScore(score);
+        entry.setScoreTimestamp(TIMESTAMP);
+        return entry;
+    }
+
+    private static EventScoreMessage message(String eventId, String score) {
+        return new EventScoreMessage(eventId, score, TIMESTAMP);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<SendResult<String, EventScoreMessage>> acknowledged() {
+        return CompletableFuture.completedFuture(mock(SendResult.class));
+    }
+
+    private static CompletableFuture<SendResult<String, EventScoreMessage>> failed() {
+        return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.sporty.eventstream.messaging;
+
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.model.kafka.EventStatusCommand;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import com.sporty.eventstream.service.EventTaskService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sends status commands through an embedded broker to the real listener and its error handler.
+ * Live events may already be claimed by the running scheduler, so they are checked for not being INACTIVE.
+ */
+@SpringBootTest
+@EmbeddedKafka(partitions = 1, topics = "event-status-commands")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statuscommanddb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "events.status-commands.enabled=true",
+        "events.status-commands.max-retries=1",
+        "events.status-commands.retry-backoff-ms=10"
+})
+class EventStatusCommandListenerIT {
+
+    private static final String TOPIC = "event-status-commands";
+
+    @Autowired
+    private KafkaTemplate<Object, Object> kafkaTemplate;
+
+    @Autowired
+    private EventTaskRepository repository;
+
+    @SpyBean
+    private EventTaskService eventTaskService;
+
+    @Test
+    @DisplayName("Should apply the last command per event from the topic")
+    void shouldApplyCommands() {
+        // When
+        kafkaTemplate.send(TOPIC, "event-1", new EventStatusCommand("event-1", true));
+        kafkaTemplate.send(TOPIC, "event-2", new EventStatusCommand("event-2", true));
+        kafkaTemplate.send(TOPIC, "event-1", new EventStatusCommand("event-1", false));
+
+        // Then
+        await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> {
+            assertThat(repository.findByEventId("event-1")).hasValueSatisfying(
+                    task -> assertThat(task.getStatus()).isEqualTo(EventTaskStatus.INACTIVE));
+            assertThat(repository.findByEventId("event-2")).hasValueSatisfying(
+                    task -> assertThat(task.getStatus()).isNotEqualTo(EventTaskStatus.INACTIVE));
+        });
+    }
+
+    @Test
+    @DisplayName("Should apply commands one by one when the batch keeps failing")
+    void shouldRecoverFailedBatchRecordByRecord() {
+        // Given
+        doThrow(new DataIntegrityViolationException("unique constraint race"))
+                .when(eventTaskService).updateEventStatuses(anyMap());
+
+        // When
+        kafkaTemplate.send(TOPIC, "event-3", new EventStatusCommand("event-3", true));
+        kafkaTemplate.send(TOPIC, "event-4", new EventStatusCommand("event-4", false));
+
+        // Then
+        await().atMost(Duration.ofSeconds(20)).untilAsserted(() -> {
+            assertThat(repository.findByEventId("event-3")).hasValueSatisfying(
+                    task -> assertThat(task.getStatus()).isNotEqualTo(EventTaskStatus.INACTIVE));
+            assertThat(repository.findByEventId("event-4")).hasValueSatisfying(
+                    task -> assertThat(task.getStatus()).isEqualTo(EventTaskStatus.INACTIVE));
+        });
+        verify(eventTaskService, atLeastOnce()).updateEventStatuses(anyMap());
+    }
+}
@@ -0,0 +1,135 @@
+package com.sporty.eventstream.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreSpillBufferTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private KafkaEventMessagePublisher publisher;
+
+    @Mock
+    private SendResult<String, EventScoreMessage> sendResult;
+
+    @TempDir
+    Path dir;
+
+    private ScoreSpillBuffer buffer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        buffer = new ScoreSpillBuffer(publisher, new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                true, dir.toString(), 1024 * 1024, 8 * 1024 * 1024, 500, 20, 1000);
+    }
+
+    @Test
+    @DisplayName("Should replay spilled messages in order with their trace ids")
+    void shouldReplayInOrder() {
+        // Given
+        buffer.spill(new EventScoreMessage("event-1", "1:0", TIMESTAMP), "trace-1");
+        buffer.spill(new EventScoreMessage("event-1", "2:0", TIMESTAMP.plusSeconds(10)), null);
+        when(publisher.publishAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // When
+        buffer.drain();
+
+        // Then
+        var order = inOrder(publisher);
+        order.verify(publisher).publishAsync(new EventScoreMessage("event-1", "1:0", TIMESTAMP), "trace-1");
+        order.verify(publisher).publishAsync(new EventScoreMessage("event-1", "2:0", TIMESTAMP.plusSeconds(10)), null);
+        assertThat(buffer.hasBacklog()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep messages from the first failed send on")
+    void shouldStopAtFirstFailure() {
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            buffer.spill(new EventScoreMessage("event-" + i, "0:0", TIMESTAMP), null);
+        }
+        when(publisher.publishAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(sendResult))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // When
+        buffer.drain();
+
+        // Then - event-3 was acknowledged but stays queued behind event-2
+        assertThat(buffer.backlogMessages()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should probe with a single message while Kafka is down")
+    void shouldProbeWhileKafkaIsDown() {
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            buffer.spill(new EventScoreMessage("event-" + i, "0:0", TIMESTAMP), null);
+        }
+        when(publisher.publishAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // When - the first run sends the whole batch, the second only the oldest message
+        buffer.drain();
+        buffer.drain();
+
+        // Then
+        verify(publisher, times(2)).publishAsync(eq(new EventScoreMessage("event-1", "0:0", TIMESTAMP)), any());
+        verify(publisher, times(1)).publishAsync(eq(new EventScoreMessage("event-3", "0:0", TIMESTAMP)), any());
+        assertThat(buffer.backlogMessages()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should give a batch one send timeout, counted from the first send")
+    void shouldBoundDrainBySendTimeout() throws IOException {
+        // Given - Kafka never answers
+        buffer.spill(new EventScoreMessage("event-1", "0:0", TIMESTAMP), null);
+        buffer.spill(new EventScoreMessage("event-2", "0:0", TIMESTAMP), null);
+        when(publisher.publishAsync(any(), any())).thenAnswer(invocation -> new CompletableFuture<>());
+
+        // When
+        long start = System.nanoTime();
+        int drained = buffer.drainBatch(2);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(drained).isZero();
+        assertThat(elapsedMs).isBetween(900L, 3000L);
+        assertThat(buffer.backlogMessages()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not spill when disabled")
+    void shouldNotSpillWhenDisabled() throws IOException {
+        // Given
+        ScoreSpillBuffer disabled = new ScoreSpillBuffer(publisher, new ObjectMapper(), new SimpleMeterRegistry(),
+                false, dir.resolve("unused").toString(), 1024, 1024, 500, 20, 1000);
+
+        // When / Then
+        assertThat(disabled.spill(new EventScoreMessage("event-1", "1:0", TIMESTAMP), null)).isFalse();
+        assertThat(disabled.hasBacklog()).isFalse();
+    }
+}
@@ -0,0 +1,148 @@
+package com.sporty.eventstream.messaging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpillQueueTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should return records in append order and consume only acknowledged ones")
+    void shouldPeekAndAckInOrder() throws IOException {
+        // Given
+        try (SpillQueue queue = new SpillQueue(dir, 1024, 1024 * 1024)) {
+            for (int i = 0; i < 5; i++) {
+                queue.append(bytes("record-" + i));
+            }
+
+            // When
+            List<byte[]> first = queue.peek(3);
+            queue.ack(2);
+            List<byte[]> rest = queue.peek(10);
+
+            // Then
+            assertThat(first).extracting(SpillQueueTest::text).containsExactly("record-0", "record-1", "record-2");
+            assertThat(rest).extracting(SpillQueueTest::text).containsExactly("record-2", "record-3", "record-4");
+            assertThat(queue.backlogRecords()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll segments at the segment size and delete them once consumed")
+    void shouldRollAndDeleteSegments() throws IOException {
+        // Given - 100 records of 4 + 20 bytes in 256 byte segments
+        try (SpillQueue queue = new SpillQueue(dir, 256, 1024 * 1024)) {
+            for (int i = 0; i < 100; i++) {
+                queue.append(bytes(String.format("record-%013d", i)));
+            }
+            long segmentsWritten = segmentCount();
+
+            // When
+            List<byte[]> all = queue.peek(1000);
+            queue.ack(all.size());
+
+            // Then
+            assertThat(segmentsWritten).isGreaterThan(5);
+            assertThat(all).hasSize(100);
+            assertThat(text(all.get(99))).isEqualTo(String.format("record-%013d", 99));
+            assertThat(queue.backlogRecords()).isZero();
+            assertThat(queue.backlogBytes()).isZero();
+            assertThat(segmentCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep records appended between peek and ack, across segment ends and a restart")
+    void shouldKeepRecordsAppendedAfterPeek() throws IOException {
+        // Given - 4 + 8 byte records, two per 24 byte segment
+        try (SpillQueue queue = new SpillQueue(dir, 24, 1024 * 1024)) {
+            for (int i = 0; i < 4; i++) {
+                queue.append(bytes("record-" + i));
+            }
+
+            // When - the drained segments end exactly at a record
+            List<byte[]> peeked = queue.peek(4);
+            queue.append(bytes("record-4"));
+            queue.ack(peeked.size());
+
+            // Then
+            assertThat(queue.backlogRecords()).isEqualTo(1);
+            assertThat(queue.peek(10)).extracting(SpillQueueTest::text).containsExactly("record-4");
+            assertThat(segmentCount()).isEqualTo(1);
+        }
+        try (SpillQueue reopened = new SpillQueue(dir, 24, 1024 * 1024)) {
+            assertThat(reopened.peek(10)).extracting(SpillQueueTest::text).containsExactly("record-4");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject records beyond the max backlog size")
+    void shouldBoundBacklog() throws IOException {
+        // Given - room for two 4 + 10 byte records
+        try (SpillQueue queue = new SpillQueue(dir, 1024, 30)) {
+            // When / Then
+            assertThat(queue.append(bytes("0123456789"))).isTrue();
+            assertThat(queue.append(bytes("0123456789"))).isTrue();
+            assertThat(queue.append(bytes("0123456789"))).isFalse();
+            queue.ack(1);
+            assertThat(queue.append(bytes("0123456789"))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume from the read position after reopening and drop a torn record")
+    void shouldRecoverAfterRestart() throws IOException {
+        // Given
+        try (SpillQueue queue = new SpillQueue(dir, 128, 1024 * 1024)) {
+            for (int i = 0; i < 20; i++) {
+                queue.append(bytes("record-" + i));
+            }
+            queue.ack(7);
+        }
+        // crash in the middle of an append: length header written, body missing
+        Path last;
+        try (Stream<Path> files = Files.list(dir)) {
+            last = files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        Files.write(last, new byte[]{0, 0, 0, 50, 1, 2}, StandardOpenOption.APPEND);
+
+        // When
+        try (SpillQueue reopened = new SpillQueue(dir, 128, 1024 * 1024)) {
+            List<byte[]> records = reopened.peek(100);
+            reopened.append(bytes("after-restart"));
+
+            // Then
+            assertThat(records).hasSize(13);
+            assertThat(text(records.get(0))).isEqualTo("record-7");
+            assertThat(text(records.get(12))).isEqualTo("record-19");
+            assertThat(reopened.peek(100)).extracting(SpillQueueTest::text).endsWith("record-19", "after-restart");
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sporty.eventstream.messaging;
+
+import com.sporty.eventstream.model.kafka.EventStatusCommand;
+import com.sporty.eventstream.service.EventTaskService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusCommandRecovererTest {
+
+    private static final Exception BATCH_FAILURE = new DataIntegrityViolationException("batch failed");
+
+    @Mock
+    private EventTaskService eventTaskService;
+
+    @Mock
+    private ConsumerRecordRecoverer deadLetters;
+
+    @InjectMocks
+    private StatusCommandRecoverer recoverer;
+
+    @Test
+    @DisplayName("Should apply a command of a failed batch on its own")
+    void shouldApplyRecordOnItsOwn() {
+        // Given
+        ConsumerRecord<String, EventStatusCommand> record = record(new EventStatusCommand("event-1", true));
+
+        // When
+        recoverer.accept(record, BATCH_FAILURE);
+
+        // Then
+        verify(eventTaskService).updateEventStatus("event-1", true);
+        verifyNoInteractions(deadLetters);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a command that fails on its own")
+    void shouldDeadLetterRecordThatFailsAgain() {
+        // Given
+        ConsumerRecord<String, EventStatusCommand> record = record(new EventStatusCommand("event-1", false));
+        RuntimeException failure = new IllegalStateException("database down");
+        doThrow(failure).when(eventTaskService).updateEventStatus("event-1", false);
+
+        // When
+        recoverer.accept(record, BATCH_FAILURE);
+
+        // Then
+        verify(deadLetters).accept(record, failure);
+    }
+
+    @Test
+    @DisplayName("Should skip invalid commands as the listener does")
+    void shouldSkipInvalidCommand() {
+        // When
+        recoverer.accept(record(new EventStatusCommand(" ", true)), BATCH_FAILURE);
+        recoverer.accept(record(null), BATCH_FAILURE);
+
+        // Then
+        verify(eventTaskService, never()).updateEventStatus(any(), anyBoolean());
+        verifyNoInteractions(deadLetters);
+    }
+
+    private static ConsumerRecord<String, EventStatusCommand> record(EventStatusCommand command) {
+        return new ConsumerRecord<>("event-status-commands", 0, 7L, "key", command);
+    }
+}
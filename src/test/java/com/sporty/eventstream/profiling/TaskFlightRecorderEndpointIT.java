@@ -0,0 +1,82 @@
+package com.sporty.eventstream.profiling;
+
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999",
+        "management.endpoints.web.exposure.include=health,jfr"
+})
+class TaskFlightRecorderEndpointIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskFlightRecorder recorder;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    @AfterEach
+    void tearDown() {
+        recorder.closeRecording();
+    }
+
+    @Test
+    @DisplayName("Should start, stop and download a task recording through the actuator")
+    void shouldStartStopAndDump() throws Exception {
+        // Given
+        mockMvc.perform(get("/actuator/jfr")).andExpect(status().isNotFound());
+
+        // When
+        mockMvc.perform(post("/actuator/jfr/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        new CompletionWriteJfrEvent(1L, "event-1", "success").commit();
+        mockMvc.perform(post("/actuator/jfr/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("STOPPED"));
+        byte[] dump = mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        Path file = Files.write(Files.createTempFile("task-profile-it-", ".jfr"), dump);
+        try {
+            assertThat(RecordingFile.readAllEvents(file))
+                    .anyMatch(e -> e.getEventType().getName().equals("com.sporty.eventstream.CompletionWrite"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject unknown recording actions")
+    void shouldRejectUnknownAction() throws Exception {
+        // When / Then
+        mockMvc.perform(post("/actuator/jfr/restart")).andExpect(status().isBadRequest());
+    }
+}
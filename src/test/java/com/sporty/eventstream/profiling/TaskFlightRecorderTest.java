@@ -0,0 +1,101 @@
+package com.sporty.eventstream.profiling;
+
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskFlightRecorderTest {
+
+    private final TaskFlightRecorder recorder = new TaskFlightRecorder("none", 60, 16 * 1024 * 1024);
+
+    @AfterEach
+    void tearDown() {
+        recorder.closeRecording();
+    }
+
+    @Test
+    @DisplayName("Should keep task events disabled while no recording runs")
+    void shouldBeDisabledByDefault() {
+        // When / Then
+        assertThat(TaskFlightRecorder.TASK_EVENTS)
+                .allSatisfy(type -> assertThat(EventType.getEventType(type).isEnabled()).isFalse());
+        assertThat(new ProviderFetchJfrEvent(1L, "event-1", 1).shouldCommit()).isFalse();
+        assertThat(recorder.status().state()).isEqualTo("NEW");
+    }
+
+    @Test
+    @DisplayName("Should record task events with their ids between start and stop")
+    void shouldRecordTaskEvents() throws Exception {
+        // Given
+        recorder.start();
+        ProviderFetchJfrEvent fetch = new ProviderFetchJfrEvent(7L, "event-7", 2);
+        fetch.begin();
+        fetch.succeeded();
+        fetch.commit();
+        CompletionWriteJfrEvent completion = new CompletionWriteJfrEvent(7L, "event-7", "success");
+        completion.leaseHeld(true);
+        completion.commit();
+
+        // When
+        TaskFlightRecorder.RecordingStatus stopped = recorder.stop();
+        new ProviderFetchJfrEvent(8L, "event-8", 1).commit(); // after stop, not recorded
+        Path dump = recorder.dump();
+
+        // Then
+        assertThat(stopped.state()).isEqualTo("STOPPED");
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("com.sporty.eventstream."))
+                    .toList();
+            assertThat(events).extracting(e -> e.getEventType().getName())
+                    .containsExactly("com.sporty.eventstream.ProviderFetch", "com.sporty.eventstream.CompletionWrite");
+            assertThat(events).allSatisfy(e -> {
+                assertThat(e.getLong("taskId")).isEqualTo(7L);
+                assertThat(e.getString("eventId")).isEqualTo("event-7");
+            });
+            assertThat(events.get(0).getInt("attempt")).isEqualTo(2);
+            assertThat(events.get(0).getBoolean("succeeded")).isTrue();
+            assertThat(events.get(1).getString("outcome")).isEqualTo("success");
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave environment variables, system properties and JVM arguments out of a JDK settings recording")
+    void shouldNotRecordSecretBearingEvents() throws Exception {
+        // Given
+        TaskFlightRecorder withJdkSettings = new TaskFlightRecorder("default", 60, 16 * 1024 * 1024);
+        withJdkSettings.start();
+        withJdkSettings.stop();
+
+        // When
+        Path dump = withJdkSettings.dump();
+
+        // Then
+        try {
+            assertThat(RecordingFile.readAllEvents(dump))
+                    .isNotEmpty()
+                    .noneMatch(e -> TaskFlightRecorder.SECRET_BEARING_EVENTS.contains(e.getEventType().getName()));
+        } finally {
+            withJdkSettings.closeRecording();
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    @DisplayName("Should have nothing to dump before the first start")
+    void shouldHaveNothingToDumpBeforeStart() throws Exception {
+        // When / Then
+        assertThat(recorder.dump()).isNull();
+    }
+}
@@ -0,0 +1,83 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.model.event.TaskActivatedEvent;
+import com.sporty.eventstream.service.EventTaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventTaskSchedulerTest {
+
+    @Mock
+    private EventTaskService eventTaskService;
+
+    @Mock
+    private LagController lagController;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private EventTaskScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(2);
+        taskScheduler.initialize();
+
+        scheduler = new EventTaskScheduler(eventTaskService, taskScheduler, lagController, Clock.systemUTC());
+        ReflectionTestUtils.setField(scheduler, "mode", "adaptive");
+        ReflectionTestUtils.setField(scheduler, "minIntervalMs", 100L);
+        ReflectionTestUtils.setField(scheduler, "maxIntervalMs", 5000L);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 100);
+        ReflectionTestUtils.setField(scheduler, "wakeDebounceMs", 20L);
+        // idle scheduler backed off to the max interval
+        ReflectionTestUtils.setField(scheduler, "currentIntervalMs", new AtomicLong(5000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run a claim cycle right after activation instead of waiting out the interval")
+    void shouldClaimImmediatelyOnActivation() {
+        // Given
+        scheduler.start();
+
+        // When
+        scheduler.onTaskActivated(new TaskActivatedEvent(1));
+
+        // Then
+        verify(eventTaskService, timeout(1000)).processDueTasks();
+    }
+
+    @Test
+    @DisplayName("Should coalesce a burst of activations into one claim cycle")
+    void shouldCoalesceActivations() throws InterruptedException {
+        // Given
+        scheduler.start();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            scheduler.onTaskActivated(new TaskActivatedEvent(1));
+        }
+
+        // Then
+        verify(eventTaskService, timeout(1000)).processDueTasks();
+        Thread.sleep(300);
+        verify(eventTaskService, times(1)).processDueTasks();
+    }
+}
@@ -0,0 +1,166 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.service.EventTaskPersistenceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutorAutoTunerTest {
+
+    @Mock
+    private EventTaskPersistenceService persistence;
+
+    private ExecutorLoadSampler sampler;
+    private ThreadPoolTaskExecutor executor;
+    private ExecutorAutoTuner tuner;
+
+    @BeforeEach
+    void setUp() {
+        sampler = new ExecutorLoadSampler();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(20);
+        executor.setMaxPoolSize(50);
+        executor.initialize();
+        tuner = new ExecutorAutoTuner(persistence, sampler, executor, new SimpleMeterRegistry(),
+                true, 10, 4, 200, 1.0, 1.0, 0.1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should size the pool by Little's law, moving halfway per evaluation")
+    void shouldApplyLittlesLaw() {
+        // Given - 1000 scheduled tasks every 10s = 100 tasks/s, 500ms each -> 50 threads
+        when(persistence.countScheduledTasks()).thenReturn(1000L);
+        recordTasks(100, 500);
+
+        // When
+        tuner.tune();
+
+        // Then - 20 + (50 - 20) / 2, burst distance to max kept
+        assertThat(executor.getCorePoolSize()).isEqualTo(35);
+        assertThat(executor.getMaxPoolSize()).isEqualTo(65);
+    }
+
+    @Test
+    @DisplayName("Should converge on a steady load without overshooting")
+    void shouldConvergeWithoutOscillation() {
+        // Given
+        when(persistence.countScheduledTasks()).thenReturn(1000L);
+
+        // When
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            recordTasks(100, 500);
+            tuner.tune();
+            sizes.add(executor.getCorePoolSize());
+        }
+
+        // Then - monotonic approach, settles within the deadband of 50
+        assertThat(sizes).isSorted();
+        assertThat(sizes.get(sizes.size() - 1)).isBetween(45, 50);
+        assertThat(sizes.subList(5, sizes.size())).containsOnly(sizes.get(sizes.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Should shrink the core size before the max size and respect the lower bound")
+    void shouldShrinkToLowerBound() {
+        // Given - almost nothing scheduled
+        when(persistence.countScheduledTasks()).thenReturn(1L);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            recordTasks(10, 10);
+            tuner.tune();
+        }
+
+        // Then
+        assertThat(executor.getCorePoolSize()).isEqualTo(4);
+        assertThat(executor.getMaxPoolSize()).isEqualTo(34);
+    }
+
+    @Test
+    @DisplayName("Should keep the pool within the upper bound")
+    void shouldRespectUpperBound() {
+        // Given - 10000 tasks/s x 1s would need 10000 threads
+        when(persistence.countScheduledTasks()).thenReturn(100_000L);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            recordTasks(10, 1000);
+            tuner.tune();
+        }
+
+        // Then - approaches the bound up to the deadband, never past it
+        assertThat(executor.getCorePoolSize()).isBetween(180, 200);
+    }
+
+    @Test
+    @DisplayName("Should not resize for a target within the deadband")
+    void shouldIgnoreSmallChanges() {
+        // Given - 22 threads needed, within 10% of 20
+        when(persistence.countScheduledTasks()).thenReturn(440L);
+        recordTasks(100, 500);
+
+        // When
+        tuner.tune();
+
+        // Then
+        assertThat(executor.getCorePoolSize()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should not resize before any task was measured")
+    void shouldWaitForMeasurements() {
+        // Given
+        when(persistence.countScheduledTasks()).thenReturn(1000L);
+
+        // When
+        tuner.tune();
+
+        // Then
+        assertThat(executor.getCorePoolSize()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        ExecutorAutoTuner disabled = new ExecutorAutoTuner(persistence, sampler, executor, new SimpleMeterRegistry(),
+                false, 10, 4, 200, 1.0, 1.0, 0.1);
+        recordTasks(100, 500);
+
+        // When
+        disabled.tune();
+
+        // Then
+        assertThat(executor.getCorePoolSize()).isEqualTo(20);
+        verifyNoInteractions(persistence);
+    }
+
+    /**
+     * Feeds the sampler {@code count} finished tasks of {@code latencyMs} each without running them.
+     */
+    private void recordTasks(int count, long latencyMs) {
+        for (int i = 0; i < count; i++) {
+            sampler.record(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+        }
+    }
+}
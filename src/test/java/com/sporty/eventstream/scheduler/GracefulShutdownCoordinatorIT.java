@@ -0,0 +1,143 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shutdown and startup release against H2. Stopping the coordinator shuts the worker pool down,
+ * so the context is not reused.
+ */
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shutdowndb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999",
+        "events.instance-id=node-1",
+        "events.shutdown.drain-timeout-ms=200"
+})
+class GracefulShutdownCoordinatorIT {
+
+    private static final Instant LEASE_EXPIRY = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private GracefulShutdownCoordinator coordinator;
+
+    @Autowired
+    private EventTaskScheduler scheduler;
+
+    @Autowired
+    private EventTaskRepository repository;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should stop before the Kafka containers and the web server")
+    void shouldStopFirst() {
+        assertThat(coordinator.getPhase())
+                .isGreaterThan(new KafkaListenerEndpointRegistry().getPhase())
+                .isGreaterThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE);
+    }
+
+    @Test
+    @DisplayName("Should put tasks in flight at stop back to ACTIVE with the owner cleared")
+    void shouldReleaseInFlightTasksOnStop() throws InterruptedException {
+        // Given - two tasks claimed by this node, one still being processed past the drain timeout
+        saveInProgress("event-1", "node-1");
+        saveInProgress("event-2", "node-1");
+        saveInProgress("event-3", "node-2");
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        taskExecutor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        coordinator.stop();
+
+        // Then
+        assertThat(coordinator.isRunning()).isFalse();
+        assertThat(interrupted).isTrue();
+        assertReleased("event-1");
+        assertReleased("event-2");
+        assertThat(repository.findByEventId("event-3").orElseThrow().getOwnerInstance()).isEqualTo("node-2");
+    }
+
+    @Test
+    @DisplayName("Should put tasks this node left IN_PROGRESS back to ACTIVE when the scheduler starts")
+    void shouldReleaseOrphansOnStartup() {
+        // Given - left behind by the previous run of this node
+        scheduler.stop();
+        saveInProgress("event-1", "node-1");
+        saveInProgress("event-2", "node-2");
+
+        // When
+        scheduler.start();
+        scheduler.stop();
+
+        // Then
+        assertReleased("event-1");
+        EventTaskEntity other = repository.findByEventId("event-2").orElseThrow();
+        assertThat(other.getStatus()).isEqualTo(EventTaskStatus.IN_PROGRESS);
+        assertThat(other.getOwnerInstance()).isEqualTo("node-2");
+    }
+
+    private void saveInProgress(String eventId, String owner) {
+        EventTaskEntity task = new EventTaskEntity();
+        task.setEventId(eventId);
+        task.setStatus(EventTaskStatus.IN_PROGRESS);
+        task.setOwnerInstance(owner);
+        task.setLeaseToken(7L);
+        task.setLeaseExpiresAt(LEASE_EXPIRY);
+        task.setCreatedAt(LEASE_EXPIRY);
+        task.setUpdatedAt(LEASE_EXPIRY);
+        repository.save(task);
+    }
+
+    private void assertReleased(String eventId) {
+        EventTaskEntity task = repository.findByEventId(eventId).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
+        assertThat(task.getOwnerInstance()).isNull();
+        assertThat(task.getLeaseToken()).isNull();
+        assertThat(task.getLeaseExpiresAt()).isNull();
+        assertThat(task.getNextExecutionTime()).isNotNull();
+    }
+}
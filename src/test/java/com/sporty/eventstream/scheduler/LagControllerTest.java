@@ -0,0 +1,141 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.service.DispatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Discrete-time simulation of the claim loop: recurring tasks every 10s, a claim cycle costs
+ * 2ms + 0.05ms per claimed task, and the scheduler waits the delay returned by the controller.
+ */
+class LagControllerTest {
+
+    private static final long MAX_LAG_MS = 500;
+    private static final long INTERVAL_MS = 10_000;
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Test
+    @DisplayName("Should keep lag under the maximum after a step from 1000 to 3000 live events")
+    void shouldTrackLagAfterStep() {
+        // Given - 2000 extra events activated evenly over 2s at t=30s
+        Simulation sim = new Simulation(controller());
+        sim.activateSpread(0, 1000, 0);
+        sim.activateSpread(30_000, 2000, 2_000);
+
+        // When
+        sim.run(90_000);
+
+        // Then - activations that land while the scheduler sleeps wait up to the max interval, so only
+        // the recurring rounds after the step are measured
+        long steadyMax = sim.maxLag(45_000, 90_000);
+        assertThat(steadyMax).isLessThanOrEqualTo(MAX_LAG_MS);
+        assertThat(sim.cycles).isLessThan(90_000 / 100); // fewer than polling at the minimum interval
+    }
+
+    @Test
+    @DisplayName("Should drain a kickoff burst of 5000 activations and recover below the maximum lag")
+    void shouldRecoverFromBurst() {
+        // Given - 500 events running, 5000 go live at the same instant
+        Simulation sim = new Simulation(controller());
+        sim.activateSpread(0, 500, 0);
+        sim.activateSpread(20_000, 5000, 0);
+
+        // When
+        sim.run(60_000);
+
+        // Then
+        long burstMax = sim.maxLag(20_000, 25_000);
+        long recovered = sim.maxLag(25_000, 60_000);
+        assertThat(sim.peakBatch).isGreaterThan(500).isLessThanOrEqualTo(1000);
+        assertThat(burstMax).isLessThan(2_000);
+        assertThat(recovered).isLessThanOrEqualTo(MAX_LAG_MS);
+    }
+
+    @Test
+    @DisplayName("Should sleep until the next due task when idle")
+    void shouldSleepUntilNextDueWhenIdle() {
+        // Given
+        LagController controller = controller();
+        Instant now = START;
+
+        // When
+        long untilDue = controller.update(now, new DispatchResult(0, 0, now.plusMillis(1_234)));
+        long nothingActive = controller.update(now.plusMillis(1_234), new DispatchResult(0, 0, null));
+
+        // Then
+        assertThat(untilDue).isEqualTo(1_234);
+        assertThat(nothingActive).isEqualTo(5_000);
+    }
+
+    private static LagController controller() {
+        return new LagController(new SimpleMeterRegistry(), MAX_LAG_MS, 1.0, 1.0, 0.1, 100, 1000, 100, 5000);
+    }
+
+    private static final class Simulation {
+        private final LagController controller;
+        private final PriorityQueue<Long> due = new PriorityQueue<>();
+        private final List<long[]> activations = new ArrayList<>();
+        private final List<long[]> lagSamples = new ArrayList<>();
+        private int cycles;
+        private int peakBatch;
+
+        Simulation(LagController controller) {
+            this.controller = controller;
+        }
+
+        void activateSpread(long atMs, int count, long spreadMs) {
+            for (int i = 0; i < count; i++) {
+                activations.add(new long[]{atMs + (spreadMs == 0 ? 0 : spreadMs * i / count)});
+            }
+        }
+
+        void run(long durationMs) {
+            activations.sort((a, b) -> Long.compare(a[0], b[0]));
+            int nextActivation = 0;
+            long now = 0;
+            while (now < durationMs) {
+                while (nextActivation < activations.size() && activations.get(nextActivation)[0] <= now) {
+                    due.add(activations.get(nextActivation++)[0]);
+                }
+
+                int batch = controller.batchSize();
+                peakBatch = Math.max(peakBatch, batch);
+                Long oldest = due.peek();
+                long lag = oldest != null && oldest <= now ? now - oldest : 0;
+                int claimed = 0;
+                while (claimed < batch && !due.isEmpty() && due.peek() <= now) {
+                    due.poll();
+                    claimed++;
+                }
+                long cycleCost = 2 + claimed / 20;
+                now += cycleCost;
+                for (int i = 0; i < claimed; i++) {
+                    due.add(now + INTERVAL_MS);
+                }
+                lagSamples.add(new long[]{now, lag});
+                cycles++;
+
+                Long next = due.peek();
+                long delay = controller.update(START.plusMillis(now),
+                        new DispatchResult(claimed, lag, next == null ? null : START.plusMillis(next)));
+                now += delay;
+            }
+        }
+
+        long maxLag(long fromMs, long toMs) {
+            return lagSamples.stream()
+                    .filter(sample -> sample[0] >= fromMs && sample[0] < toMs)
+                    .mapToLong(sample -> sample[1])
+                    .max()
+                    .orElse(0);
+        }
+    }
+}
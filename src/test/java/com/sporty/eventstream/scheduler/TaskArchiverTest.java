@@ -0,0 +1,131 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.service.TaskArchiveService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiverTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+    private static final Instant CUTOFF = NOW.minus(Duration.ofDays(7));
+
+    @Mock
+    private TaskArchiveService archiveService;
+
+    @Mock
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    private TaskArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new TaskArchiver(archiveService, taskScheduler, new SimpleMeterRegistry(),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(archiver, "enabled", true);
+        ReflectionTestUtils.setField(archiver, "retentionDays", 7);
+        ReflectionTestUtils.setField(archiver, "chunkSize", 10);
+        ReflectionTestUtils.setField(archiver, "chunkPauseMs", 100L);
+        ReflectionTestUtils.setField(archiver, "maxChunksPerRun", 5);
+    }
+
+    @Test
+    @DisplayName("Should schedule the next chunk after a full one and end the run at a partial one")
+    void shouldChainChunksUntilPartialChunk() {
+        // Given
+        when(archiveService.archiveChunk(CUTOFF, 10, NOW)).thenReturn(10, 10, 3);
+
+        // When
+        archiver.startRun();
+        runScheduledChunks(2);
+
+        // Then
+        verify(archiveService, times(3)).archiveChunk(CUTOFF, 10, NOW);
+        verifyNoMoreInteractions(taskScheduler);
+        assertThat(isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should stop after max chunks per run even when more tasks are left")
+    void shouldStopAtMaxChunksPerRun() {
+        // Given
+        when(archiveService.archiveChunk(CUTOFF, 10, NOW)).thenReturn(10);
+
+        // When
+        archiver.startRun();
+        runScheduledChunks(4);
+
+        // Then
+        verify(archiveService, times(5)).archiveChunk(CUTOFF, 10, NOW);
+        verifyNoMoreInteractions(taskScheduler);
+        assertThat(isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not start a second run while chunks of the first are still scheduled")
+    void shouldNotOverlapRuns() {
+        // Given
+        when(archiveService.archiveChunk(CUTOFF, 10, NOW)).thenReturn(10);
+        archiver.startRun();
+
+        // When
+        archiver.startRun();
+
+        // Then
+        verify(archiveService, times(1)).archiveChunk(any(), anyInt(), any());
+        assertThat(isRunning()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should end the run when a chunk fails so the next interval starts over")
+    void shouldEndRunOnFailure() {
+        // Given
+        when(archiveService.archiveChunk(CUTOFF, 10, NOW))
+                .thenThrow(new IllegalStateException("lock timeout"))
+                .thenReturn(0);
+
+        // When
+        archiver.startRun();
+        archiver.startRun();
+
+        // Then
+        verify(archiveService, times(2)).archiveChunk(CUTOFF, 10, NOW);
+        verifyNoInteractions(taskScheduler);
+        assertThat(isRunning()).isFalse();
+    }
+
+    /**
+     * Runs the chunks the archiver schedules one after another, checking each is scheduled after the pause.
+     */
+    private void runScheduledChunks(int expected) {
+        ArgumentCaptor<Runnable> next = ArgumentCaptor.forClass(Runnable.class);
+        for (int i = 1; i <= expected; i++) {
+            verify(taskScheduler, times(i)).schedule(next.capture(), eq(NOW.plusMillis(100)));
+            next.getValue().run();
+        }
+    }
+
+    private boolean isRunning() {
+        return ((AtomicBoolean) ReflectionTestUtils.getField(archiver, "running")).get();
+    }
+}
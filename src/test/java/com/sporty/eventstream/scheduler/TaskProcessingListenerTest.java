@@ -1,10 +1,15 @@
 package com.sporty.eventstream.scheduler;
 
 import com.sporty.eventstream.client.ExternalServiceEventScoreClient;
+import com.sporty.eventstream.exception.KafkaPublishException;
 import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.messaging.ScoreSpillBuffer;
 import com.sporty.eventstream.model.event.TaskProcessingEvent;
 import com.sporty.eventstream.model.kafka.EventScoreMessage;
 import com.sporty.eventstream.service.EventTaskPersistenceService;
+import com.sporty.eventstream.service.LatestScoreService;
+import com.sporty.eventstream.service.ScoreStreamService;
+import com.sporty.eventstream.service.TaskLeaseRenewer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +18,9 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 
 import java.time.Instant;
@@ -34,6 +42,24 @@ class TaskProcessingListenerTest {
     @Mock
     private KafkaEventMessagePublisher eventScorePublisher;
 
+    @Mock
+    private LatestScoreService latestScores;
+
+    @Mock
+    private ScoreStreamService scoreStream;
+
+    @Mock
+    private ProcessingStats processingStats;
+
+    @Mock
+    private TaskLeaseRenewer leases;
+
+    @Mock
+    private TaskRetryScheduler retries;
+
+    @Mock
+    private ScoreSpillBuffer spill;
+
     @InjectMocks
     private TaskProcessingListener listener;
 
@@ -43,6 +69,7 @@ class TaskProcessingListenerTest {
     private static final Long TASK_ID = 123L;
     private static final String EVENT_ID = "event-456";
     private static final String SCORE = "3-2";
+    private static final long LEASE_TOKEN = 11L;
     private Instant processingTime;
 
     @BeforeEach
@@ -53,8 +80,9 @@ class TaskProcessingListenerTest {
     @Test
     void shouldSuccessfullyProcessTask() {
         // Given
-        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
         when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
+        when(persistence.markTaskSuccess(TASK_ID, processingTime, LEASE_TOKEN)).thenReturn(true);
 
         // When
         listener.handleTaskProcessing(event);
@@ -65,14 +93,65 @@ class TaskProcessingListenerTest {
         assertThat(publishedMessage.eventId()).isEqualTo(EVENT_ID);
         assertThat(publishedMessage.score()).isEqualTo(SCORE);
         assertThat(publishedMessage.timestamp()).isEqualTo(processingTime);
-        verify(persistence).markTaskSuccess(TASK_ID, processingTime);
-        verify(persistence, never()).markTaskError(any(), any(), any());
+        verify(persistence).markTaskSuccess(TASK_ID, processingTime, LEASE_TOKEN);
+        verify(persistence, never()).markTaskError(any(), any(), anyLong(), any(), anyBoolean());
+        verify(latestScores).update(publishedMessage);
+        verify(processingStats).recordSuccess();
+    }
+
+    @Test
+    void shouldCompleteWithLeaseTokenAndStopRenewing() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, 42L);
+        when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(persistence).markTaskSuccess(TASK_ID, processingTime, 42L);
+        verify(leases).release(TASK_ID, 42L);
+    }
+
+    @Test
+    void shouldWriteToOutboxInsteadOfPublishingWhenOutboxEnabled() {
+        // Given
+        ReflectionTestUtils.setField(listener, "outboxEnabled", true);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
+        when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        verify(eventScorePublisher, never()).publish(any());
+        verify(persistence).markTaskSuccessWithOutbox(eq(TASK_ID), eq(processingTime), eq(LEASE_TOKEN), messageCaptor.capture());
+        assertThat(messageCaptor.getValue().score()).isEqualTo(SCORE);
+        verify(persistence, never()).markTaskSuccess(any(), any(), anyLong());
+        verify(persistence, never()).markTaskError(any(), any(), anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    void shouldNotApplyScoreWhenLeaseWasLost() {
+        // Given - the lease expired and another claim owns the task, so no outbox row was written
+        ReflectionTestUtils.setField(listener, "outboxEnabled", true);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, 42L);
+        when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
+        when(persistence.markTaskSuccessWithOutbox(eq(TASK_ID), eq(processingTime), eq(42L), any())).thenReturn(false);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(latestScores, never()).update(any());
+        verify(scoreStream, never()).broadcast(any());
+        verify(serviceEventClient).forgetValidators(EVENT_ID);
+        verify(leases).release(TASK_ID, 42L);
     }
 
     @Test
     void shouldHandleExternalServiceFailure() {
         // Given
-        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
         String errorMessage = "Connection timeout";
         when(serviceEventClient.fetchScore(EVENT_ID))
                 .thenThrow(new RestClientException(errorMessage));
@@ -82,14 +161,147 @@ class TaskProcessingListenerTest {
 
         verify(serviceEventClient).fetchScore(EVENT_ID);
         verify(eventScorePublisher, never()).publish(any());
-        verify(persistence).markTaskError(TASK_ID, processingTime, errorMessage);
-        verify(persistence, never()).markTaskSuccess(any(), any());
+        verify(persistence).markTaskError(TASK_ID, processingTime, LEASE_TOKEN, errorMessage, false);
+        verify(persistence, never()).markTaskSuccess(any(), any(), anyLong());
+        verify(latestScores, never()).update(any());
+        verify(processingStats).recordError();
+    }
+
+    @Test
+    void shouldCompleteWithoutPublishingWhenScoreNotModified() {
+        // Given - the client returns null for 304 Not Modified
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, 42L);
+        when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(null);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(eventScorePublisher, never()).publish(any());
+        verify(persistence).markTaskSuccess(TASK_ID, processingTime, 42L);
+        verify(latestScores, never()).update(any());
+        verify(processingStats).recordSuccess();
+        verify(leases).release(TASK_ID, 42L);
+    }
+
+    @Test
+    void shouldForgetValidatorsWhenFetchedScoreIsNotPublished() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
+        when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
+        doThrow(new KafkaPublishException("broker down")).when(eventScorePublisher).publish(any());
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(serviceEventClient).forgetValidators(EVENT_ID);
+        verify(persistence).markTaskError(eq(TASK_ID), eq(processingTime), eq(LEASE_TOKEN), any(), eq(false));
+    }
+
+    @Test
+    void shouldReportProviderRejectionAsPermanentError() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
+        when(serviceEventClient.fetchScore(EVENT_ID))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(persistence).markTaskError(eq(TASK_ID), eq(processingTime), eq(LEASE_TOKEN), any(), eq(true));
+        verify(processingStats).recordError();
+    }
+
+    @Test
+    void shouldReportRateLimitingAsTransientError() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
+        when(serviceEventClient.fetchScore(EVENT_ID))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(persistence).markTaskError(eq(TASK_ID), eq(processingTime), eq(LEASE_TOKEN), any(), eq(false));
+    }
+
+    @Test
+    void shouldHandOverRetryableFailureWithoutRecordingError() {
+        // Given - rescheduled retries: one attempt per run, the failure goes to the retry timer
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, 7L);
+        RestClientException failure = new RestClientException("Connection timeout");
+        when(retries.isEnabled()).thenReturn(true);
+        when(serviceEventClient.fetchScoreOnce(EVENT_ID)).thenThrow(failure);
+        when(retries.retryLater(event, failure)).thenReturn(true);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(serviceEventClient, never()).fetchScore(any());
+        verify(persistence, never()).markTaskError(any(), any(), anyLong(), any(), anyBoolean());
+        verify(leases, never()).release(any(), anyLong());
+        verify(processingStats, never()).recordError();
+    }
+
+    @Test
+    void shouldPublishOnceWhenRetriesAreRescheduled() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, 7L);
+        when(retries.isEnabled()).thenReturn(true);
+        when(serviceEventClient.fetchScoreOnce(EVENT_ID)).thenReturn(SCORE);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(eventScorePublisher).publishOnce(any(EventScoreMessage.class));
+        verify(eventScorePublisher, never()).publish(any());
+        verify(persistence).markTaskSuccess(TASK_ID, processingTime, 7L);
+        verify(leases).release(TASK_ID, 7L);
+    }
+
+    @Test
+    void shouldSpillMessageWhenKafkaPublishFails() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
+        when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
+        doThrow(new KafkaPublishException("Kafka publish failure for event " + EVENT_ID))
+                .when(eventScorePublisher).publish(any(EventScoreMessage.class));
+        when(spill.spill(any(EventScoreMessage.class), any())).thenReturn(true);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then - the score is kept on disk and the task succeeds
+        verify(spill).spill(eq(new EventScoreMessage(EVENT_ID, SCORE, processingTime)), any());
+        verify(persistence).markTaskSuccess(TASK_ID, processingTime, LEASE_TOKEN);
+        verify(persistence, never()).markTaskError(any(), any(), anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    void shouldSpillWithoutTryingKafkaWhileBacklogExists() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
+        when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
+        when(spill.hasBacklog()).thenReturn(true);
+        when(spill.spill(any(EventScoreMessage.class), any())).thenReturn(true);
+
+        // When
+        listener.handleTaskProcessing(event);
+
+        // Then
+        verify(eventScorePublisher, never()).publish(any());
+        verify(persistence).markTaskSuccess(TASK_ID, processingTime, LEASE_TOKEN);
     }
 
     @Test
     void shouldHandleKafkaPublishFailure() {
         // Given
-        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
         String errorMessage = "Kafka broker not available";
         when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
         doThrow(new RuntimeException(errorMessage))
@@ -100,32 +312,33 @@ class TaskProcessingListenerTest {
 
         verify(serviceEventClient).fetchScore(EVENT_ID);
         verify(eventScorePublisher).publish(any(EventScoreMessage.class));
-        verify(persistence).markTaskError(TASK_ID, processingTime, errorMessage);
-        verify(persistence, never()).markTaskSuccess(any(), any());
+        verify(persistence).markTaskError(TASK_ID, processingTime, LEASE_TOKEN, errorMessage, false);
+        verify(persistence, never()).markTaskSuccess(any(), any(), anyLong());
+        verify(latestScores, never()).update(any());
     }
 
     @Test
     void shouldHandlePersistenceFailureOnSuccess() {
         // Given
-        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
         String errorMessage = "Database connection failed";
         when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
         doThrow(new RuntimeException(errorMessage))
-                .when(persistence).markTaskSuccess(TASK_ID, processingTime);
+                .when(persistence).markTaskSuccess(TASK_ID, processingTime, LEASE_TOKEN);
 
         // When
         listener.handleTaskProcessing(event);
 
         verify(serviceEventClient).fetchScore(EVENT_ID);
         verify(eventScorePublisher).publish(any(EventScoreMessage.class));
-        verify(persistence).markTaskSuccess(TASK_ID, processingTime);
-        verify(persistence).markTaskError(TASK_ID, processingTime, errorMessage);
+        verify(persistence).markTaskSuccess(TASK_ID, processingTime, LEASE_TOKEN);
+        verify(persistence).markTaskError(TASK_ID, processingTime, LEASE_TOKEN, errorMessage, false);
     }
 
     @Test
     void shouldTruncateLongErrorMessages() {
         // Given
-        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
         String longErrorMessage = "Error: " + "X".repeat(1500);
         when(serviceEventClient.fetchScore(EVENT_ID))
                 .thenThrow(new RuntimeException(longErrorMessage));
@@ -134,7 +347,7 @@ class TaskProcessingListenerTest {
         listener.handleTaskProcessing(event);
 
         ArgumentCaptor<String> errorMessageCaptor = ArgumentCaptor.forClass(String.class);
-        verify(persistence).markTaskError(eq(TASK_ID), eq(processingTime), errorMessageCaptor.capture());
+        verify(persistence).markTaskError(eq(TASK_ID), eq(processingTime), eq(LEASE_TOKEN), errorMessageCaptor.capture(), eq(false));
         String capturedErrorMessage = errorMessageCaptor.getValue();
         assertThat(capturedErrorMessage).hasSize(1000);
         assertThat(capturedErrorMessage).startsWith("Error: XXX");
@@ -143,14 +356,14 @@ class TaskProcessingListenerTest {
     @Test
     void shouldHandleNullErrorMessage() {
         // Given
-        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
         when(serviceEventClient.fetchScore(EVENT_ID))
                 .thenThrow(new RuntimeException((String) null));
 
         // When
         listener.handleTaskProcessing(event);
 
-        verify(persistence).markTaskError(TASK_ID, processingTime, null);
+        verify(persistence).markTaskError(TASK_ID, processingTime, LEASE_TOKEN, null, false);
     }
 
     @Test
@@ -161,7 +374,7 @@ class TaskProcessingListenerTest {
         Instant customTime = Instant.parse("2023-12-01T10:00:00Z");
         String customScore = "5-0";
 
-        TaskProcessingEvent event = new TaskProcessingEvent(customTaskId, customEventId, customTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(customTaskId, customEventId, customTime, LEASE_TOKEN);
         when(serviceEventClient.fetchScore(customEventId)).thenReturn(customScore);
 
         // When
@@ -173,13 +386,13 @@ class TaskProcessingListenerTest {
         assertThat(message.eventId()).isEqualTo(customEventId);
         assertThat(message.score()).isEqualTo(customScore);
         assertThat(message.timestamp()).isEqualTo(customTime);
-        verify(persistence).markTaskSuccess(customTaskId, customTime);
+        verify(persistence).markTaskSuccess(customTaskId, customTime, LEASE_TOKEN);
     }
 
     @Test
     void shouldHandleMultipleFailures() {
         // Given
-        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime);
+        TaskProcessingEvent event = new TaskProcessingEvent(TASK_ID, EVENT_ID, processingTime, LEASE_TOKEN);
         when(serviceEventClient.fetchScore(EVENT_ID)).thenReturn(SCORE);
         doThrow(new RuntimeException("Kafka failed"))
                 .when(eventScorePublisher).publish(any(EventScoreMessage.class));
@@ -187,7 +400,7 @@ class TaskProcessingListenerTest {
         // When
         listener.handleTaskProcessing(event);
 
-        verify(persistence).markTaskError(eq(TASK_ID), eq(processingTime), eq("Kafka failed"));
+        verify(persistence).markTaskError(eq(TASK_ID), eq(processingTime), eq(LEASE_TOKEN), eq("Kafka failed"), eq(false));
     }
 }
 
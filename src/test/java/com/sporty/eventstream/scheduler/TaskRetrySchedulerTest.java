@@ -0,0 +1,135 @@
+package com.sporty.eventstream.scheduler;
+
+import com.sporty.eventstream.exception.KafkaPublishException;
+import com.sporty.eventstream.model.event.TaskProcessingEvent;
+import com.sporty.eventstream.service.EventTaskPersistenceService;
+import com.sporty.eventstream.service.TaskLeaseRenewer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskRetrySchedulerTest {
+
+    private static final Instant PROCESSING_TIME = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskLeaseRenewer leases;
+
+    @Mock
+    private EventTaskPersistenceService persistence;
+
+    @Mock
+    private ProcessingStats processingStats;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private TaskRetryScheduler retries;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(1);
+        taskScheduler.initialize();
+        retries = new TaskRetryScheduler(taskScheduler, eventPublisher, leases, persistence, processingStats,
+                new SimpleMeterRegistry(), "rescheduled", 3, 20, 2.0, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should re-publish a failed task with the next attempt number after the backoff delay")
+    void shouldRepublishAfterDelay() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(1L, "event-1", PROCESSING_TIME, 7L);
+
+        // When
+        boolean handedOver = retries.retryLater(event, new ResourceAccessException("Read timed out"));
+
+        // Then
+        assertThat(handedOver).isTrue();
+        verify(eventPublisher, timeout(1000)).publishEvent(new TaskProcessingEvent(1L, "event-1", PROCESSING_TIME, 7L, 2));
+        assertThat(retries.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should give up after the last attempt and on failures that are not retryable")
+    void shouldNotRetryExhaustedOrPermanentFailures() {
+        // Given
+        TaskProcessingEvent lastAttempt = new TaskProcessingEvent(1L, "event-1", PROCESSING_TIME, 7L, 3);
+        TaskProcessingEvent firstAttempt = new TaskProcessingEvent(2L, "event-2", PROCESSING_TIME, 7L);
+        HttpClientErrorException notFound =
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+
+        // When / Then
+        assertThat(retries.retryLater(lastAttempt, new KafkaPublishException("down", null))).isFalse();
+        assertThat(retries.retryLater(firstAttempt, notFound)).isFalse();
+        assertThat(retries.retryLater(firstAttempt, new IllegalStateException("bad body"))).isFalse();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should drop due retries after stop and stop renewing their leases")
+    void shouldDropRetriesAfterStop() {
+        // Given - a retry due in 200ms
+        TaskRetryScheduler retries = new TaskRetryScheduler(taskScheduler, eventPublisher, leases, persistence,
+                processingStats, new SimpleMeterRegistry(), "rescheduled", 3, 200, 2.0, 1000);
+        TaskProcessingEvent event = new TaskProcessingEvent(1L, "event-1", PROCESSING_TIME, 7L);
+        retries.retryLater(event, new ResourceAccessException("Read timed out"));
+
+        // When
+        retries.stop();
+
+        // Then
+        verify(leases, timeout(1000)).release(1L, 7L);
+        verifyNoInteractions(eventPublisher);
+        assertThat(retries.retryLater(event, new ResourceAccessException("Read timed out"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should grow the delay by the multiplier up to the maximum")
+    void shouldGrowDelay() {
+        // When / Then
+        assertThat(retries.delayMs(1)).isEqualTo(20);
+        assertThat(retries.delayMs(2)).isEqualTo(40);
+        assertThat(retries.delayMs(10)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Should record an error and release the lease when the saturated executor rejects a retry")
+    void shouldFailRetryRejectedByExecutor() {
+        // Given
+        TaskProcessingEvent event = new TaskProcessingEvent(1L, "event-1", PROCESSING_TIME, 7L);
+        doThrow(new TaskRejectedException("Task executor saturated")).when(eventPublisher).publishEvent(any(Object.class));
+
+        // When
+        retries.retryLater(event, new ResourceAccessException("Read timed out"));
+
+        // Then
+        verify(persistence, timeout(1000)).markTaskError(eq(1L), eq(PROCESSING_TIME), eq(7L), anyString(), eq(false));
+        verify(processingStats, timeout(1000)).recordError();
+        verify(leases, timeout(1000)).release(1L, 7L);
+        assertThat(retries.pendingCount()).isZero();
+    }
+}
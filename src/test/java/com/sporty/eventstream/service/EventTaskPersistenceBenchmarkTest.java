@@ -0,0 +1,119 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of the persistence hot paths against H2: status upserts, and claim + complete cycles.
+ * Tasks are due in the future so the running scheduler never claims them.
+ * Run with {@code mvn test -Dtest=EventTaskPersistenceBenchmarkTest -Dbenchmarks=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmarkdb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999"
+})
+class EventTaskPersistenceBenchmarkTest {
+
+    private static final Instant FUTURE = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.SECONDS);
+    private static final int TASKS = 5_000;
+    private static final int BATCH = 500;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private EventTaskPersistenceService persistence;
+
+    @Autowired
+    private EventTaskRepository repository;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    @Test
+    void benchmarkHotPaths() {
+        // warm up
+        upsert("warmup-", TASKS);
+        repository.deleteAllInBatch();
+        seedDueTasks("warmup-");
+        claimAndComplete();
+        repository.deleteAllInBatch();
+
+        long upsertNanos = 0;
+        long cycleNanos = 0;
+        int completed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            upsert("round-" + round + "-", TASKS);
+            upsertNanos += System.nanoTime() - start;
+
+            repository.deleteAllInBatch();
+            seedDueTasks("due-" + round + "-");
+
+            start = System.nanoTime();
+            completed += claimAndComplete();
+            cycleNanos += System.nanoTime() - start;
+            repository.deleteAllInBatch();
+        }
+
+        System.out.printf("Upsert: %.0f status changes/s; claim + complete: %.0f tasks/s%n",
+                ROUNDS * TASKS / (upsertNanos / 1e9), completed / (cycleNanos / 1e9));
+        assertThat(completed).isEqualTo(ROUNDS * TASKS);
+    }
+
+    private void upsert(String prefix, int count) {
+        Map<String, Boolean> statuses = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            statuses.put(prefix + i, false);
+        }
+        persistence.updateEventStatuses(statuses);
+    }
+
+    private void seedDueTasks(String prefix) {
+        List<EventTaskEntity> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            EventTaskEntity task = new EventTaskEntity();
+            task.setEventId(prefix + i);
+            task.setStatus(EventTaskStatus.ACTIVE);
+            task.setNextExecutionTime(FUTURE);
+            task.setCreatedAt(FUTURE);
+            task.setUpdatedAt(FUTURE);
+            tasks.add(task);
+        }
+        repository.saveAll(tasks);
+    }
+
+    private int claimAndComplete() {
+        int completed = 0;
+        List<ClaimedTask> claimed;
+        long token = 1;
+        while (!(claimed = persistence.claimTasksForProcessing(FUTURE, BATCH, "benchmark", token,
+                FUTURE.plusSeconds(5))).isEmpty()) {
+            for (ClaimedTask task : claimed) {
+                if (persistence.markTaskSuccess(task.taskId(), FUTURE, token)) {
+                    completed++;
+                }
+            }
+            token++;
+        }
+        return completed;
+    }
+}
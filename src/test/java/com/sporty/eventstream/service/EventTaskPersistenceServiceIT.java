@@ -0,0 +1,108 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.messaging.KafkaEventMessagePublisher;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lease fencing of the completion SQL against H2. Tasks are due in the future so the running scheduler
+ * never claims them.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fencingdb",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=localhost:9999"
+})
+class EventTaskPersistenceServiceIT {
+
+    private static final Instant FUTURE = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private EventTaskPersistenceService persistence;
+
+    @Autowired
+    private EventTaskRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactions;
+
+    @MockBean
+    private KafkaEventMessagePublisher kafkaPublisher;
+
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        EventTaskEntity task = new EventTaskEntity();
+        task.setEventId("event-1");
+        task.setStatus(EventTaskStatus.ACTIVE);
+        task.setNextExecutionTime(FUTURE);
+        task.setCreatedAt(FUTURE);
+        task.setUpdatedAt(FUTURE);
+        taskId = repository.save(task).getId();
+    }
+
+    @Test
+    @DisplayName("Should update no row for a completion with a stale lease token")
+    void shouldDiscardStaleCompletion() {
+        // Given - claimed with token 1, released after the lease expired and claimed again with token 2
+        claim(1L, FUTURE);
+        assertThat(persistence.releaseInProgressTasks(FUTURE.plusSeconds(10), FUTURE)).isEqualTo(1);
+        claim(2L, FUTURE.plusSeconds(10));
+
+        // When
+        Integer staleRows = transactions.execute(status -> repository.completeTask(taskId, 1L,
+                EventTaskStatus.ACTIVE.name(), FUTURE.plusSeconds(5), 0, null, null, FUTURE));
+        boolean staleSuccess = persistence.markTaskSuccess(taskId, FUTURE, 1L);
+        boolean staleError = persistence.markTaskError(taskId, FUTURE, 1L, "stale", false);
+
+        // Then
+        assertThat(staleRows).isZero();
+        assertThat(staleSuccess).isFalse();
+        assertThat(staleError).isFalse();
+        EventTaskEntity task = repository.findById(taskId).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(EventTaskStatus.IN_PROGRESS);
+        assertThat(task.getLeaseToken()).isEqualTo(2L);
+        assertThat(task.getExecutionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should complete a task with the token of its current claim")
+    void shouldCompleteWithCurrentToken() {
+        // Given
+        claim(2L, FUTURE);
+
+        // When
+        boolean success = persistence.markTaskSuccess(taskId, FUTURE, 2L);
+
+        // Then
+        assertThat(success).isTrue();
+        EventTaskEntity task = repository.findById(taskId).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
+        assertThat(task.getLeaseToken()).isNull();
+        assertThat(task.getOwnerInstance()).isNull();
+        assertThat(task.getExecutionCount()).isEqualTo(1);
+    }
+
+    private void claim(long leaseToken, Instant now) {
+        assertThat(persistence.claimTasksForProcessing(now, 10, "node-1", leaseToken, now.plusSeconds(5)))
+                .extracting(ClaimedTask::taskId)
+                .containsExactly(taskId);
+    }
+}
@@ -1,7 +1,11 @@
 package com.sporty.eventstream.service;
 
+import com.sporty.eventstream.model.entity.EventScoreOutboxEntity;
 import com.sporty.eventstream.model.entity.EventTaskEntity;
 import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.model.event.TaskActivatedEvent;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.repository.EventScoreOutboxRepository;
 import com.sporty.eventstream.repository.EventTaskRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,20 +13,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +42,21 @@ class EventTaskPersistenceServiceTest {
     @Mock
     private EventTaskRepository repository;
 
+    @Mock
+    private EventScoreOutboxRepository outboxRepository;
+
+    @Mock
+    private TaskLoadSmoother loadSmoother;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TaskRetryPolicy retryPolicy = new TaskRetryPolicy(10, 600, 0.2, 3, 50);
+
+    @Spy
+    private Clock clock = Clock.systemUTC();
+
     @InjectMocks
     private EventTaskPersistenceService persistenceService;
 
@@ -39,8 +65,9 @@ class EventTaskPersistenceServiceTest {
     void shouldCreateNewTaskWhenEventDoesNotExist() {
         // Given
         String eventId = "event-123";
-        when(repository.findByEventId(eventId)).thenReturn(Optional.empty());
-        when(repository.save(any(EventTaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.activateByEventIds(eq(List.of(eventId)), any(Instant.class), any(Instant.class)))
+                .thenReturn(0);
+        when(repository.existsByEventId(eventId)).thenReturn(false);
 
         // When
         persistenceService.updateEventStatus(eventId, true);
@@ -48,7 +75,7 @@ class EventTaskPersistenceServiceTest {
         // Then
         ArgumentCaptor<EventTaskEntity> taskCaptor = ArgumentCaptor.forClass(EventTaskEntity.class);
         verify(repository).save(taskCaptor.capture());
-        
+
         EventTaskEntity savedTask = taskCaptor.getValue();
         assertThat(savedTask.getEventId()).isEqualTo(eventId);
         assertThat(savedTask.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
@@ -58,72 +85,99 @@ class EventTaskPersistenceServiceTest {
     }
 
     @Test
-    @DisplayName("Should update existing task to ACTIVE when live is true")
+    @DisplayName("Should update existing task to ACTIVE with one statement when live is true")
     void shouldUpdateExistingTaskToActive() {
         // Given
         String eventId = "event-123";
-        EventTaskEntity existingTask = createTask(1L, eventId, EventTaskStatus.INACTIVE);
-        when(repository.findByEventId(eventId)).thenReturn(Optional.of(existingTask));
-        when(repository.save(any(EventTaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.activateByEventIds(eq(List.of(eventId)), any(Instant.class), any(Instant.class)))
+                .thenReturn(1);
 
         // When
         persistenceService.updateEventStatus(eventId, true);
 
         // Then
-        ArgumentCaptor<EventTaskEntity> taskCaptor = ArgumentCaptor.forClass(EventTaskEntity.class);
-        verify(repository).save(taskCaptor.capture());
-        
-        EventTaskEntity savedTask = taskCaptor.getValue();
-        assertThat(savedTask.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
-        assertThat(savedTask.getNextExecutionTime()).isNotNull();
+        verify(repository, never()).save(any());
+        verify(repository, never()).findByEventId(any());
+        verify(eventPublisher).publishEvent(new TaskActivatedEvent(1));
+    }
+
+    @Test
+    @DisplayName("Should keep a quarantined task quarantined when its event is set live again")
+    void shouldNotActivateQuarantinedTask() {
+        // Given - the activation skips quarantined rows, the task exists
+        String eventId = "event-123";
+        when(repository.activateByEventIds(eq(List.of(eventId)), any(Instant.class), any(Instant.class)))
+                .thenReturn(0);
+        when(repository.existsByEventId(eventId)).thenReturn(true);
+
+        // When
+        persistenceService.updateEventStatus(eventId, true);
+
+        // Then
+        verify(repository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    @DisplayName("Should update existing task to INACTIVE when live is false")
+    @DisplayName("Should update existing task to INACTIVE without next execution when live is false")
     void shouldUpdateExistingTaskToInactive() {
         // Given
         String eventId = "event-123";
-        EventTaskEntity existingTask = createTask(1L, eventId, EventTaskStatus.ACTIVE);
-        when(repository.findByEventId(eventId)).thenReturn(Optional.of(existingTask));
-        when(repository.save(any(EventTaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.updateStatusByEventIds(eq(List.of(eventId)), eq(EventTaskStatus.INACTIVE), isNull(), any(Instant.class)))
+                .thenReturn(1);
 
         // When
         persistenceService.updateEventStatus(eventId, false);
 
         // Then
-        ArgumentCaptor<EventTaskEntity> taskCaptor = ArgumentCaptor.forClass(EventTaskEntity.class);
-        verify(repository).save(taskCaptor.capture());
-        
-        EventTaskEntity savedTask = taskCaptor.getValue();
-        assertThat(savedTask.getStatus()).isEqualTo(EventTaskStatus.INACTIVE);
-        assertThat(savedTask.getNextExecutionTime()).isNull();
+        verify(repository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should apply batch of status changes with bulk updates and insert new events")
+    @SuppressWarnings("unchecked")
+    void shouldApplyBatchOfStatusChanges() {
+        // Given
+        Map<String, Boolean> statuses = new LinkedHashMap<>();
+        statuses.put("event-1", true);
+        statuses.put("event-2", false);
+        statuses.put("event-3", true);
+        when(repository.findExistingEventIds(anyCollection())).thenReturn(List.of("event-1", "event-2"));
+
+        // When
+        int created = persistenceService.updateEventStatuses(statuses);
+
+        // Then
+        assertThat(created).isEqualTo(1);
+        verify(repository).activateByEventIds(eq(List.of("event-1", "event-3")), any(Instant.class), any(Instant.class));
+        verify(repository).updateStatusByEventIds(eq(List.of("event-2")), eq(EventTaskStatus.INACTIVE), isNull(), any(Instant.class));
+
+        ArgumentCaptor<List<EventTaskEntity>> createdCaptor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(createdCaptor.capture());
+        assertThat(createdCaptor.getValue()).singleElement().satisfies(task -> {
+            assertThat(task.getEventId()).isEqualTo("event-3");
+            assertThat(task.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
+            assertThat(task.getNextExecutionTime()).isNotNull();
+        });
+        verify(eventPublisher).publishEvent(new TaskActivatedEvent(2));
     }
 
     @Test
-    @DisplayName("Should release stuck IN_PROGRESS tasks")
+    @DisplayName("Should release stuck IN_PROGRESS tasks in one update")
     void shouldReleaseStuckInProgressTasks() {
         // Given
         Instant now = Instant.now();
         Instant threshold = now.minusSeconds(30);
-        
-        EventTaskEntity task1 = createTask(1L, "event-1", EventTaskStatus.IN_PROGRESS);
-        EventTaskEntity task2 = createTask(2L, "event-2", EventTaskStatus.IN_PROGRESS);
-        List<EventTaskEntity> stuckTasks = Arrays.asList(task1, task2);
-        
-        when(repository.findStuckInProgressTasks(threshold)).thenReturn(stuckTasks);
-        when(repository.save(any(EventTaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.findExpiredInProgressTaskIds(now, threshold)).thenReturn(List.of(1L, 2L));
+        when(repository.releaseInProgressByIds(List.of(1L, 2L), now, now)).thenReturn(2);
 
         // When
         int released = persistenceService.releaseInProgressTasks(now, threshold);
 
         // Then
         assertThat(released).isEqualTo(2);
-        verify(repository, times(2)).save(any(EventTaskEntity.class));
-        
-        assertThat(task1.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
-        assertThat(task2.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
-        assertThat(task1.getNextExecutionTime()).isEqualTo(now);
-        assertThat(task2.getNextExecutionTime()).isEqualTo(now);
+        verify(repository, never()).save(any());
     }
 
     @Test
@@ -132,42 +186,50 @@ class EventTaskPersistenceServiceTest {
         // Given
         Instant now = Instant.now();
         Instant threshold = now.minusSeconds(30);
-        when(repository.findStuckInProgressTasks(threshold)).thenReturn(Collections.emptyList());
+        when(repository.findExpiredInProgressTaskIds(now, threshold)).thenReturn(Collections.emptyList());
 
         // When
         int released = persistenceService.releaseInProgressTasks(now, threshold);
 
         // Then
         assertThat(released).isEqualTo(0);
-        verify(repository, never()).save(any());
+        verify(repository, never()).releaseInProgressByIds(any(), any(), any());
     }
 
     @Test
-    @DisplayName("Should claim tasks and mark them as IN_PROGRESS")
+    @DisplayName("Should claim due tasks with one update carrying owner and lease")
     void shouldClaimTasksAndMarkAsInProgress() {
         // Given
         Instant now = Instant.now();
-        int batchSize = 10;
-        
-        EventTaskEntity task1 = createTask(1L, "event-1", EventTaskStatus.ACTIVE);
-        EventTaskEntity task2 = createTask(2L, "event-2", EventTaskStatus.ACTIVE);
-        List<EventTaskEntity> tasks = Arrays.asList(task1, task2);
-        Page<EventTaskEntity> page = new PageImpl<>(tasks);
-        
-        when(repository.findReadyTasks(eq(EventTaskStatus.ACTIVE), eq(now), any(PageRequest.class)))
-                .thenReturn(page);
-        when(repository.save(any(EventTaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<ClaimedTask> ready = List.of(new ClaimedTask(1L, "event-1"), new ClaimedTask(2L, "event-2"));
+        when(repository.findReadyTasks(EventTaskStatus.ACTIVE, now, PageRequest.of(0, 10))).thenReturn(ready);
+        when(repository.claimTasks(List.of(1L, 2L), "node-1", 42L, now.plusSeconds(5), now)).thenReturn(2);
 
         // When
-        List<Long> taskIds = persistenceService.claimTasksForProcessing(now, batchSize);
+        List<ClaimedTask> tasks = persistenceService.claimTasksForProcessing(now, 10, "node-1", 42L, now.plusSeconds(5));
 
         // Then
-        assertThat(taskIds).containsExactly(1L, 2L);
-        assertThat(task1.getStatus()).isEqualTo(EventTaskStatus.IN_PROGRESS);
-        assertThat(task2.getStatus()).isEqualTo(EventTaskStatus.IN_PROGRESS);
-        assertThat(task1.getLastExecutionTime()).isEqualTo(now);
-        assertThat(task2.getLastExecutionTime()).isEqualTo(now);
-        verify(repository, times(2)).save(any(EventTaskEntity.class));
+        assertThat(tasks).containsExactlyElementsOf(ready);
+        verify(repository, never()).findClaimedTaskIds(any(), any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should return only the tasks claimed under its own token when another instance raced")
+    void shouldReturnOnlyOwnClaimsWhenRaced() {
+        // Given
+        Instant now = Instant.now();
+        List<Long> readyIds = List.of(1L, 2L, 3L);
+        when(repository.findReadyTasks(EventTaskStatus.ACTIVE, now, PageRequest.of(0, 10))).thenReturn(List.of(
+                new ClaimedTask(1L, "event-1"), new ClaimedTask(2L, "event-2"), new ClaimedTask(3L, "event-3")));
+        when(repository.claimTasks(readyIds, "node-1", 42L, now.plusSeconds(5), now)).thenReturn(2);
+        when(repository.findClaimedTaskIds(readyIds, 42L)).thenReturn(List.of(1L, 3L));
+
+        // When
+        List<ClaimedTask> tasks = persistenceService.claimTasksForProcessing(now, 10, "node-1", 42L, now.plusSeconds(5));
+
+        // Then
+        assertThat(tasks).extracting(ClaimedTask::eventId).containsExactly("event-1", "event-3");
     }
 
     @Test
@@ -175,34 +237,28 @@ class EventTaskPersistenceServiceTest {
     void shouldReturnEmptyListWhenNoTasksReady() {
         // Given
         Instant now = Instant.now();
-        int batchSize = 10;
-        Page<EventTaskEntity> emptyPage = new PageImpl<>(Collections.emptyList());
-        
         when(repository.findReadyTasks(eq(EventTaskStatus.ACTIVE), eq(now), any(PageRequest.class)))
-                .thenReturn(emptyPage);
+                .thenReturn(Collections.emptyList());
 
         // When
-        List<Long> taskIds = persistenceService.claimTasksForProcessing(now, batchSize);
+        List<ClaimedTask> tasks = persistenceService.claimTasksForProcessing(now, 10, "node-1", 42L, now.plusSeconds(5));
 
         // Then
-        assertThat(taskIds).isEmpty();
-        verify(repository, never()).save(any());
+        assertThat(tasks).isEmpty();
+        verify(repository, never()).claimTasks(any(), any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("Should get event ID by task ID")
     void shouldGetEventIdByTaskId() {
         // Given
-        Long taskId = 1L;
-        String eventId = "event-123";
-        EventTaskEntity task = createTask(taskId, eventId, EventTaskStatus.ACTIVE);
-        when(repository.findById(taskId)).thenReturn(Optional.of(task));
+        when(repository.findEventIdById(1L)).thenReturn(Optional.of("event-123"));
 
         // When
-        String result = persistenceService.getEventIdByTaskId(taskId);
+        String result = persistenceService.getEventIdByTaskId(1L);
 
         // Then
-        assertThat(result).isEqualTo(eventId);
+        assertThat(result).isEqualTo("event-123");
     }
 
     @Test
@@ -210,7 +266,7 @@ class EventTaskPersistenceServiceTest {
     void shouldThrowExceptionWhenTaskNotFoundById() {
         // Given
         Long taskId = 999L;
-        when(repository.findById(taskId)).thenReturn(Optional.empty());
+        when(repository.findEventIdById(taskId)).thenReturn(Optional.empty());
 
         // When / Then
         assertThatThrownBy(() -> persistenceService.getEventIdByTaskId(taskId))
@@ -219,57 +275,135 @@ class EventTaskPersistenceServiceTest {
     }
 
     @Test
-    @DisplayName("Should mark task as success and schedule next execution")
+    @DisplayName("Should mark task as success with one update clearing the last error")
     void shouldMarkTaskSuccess() {
         // Given
-        Long taskId = 1L;
         Instant executionTime = Instant.now();
-        EventTaskEntity task = createTask(taskId, "event-1", EventTaskStatus.IN_PROGRESS);
-        task.setExecutionCount(5L);
-        task.setLastError("Previous error");
-        
-        when(repository.findById(taskId)).thenReturn(Optional.of(task));
-        when(repository.save(any(EventTaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.completeTask(eq(1L), eq(3L), eq("ACTIVE"), any(Instant.class), eq(0), isNull(), isNull(), any(Instant.class)))
+                .thenReturn(1);
 
         // When
-        persistenceService.markTaskSuccess(taskId, executionTime);
+        boolean success = persistenceService.markTaskSuccess(1L, executionTime, 3L);
 
         // Then
-        ArgumentCaptor<EventTaskEntity> taskCaptor = ArgumentCaptor.forClass(EventTaskEntity.class);
-        verify(repository).save(taskCaptor.capture());
-        
-        EventTaskEntity savedTask = taskCaptor.getValue();
-        assertThat(savedTask.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
-        assertThat(savedTask.getExecutionCount()).isEqualTo(6L);
-        assertThat(savedTask.getLastError()).isNull();
-        assertThat(savedTask.getLastErrorTime()).isNull();
+        assertThat(success).isTrue();
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
     }
 
     @Test
-    @DisplayName("Should mark task as error and schedule retry")
+    @DisplayName("Should mark task as success and store score message in outbox")
+    void shouldMarkTaskSuccessWithOutbox() {
+        // Given
+        Instant executionTime = Instant.now();
+        EventScoreMessage message = new EventScoreMessage("event-1", "2:1", executionTime);
+        when(repository.completeTask(eq(1L), eq(3L), eq("ACTIVE"), any(Instant.class), eq(0), isNull(), isNull(), any(Instant.class)))
+                .thenReturn(1);
+
+        // When
+        boolean success = persistenceService.markTaskSuccessWithOutbox(1L, executionTime, 3L, message);
+
+        // Then
+        assertThat(success).isTrue();
+        ArgumentCaptor<EventScoreOutboxEntity> outboxCaptor = ArgumentCaptor.forClass(EventScoreOutboxEntity.class);
+        verify(outboxRepository).save(outboxCaptor.capture());
+
+        EventScoreOutboxEntity entry = outboxCaptor.getValue();
+        assertThat(entry.getEventId()).isEqualTo("event-1");
+        assertThat(entry.getScore()).isEqualTo("2:1");
+        assertThat(entry.getScoreTimestamp()).isEqualTo(executionTime);
+        assertThat(entry.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the regular interval on the first error")
     void shouldMarkTaskError() {
         // Given
-        Long taskId = 1L;
+        ReflectionTestUtils.setField(persistenceService, "executionIntervalSeconds", 10);
         Instant executionTime = Instant.now();
-        String errorMessage = "API Error";
-        EventTaskEntity task = createTask(taskId, "event-1", EventTaskStatus.IN_PROGRESS);
-        task.setExecutionCount(5L);
-        
-        when(repository.findById(taskId)).thenReturn(Optional.of(task));
-        when(repository.save(any(EventTaskEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.findConsecutiveErrorsById(1L)).thenReturn(Optional.of(0));
+        when(repository.completeTask(eq(1L), eq(3L), eq("ACTIVE"), eq(executionTime.plusSeconds(10)), eq(1),
+                eq("API Error"), eq(executionTime), any(Instant.class)))
+                .thenReturn(1);
 
         // When
-        persistenceService.markTaskError(taskId, executionTime, errorMessage);
+        boolean error = persistenceService.markTaskError(1L, executionTime, 3L, "API Error", false);
 
         // Then
-        ArgumentCaptor<EventTaskEntity> taskCaptor = ArgumentCaptor.forClass(EventTaskEntity.class);
-        verify(repository).save(taskCaptor.capture());
-        
-        EventTaskEntity savedTask = taskCaptor.getValue();
-        assertThat(savedTask.getStatus()).isEqualTo(EventTaskStatus.ACTIVE);
-        assertThat(savedTask.getExecutionCount()).isEqualTo(6L);
-        assertThat(savedTask.getLastError()).isEqualTo(errorMessage);
-        assertThat(savedTask.getLastErrorTime()).isEqualTo(executionTime);
+        assertThat(error).isTrue();
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially with jitter on consecutive errors")
+    void shouldBackOffOnConsecutiveErrors() {
+        // Given - fourth error in a row: 10s * 2^3 = 80s, up to 20% taken off
+        Instant executionTime = Instant.now();
+        when(repository.findConsecutiveErrorsById(1L)).thenReturn(Optional.of(3));
+        when(repository.completeTask(eq(1L), eq(5L), eq("ACTIVE"), any(Instant.class), eq(4),
+                eq("timeout"), eq(executionTime), any(Instant.class)))
+                .thenReturn(1);
+
+        // When
+        boolean error = persistenceService.markTaskError(1L, executionTime, 5L, "timeout", false);
+
+        // Then
+        assertThat(error).isTrue();
+        ArgumentCaptor<Instant> nextCaptor = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).completeTask(eq(1L), eq(5L), eq("ACTIVE"), nextCaptor.capture(), eq(4),
+                eq("timeout"), eq(executionTime), any(Instant.class));
+        assertThat(nextCaptor.getValue()).isBetween(executionTime.plusSeconds(64), executionTime.plusSeconds(80));
+    }
+
+    @Test
+    @DisplayName("Should quarantine a task after repeated permanent errors")
+    void shouldQuarantineAfterPermanentErrors() {
+        // Given - third 4xx in a row
+        Instant executionTime = Instant.now();
+        when(repository.findConsecutiveErrorsById(1L)).thenReturn(Optional.of(2));
+        when(repository.completeTask(eq(1L), eq(5L), eq("QUARANTINED"), isNull(), eq(3),
+                eq("404 Not Found"), eq(executionTime), any(Instant.class)))
+                .thenReturn(1);
+
+        // When
+        boolean error = persistenceService.markTaskError(1L, executionTime, 5L, "404 Not Found", true);
+
+        // Then
+        assertThat(error).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep retrying transient errors below their threshold")
+    void shouldNotQuarantineTransientErrorsEarly() {
+        // Given - third transient error in a row
+        Instant executionTime = Instant.now();
+        when(repository.findConsecutiveErrorsById(1L)).thenReturn(Optional.of(2));
+        when(repository.completeTask(eq(1L), eq(5L), eq("ACTIVE"), any(Instant.class), eq(3),
+                eq("503"), eq(executionTime), any(Instant.class)))
+                .thenReturn(1);
+
+        // When
+        boolean error = persistenceService.markTaskError(1L, executionTime, 5L, "503", false);
+
+        // Then
+        assertThat(error).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should release a quarantined task and wake the scheduler")
+    void shouldReleaseFromQuarantine() {
+        // Given
+        when(repository.releaseQuarantined(eq("event-1"), any(Instant.class), any(Instant.class))).thenReturn(1);
+        when(repository.releaseQuarantined(eq("event-2"), any(Instant.class), any(Instant.class))).thenReturn(0);
+
+        // When
+        boolean released = persistenceService.releaseFromQuarantine("event-1");
+        boolean notQuarantined = persistenceService.releaseFromQuarantine("event-2");
+
+        // Then
+        assertThat(released).isTrue();
+        assertThat(notQuarantined).isFalse();
+        verify(eventPublisher, times(1)).publishEvent(new TaskActivatedEvent(1));
     }
 
     @Test
@@ -277,10 +411,11 @@ class EventTaskPersistenceServiceTest {
     void shouldThrowExceptionWhenMarkingSuccessForNonExistentTask() {
         // Given
         Long taskId = 999L;
-        when(repository.findById(taskId)).thenReturn(Optional.empty());
+        when(repository.completeTask(eq(taskId), anyLong(), any(), any(), anyInt(), any(), any(), any())).thenReturn(0);
+        when(repository.existsById(taskId)).thenReturn(false);
 
         // When / Then
-        assertThatThrownBy(() -> persistenceService.markTaskSuccess(taskId, Instant.now()))
+        assertThatThrownBy(() -> persistenceService.markTaskSuccess(taskId, Instant.now(), 3L))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Task not found: 999");
     }
@@ -290,22 +425,81 @@ class EventTaskPersistenceServiceTest {
     void shouldThrowExceptionWhenMarkingErrorForNonExistentTask() {
         // Given
         Long taskId = 999L;
-        when(repository.findById(taskId)).thenReturn(Optional.empty());
+        when(repository.findConsecutiveErrorsById(taskId)).thenReturn(Optional.empty());
 
         // When / Then
-        assertThatThrownBy(() -> persistenceService.markTaskError(taskId, Instant.now(), "error"))
+        assertThatThrownBy(() -> persistenceService.markTaskError(taskId, Instant.now(), 3L, "error", false))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Task not found: 999");
     }
 
-    private EventTaskEntity createTask(Long id, String eventId, EventTaskStatus status) {
-        EventTaskEntity task = new EventTaskEntity();
-        task.setId(id);
-        task.setEventId(eventId);
-        task.setStatus(status);
-        task.setCreatedAt(Instant.now());
-        task.setExecutionCount(0L);
-        return task;
+    @Test
+    @DisplayName("Should discard completion when the lease token no longer matches")
+    void shouldDiscardStaleCompletion() {
+        // Given - the fenced update matches no row, but the task exists
+        when(repository.completeTask(eq(1L), eq(6L), any(), any(), anyInt(), any(), any(), any())).thenReturn(0);
+        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.findConsecutiveErrorsById(1L)).thenReturn(Optional.of(0));
+
+        // When
+        boolean success = persistenceService.markTaskSuccess(1L, Instant.now(), 6L);
+        boolean error = persistenceService.markTaskError(1L, Instant.now(), 6L, "late", false);
+        boolean outbox = persistenceService.markTaskSuccessWithOutbox(1L, Instant.now(), 6L,
+                new EventScoreMessage("event-1", "1:0", Instant.now()));
+
+        // Then
+        assertThat(success).isFalse();
+        assertThat(error).isFalse();
+        assertThat(outbox).isFalse();
+        verify(outboxRepository, never()).save(any());
     }
-}
 
+    @Test
+    @DisplayName("Should complete with the lease token in the fenced update")
+    void shouldCompleteWithMatchingLease() {
+        // Given
+        when(repository.completeTask(eq(1L), eq(7L), eq("ACTIVE"), any(Instant.class), eq(0), isNull(), isNull(), any(Instant.class)))
+                .thenReturn(1);
+
+        // When
+        boolean success = persistenceService.markTaskSuccess(1L, Instant.now(), 7L);
+
+        // Then
+        assertThat(success).isTrue();
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Should renew leases with one update per claim token")
+    void shouldRenewLeasesPerToken() {
+        // Given
+        Instant expiresAt = Instant.now().plusSeconds(5);
+        Map<Long, Long> leases = new LinkedHashMap<>();
+        leases.put(1L, 7L);
+        leases.put(2L, 7L);
+        leases.put(3L, 8L);
+        when(repository.renewLeases(List.of(1L, 2L), 7L, expiresAt)).thenReturn(2);
+        when(repository.renewLeases(List.of(3L), 8L, expiresAt)).thenReturn(0);
+
+        // When
+        int renewed = persistenceService.renewLeases(leases, expiresAt);
+
+        // Then
+        assertThat(renewed).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should release tasks owned by an instance in one bulk update")
+    void shouldReleaseOwnedTasksInBulk() {
+        // Given
+        Instant now = Instant.now();
+        when(repository.releaseInProgressByOwner("node-1", now, now)).thenReturn(7);
+
+        // When
+        int released = persistenceService.releaseTasksOwnedBy("node-1", now);
+
+        // Then
+        assertThat(released).isEqualTo(7);
+        verify(repository, never()).save(any());
+    }
+}
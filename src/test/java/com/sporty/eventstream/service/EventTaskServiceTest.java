@@ -0,0 +1,128 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.client.AdaptiveConcurrencyLimiter;
+import com.sporty.eventstream.config.InstanceIdentity;
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventTaskServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Mock
+    private EventTaskPersistenceService persistence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Mock
+    private TaskLeaseRenewer leases;
+
+    private LatestScoreService latestScores;
+
+    private EventTaskService service;
+
+    @BeforeEach
+    void setUp() {
+        latestScores = new LatestScoreService();
+        service = new EventTaskService(persistence, eventPublisher, concurrencyLimiter,
+                new InstanceIdentity("node-1"), leases, latestScores, Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "inProgressTimeoutSeconds", 30);
+    }
+
+    @Test
+    @DisplayName("Should leave room for claimed tasks that have not reached the provider yet")
+    void shouldSubtractClaimedButNotStartedTasks() {
+        // Given - 2 calls in flight, 6 more claimed tasks queued
+        limitTo(10);
+        when(concurrencyLimiter.inFlight()).thenReturn(2);
+        when(leases.heldCount()).thenReturn(8);
+        when(persistence.claimTasksForProcessing(eq(NOW), anyInt(), eq("node-1"), anyLong(), any()))
+                .thenReturn(List.of(new ClaimedTask(1L, "event-1")));
+
+        // When
+        service.processDueTasks();
+
+        // Then
+        verify(persistence).claimTasksForProcessing(eq(NOW), eq(2), eq("node-1"), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should not claim while claimed tasks already fill the provider limit")
+    void shouldNotClaimWhenClaimedTasksFillLimit() {
+        // Given - hedged calls push in-flight past the held leases
+        limitTo(10);
+        when(concurrencyLimiter.inFlight()).thenReturn(11);
+        when(leases.heldCount()).thenReturn(7);
+
+        // When
+        int claimed = service.processDueTasks();
+
+        // Then
+        assertThat(claimed).isZero();
+        verify(persistence, never()).claimTasksForProcessing(any(), anyInt(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should drop the latest score of an event set not live")
+    void shouldForgetScoreOfDeactivatedEvent() {
+        // Given
+        latestScores.update(new EventScoreMessage("event-1", "1:0", NOW));
+        latestScores.update(new EventScoreMessage("event-2", "0:0", NOW));
+
+        // When
+        service.updateEventStatus("event-1", false);
+        service.updateEventStatus("event-2", true);
+
+        // Then
+        assertThat(latestScores.find("event-1")).isEmpty();
+        assertThat(latestScores.find("event-2")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should drop the latest scores of events set not live in a batch")
+    void shouldForgetScoresOfDeactivatedEventsInBatch() {
+        // Given
+        latestScores.update(new EventScoreMessage("event-1", "1:0", NOW));
+        latestScores.update(new EventScoreMessage("event-2", "0:0", NOW));
+        latestScores.update(new EventScoreMessage("event-3", "2:2", NOW));
+
+        // When
+        service.updateEventStatuses(Map.of("event-1", false, "event-2", true, "event-3", false));
+
+        // Then
+        verify(persistence).updateEventStatuses(Map.of("event-1", false, "event-2", true, "event-3", false));
+        assertThat(latestScores.size()).isEqualTo(1);
+        assertThat(latestScores.find("event-2")).isPresent();
+    }
+
+    private void limitTo(int limit) {
+        when(concurrencyLimiter.isEnabled()).thenReturn(true);
+        when(concurrencyLimiter.currentLimit()).thenReturn(limit);
+    }
+}
@@ -0,0 +1,64 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.model.kafka.EventScoreMessage;
+import com.sporty.eventstream.model.response.LatestScoreResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatestScoreServiceTest {
+
+    private final LatestScoreService service = new LatestScoreService();
+
+    @Test
+    @DisplayName("Should store newer score and bump sequence")
+    void shouldStoreNewerScore() {
+        // Given
+        Instant first = Instant.parse("2024-01-01T10:00:00Z");
+        service.update(new EventScoreMessage("event-1", "0:0", first));
+
+        // When
+        Optional<LatestScoreResponse> stored = service.update(new EventScoreMessage("event-1", "1:0", first.plusSeconds(10)));
+
+        // Then
+        assertThat(stored).isPresent();
+        LatestScoreResponse current = service.find("event-1").orElseThrow();
+        assertThat(current.score()).isEqualTo("1:0");
+        assertThat(current.sequence()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should ignore score older than the stored one")
+    void shouldIgnoreOlderScore() {
+        // Given
+        Instant newer = Instant.parse("2024-01-01T10:00:10Z");
+        service.update(new EventScoreMessage("event-1", "1:0", newer));
+
+        // When
+        Optional<LatestScoreResponse> stored = service.update(new EventScoreMessage("event-1", "0:0", newer.minusSeconds(10)));
+
+        // Then
+        assertThat(stored).isEmpty();
+        assertThat(service.find("event-1").orElseThrow().score()).isEqualTo("1:0");
+    }
+
+    @Test
+    @DisplayName("Should return known scores in request order")
+    void shouldReturnKnownScoresInRequestOrder() {
+        // Given
+        Instant now = Instant.now();
+        service.update(new EventScoreMessage("event-1", "1:0", now));
+        service.update(new EventScoreMessage("event-2", "2:2", now));
+
+        // When
+        List<LatestScoreResponse> scores = service.findAll(List.of("event-2", "missing", "event-1"));
+
+        // Then
+        assertThat(scores).extracting(LatestScoreResponse::eventId).containsExactly("event-2", "event-1");
+    }
+}
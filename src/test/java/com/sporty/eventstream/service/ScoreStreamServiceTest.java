@@ -0,0 +1,283 @@
+package com.sporty.eventstream.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sporty.eventstream.exception.SubscriberLimitExceededException;
+import com.sporty.eventstream.model.response.LatestScoreResponse;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoreStreamServiceTest {
+
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+    private ScoreStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        service = new ScoreStreamService(objectMapper, pendingDrains::add);
+        ReflectionTestUtils.setField(service, "maxSubscribers", 2);
+        ReflectionTestUtils.setField(service, "subscriberBufferSize", 2);
+        ReflectionTestUtils.setField(service, "streamTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(service, "writeTimeoutMs", 50L);
+    }
+
+    @Test
+    @DisplayName("Should conflate updates of the same event for a slow subscriber")
+    void shouldConflateUpdatesOfSameEvent() {
+        // Given
+        Client client = subscribe(Set.of());
+
+        // When
+        service.broadcast(score("event-1", "0:0", 1));
+        service.broadcast(score("event-1", "1:0", 2));
+        service.broadcast(score("event-1", "2:0", 3));
+        runDrains();
+
+        // Then
+        assertThat(service.droppedFrameCount()).isZero();
+        assertThat(client.output.text()).contains("\"score\":\"2:0\"").doesNotContain("\"score\":\"0:0\"");
+    }
+
+    @Test
+    @DisplayName("Should drop frames of new events when subscriber buffer is full")
+    void shouldDropFramesWhenBufferFull() {
+        // Given
+        subscribe(null);
+
+        // When
+        service.broadcast(score("event-1", "0:0", 1));
+        service.broadcast(score("event-2", "0:0", 2));
+        service.broadcast(score("event-3", "0:0", 3));
+
+        // Then
+        assertThat(service.droppedFrameCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should only enqueue frames matching subscriber filter")
+    void shouldApplySubscriberFilter() {
+        // Given
+        subscribe(Set.of("event-2"));
+
+        // When
+        service.broadcast(score("event-1", "0:0", 1));
+
+        // Then
+        assertThat(pendingDrains).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should start an event stream response")
+    void shouldStartEventStream() {
+        // When
+        Client client = subscribe(null);
+
+        // Then
+        assertThat(client.request.isAsyncStarted()).isTrue();
+        assertThat(client.response.getContentType()).isEqualTo(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(client.response.getHeader("Cache-Control")).isEqualTo("no-cache");
+        assertThat(client.response.getHeader("X-Accel-Buffering")).isEqualTo("no");
+    }
+
+    @Test
+    @DisplayName("Should reject subscribers above the limit")
+    void shouldRejectSubscribersAboveLimit() {
+        // Given
+        subscribe(null);
+        subscribe(null);
+
+        // When / Then
+        assertThatThrownBy(() -> subscribe(null))
+                .isInstanceOf(SubscriberLimitExceededException.class);
+        assertThat(service.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should admit exactly the subscriber limit under concurrent subscribes")
+    void shouldReserveCapacityAtomically() throws Exception {
+        // Given
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            attempts.add(callers.submit(() -> {
+                start.await();
+                try {
+                    subscribe(null);
+                    return true;
+                } catch (SubscriberLimitExceededException e) {
+                    return false;
+                }
+            }));
+        }
+
+        // When
+        start.countDown();
+        int admitted = 0;
+        for (Future<Boolean> attempt : attempts) {
+            admitted += attempt.get(5, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        callers.shutdown();
+
+        // Then
+        assertThat(admitted).isEqualTo(2);
+        assertThat(service.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should leave frames pending without a dispatch while the output is not ready")
+    void shouldWaitForWritePossible() throws IOException {
+        // Given - the client stopped reading
+        Client client = subscribe(null);
+        client.output.ready = false;
+        service.broadcast(score("event-1", "0:0", 1));
+        runDrains();
+
+        // When
+        service.broadcast(score("event-1", "1:0", 2));
+        service.heartbeat();
+
+        // Then - nothing is dispatched until the container reports the output writable
+        assertThat(pendingDrains).isEmpty();
+        assertThat(client.output.text()).isEmpty();
+
+        client.output.ready = true;
+        client.output.listener.onWritePossible();
+        runDrains();
+        assertThat(client.output.text()).contains("\"score\":\"1:0\"").doesNotContain("\"score\":\"0:0\"");
+    }
+
+    @Test
+    @DisplayName("Should evict a subscriber whose output stays blocked and complete its response")
+    void shouldEvictStalledSubscriber() throws Exception {
+        // Given - the client stops reading; the drain returns instead of blocking
+        Client client = subscribe(null);
+        client.output.ready = false;
+        service.broadcast(score("event-1", "0:0", 1));
+        runDrains();
+        Thread.sleep(100);
+
+        // When
+        service.evictStalledSubscribers();
+        service.broadcast(score("event-1", "1:0", 2));
+
+        // Then - the slot is free, the response is completed and nothing more is queued for the client
+        assertThat(service.subscriberCount()).isZero();
+        assertThat(service.evictedSubscriberCount()).isEqualTo(1);
+        assertThat(client.request.isAsyncStarted()).isFalse();
+        assertThat(pendingDrains).isEmpty();
+        subscribe(null);
+        assertThat(service.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remove a subscriber whose write fails")
+    void shouldRemoveDisconnectedSubscriber() {
+        // Given
+        Client client = subscribe(null);
+        client.output.failWrites = true;
+
+        // When
+        service.broadcast(score("event-1", "0:0", 1));
+        runDrains();
+
+        // Then
+        assertThat(service.subscriberCount()).isZero();
+        assertThat(service.evictedSubscriberCount()).isZero();
+        assertThat(client.request.isAsyncStarted()).isFalse();
+    }
+
+    private Client subscribe(Set<String> eventIds) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/scores/stream");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        TestOutput output = new TestOutput();
+        try {
+            service.subscribe(eventIds, request, new HttpServletResponseWrapper(response) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return output;
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Client(request, response, output);
+    }
+
+    private void runDrains() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.remove(0).run();
+        }
+    }
+
+    private LatestScoreResponse score(String eventId, String score, long sequence) {
+        return new LatestScoreResponse(eventId, score, Instant.now(), sequence);
+    }
+
+    private record Client(MockHttpServletRequest request, MockHttpServletResponse response, TestOutput output) {
+    }
+
+    /**
+     * Non-blocking output whose readiness the test controls, like a container's socket buffer.
+     */
+    private static final class TestOutput extends ServletOutputStream {
+
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private volatile boolean ready = true;
+        private volatile boolean failWrites;
+        private WriteListener listener;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (failWrites) {
+                throw new IOException("Broken pipe");
+            }
+            written.write(b, off, len);
+        }
+
+        String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.sporty.eventstream.service;
+
+import com.sporty.eventstream.model.entity.EventTaskArchiveEntity;
+import com.sporty.eventstream.model.entity.EventTaskEntity;
+import com.sporty.eventstream.model.entity.EventTaskStatus;
+import com.sporty.eventstream.repository.EventTaskArchiveRepository;
+import com.sporty.eventstream.repository.EventTaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiveServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+    private static final Instant CUTOFF = NOW.minusSeconds(7 * 24 * 3600);
+
+    @Mock
+    private EventTaskRepository repository;
+
+    @Mock
+    private EventTaskArchiveRepository archiveRepository;
+
+    @InjectMocks
+    private TaskArchiveService archiveService;
+
+    @Test
+    @DisplayName("Should copy a chunk of INACTIVE tasks to the archive and delete them by id")
+    @SuppressWarnings("unchecked")
+    void shouldArchiveChunk() {
+        // Given
+        EventTaskEntity first = inactiveTask(1L, "event-1", "Connection timeout");
+        EventTaskEntity second = inactiveTask(2L, "event-2", null);
+        when(repository.findArchivableTasks(CUTOFF, PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+
+        // When
+        int archived = archiveService.archiveChunk(CUTOFF, 2, NOW);
+
+        // Then
+        assertThat(archived).isEqualTo(2);
+        ArgumentCaptor<List<EventTaskArchiveEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(archiveRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(EventTaskArchiveEntity::getId).containsExactly(1L, 2L);
+        assertThat(captor.getValue().get(0)).satisfies(row -> {
+            assertThat(row.getEventId()).isEqualTo("event-1");
+            assertThat(row.getExecutionCount()).isEqualTo(42L);
+            assertThat(row.getLastError()).isEqualTo("Connection timeout");
+            assertThat(row.getDeactivatedAt()).isEqualTo(CUTOFF.minusSeconds(60));
+            assertThat(row.getArchivedAt()).isEqualTo(NOW);
+            assertThat(row.isNew()).isTrue();
+        });
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no task is past retention")
+    void shouldSkipWhenNothingToArchive() {
+        // Given
+        when(repository.findArchivableTasks(any(Instant.class), any())).thenReturn(List.of());
+
+        // When
+        int archived = archiveService.archiveChunk(CUTOFF, 500, NOW);
+
+        // Then
+        assertThat(archived).isZero();
+        verifyNoInteractions(archiveRepository);
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static EventTaskEntity inactiveTask(Long id, String eventId, String lastError) {
+        EventTaskEntity task = new EventTaskEntity();
+        task.setId(id);
+        task.setEventId(eventId);
+        task.setStatus(EventTaskStatus.INACTIVE);
+        task.setExecutionCount(42L);
+        task.setLastError(lastError);
+        task.setCreatedAt(CUTOFF.minusSeconds(3600));
+        task.setUpdatedAt(CUTOFF.minusSeconds(60));
+        return task;
+    }
+}
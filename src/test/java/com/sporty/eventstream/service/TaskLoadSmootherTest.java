@@ -0,0 +1,106 @@
+package com.sporty.eventstream.service;
+
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskLoadSmootherTest {
+
+    private static final int INTERVAL_SECONDS = 10;
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Test
+    @DisplayName("Should flatten request rate of events that went live at the same time")
+    void shouldFlattenRequestRateAfterKickoff() {
+        // Given
+        int events = 2000;
+        int simulatedSeconds = 120;
+
+        // When
+        long[] fixedRate = simulateRequestsPerSecond(new TaskLoadSmoother(false, INTERVAL_SECONDS, 100, 50), events, simulatedSeconds);
+        long[] smoothedRate = simulateRequestsPerSecond(new TaskLoadSmoother(true, INTERVAL_SECONDS, 100, 50), events, simulatedSeconds);
+
+        double fixedVariance = variance(fixedRate, 0);
+        double smoothedVariance = variance(smoothedRate, 0);
+        double smoothedSteadyVariance = variance(smoothedRate, 2 * INTERVAL_SECONDS);
+
+        // Then - same total work, kickoff burst capped by slot capacity, flat afterwards
+        assertThat(Arrays.stream(smoothedRate).sum()).isCloseTo(Arrays.stream(fixedRate).sum(), Percentage.withPercentage(5));
+        assertThat(Arrays.stream(fixedRate).max().orElse(0)).isEqualTo(events);
+        assertThat(Arrays.stream(smoothedRate).max().orElse(0)).isLessThanOrEqualTo(500); // 50 per 100ms slot
+        assertThat(smoothedVariance).isLessThan(fixedVariance / 20);
+        assertThat(smoothedSteadyVariance).isLessThan(fixedVariance / 1000);
+    }
+
+    @Test
+    @DisplayName("Should keep each event on the same phase across intervals")
+    void shouldKeepEventOnItsPhase() {
+        // Given
+        TaskLoadSmoother smoother = new TaskLoadSmoother(true, INTERVAL_SECONDS, 100, 1000);
+        long phase = smoother.phaseMs("event-42");
+
+        // When
+        Instant first = smoother.nextExecutionTime("event-42", START.plusMillis(1234));
+        Instant second = smoother.nextExecutionTime("event-42", first.plusMillis(57));
+
+        // Then
+        assertThat(Math.floorMod(first.toEpochMilli(), INTERVAL_SECONDS * 1000L)).isEqualTo(phase);
+        assertThat(Math.floorMod(second.toEpochMilli(), INTERVAL_SECONDS * 1000L)).isEqualTo(phase);
+        assertThat(Duration.between(first, second)).isEqualTo(Duration.ofSeconds(INTERVAL_SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should move activations to later slots when slot capacity is reached")
+    void shouldRespectSlotCapacity() {
+        // Given
+        TaskLoadSmoother smoother = new TaskLoadSmoother(true, INTERVAL_SECONDS, 100, 2);
+
+        // When
+        List<Instant> times = IntStream.range(0, 5).mapToObj(i -> smoother.firstExecutionTime(START)).toList();
+
+        // Then
+        assertThat(times).containsExactly(
+                START, START, START.plusMillis(100), START.plusMillis(100), START.plusMillis(200));
+    }
+
+    /**
+     * Executes every task exactly at its scheduled time and counts executions per second.
+     */
+    private long[] simulateRequestsPerSecond(TaskLoadSmoother smoother, int events, int seconds) {
+        record Scheduled(Instant time, String eventId) {
+        }
+
+        PriorityQueue<Scheduled> queue = new PriorityQueue<>((a, b) -> a.time().compareTo(b.time()));
+        for (int i = 0; i < events; i++) {
+            Instant first = smoother.isEnabled() ? smoother.firstExecutionTime(START) : START;
+            queue.add(new Scheduled(first, "event-" + i));
+        }
+
+        long[] perSecond = new long[seconds];
+        Instant end = START.plusSeconds(seconds);
+        while (!queue.isEmpty() && queue.peek().time().isBefore(end)) {
+            Scheduled next = queue.poll();
+            perSecond[(int) Duration.between(START, next.time()).toSeconds()]++;
+
+            Instant nextTime = smoother.isEnabled()
+                    ? smoother.nextExecutionTime(next.eventId(), next.time())
+                    : next.time().plusSeconds(INTERVAL_SECONDS);
+            queue.add(new Scheduled(nextTime, next.eventId()));
+        }
+        return perSecond;
+    }
+
+    private double variance(long[] values, int fromSecond) {
+        double mean = Arrays.stream(values, fromSecond, values.length).average().orElse(0);
+        return Arrays.stream(values, fromSecond, values.length).mapToDouble(v -> (v - mean) * (v - mean)).average().orElse(0);
+    }
+}
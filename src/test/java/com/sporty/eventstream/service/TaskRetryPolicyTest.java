@@ -0,0 +1,51 @@
+package com.sporty.eventstream.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskRetryPolicyTest {
+
+    private final TaskRetryPolicy policy = new TaskRetryPolicy(10, 600, 0.2, 3, 50);
+
+    @Test
+    @DisplayName("Should double the delay per consecutive error up to the maximum")
+    void shouldDoubleDelayUpToMaximum() {
+        // When / Then - no jitter drawn
+        assertThat(policy.delayMs(1, 0)).isEqualTo(10_000);
+        assertThat(policy.delayMs(2, 0)).isEqualTo(20_000);
+        assertThat(policy.delayMs(4, 0)).isEqualTo(80_000);
+        assertThat(policy.delayMs(7, 0)).isEqualTo(600_000);
+        assertThat(policy.delayMs(1_000, 0)).isEqualTo(600_000);
+    }
+
+    @Test
+    @DisplayName("Should take at most the jitter share off the delay")
+    void shouldApplyJitterBelowDelay() {
+        // When / Then
+        assertThat(policy.delayMs(2, 1)).isEqualTo(16_000);
+        assertThat(policy.delayMs(2, 0.5)).isEqualTo(18_000);
+    }
+
+    @Test
+    @DisplayName("Should quarantine permanent errors sooner than transient ones")
+    void shouldUseSeparateThresholds() {
+        // When / Then
+        assertThat(policy.shouldQuarantine(2, true)).isFalse();
+        assertThat(policy.shouldQuarantine(3, true)).isTrue();
+        assertThat(policy.shouldQuarantine(3, false)).isFalse();
+        assertThat(policy.shouldQuarantine(50, false)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should never quarantine when the threshold is 0")
+    void shouldNotQuarantineWhenDisabled() {
+        // Given
+        TaskRetryPolicy noQuarantine = new TaskRetryPolicy(10, 600, 0.2, 0, 0);
+
+        // When / Then
+        assertThat(noQuarantine.shouldQuarantine(10_000, true)).isFalse();
+        assertThat(noQuarantine.shouldQuarantine(10_000, false)).isFalse();
+    }
+}
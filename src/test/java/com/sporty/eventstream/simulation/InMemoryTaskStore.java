@@ -0,0 +1,242 @@
+package com.sporty.eventstream.simulation;
+
+import com.sporty.eventstream.service.ClaimedTask;
+import com.sporty.eventstream.service.EventTaskPersistenceService;
+import com.sporty.eventstream.service.TaskLoadSmoother;
+import com.sporty.eventstream.service.TaskRetryPolicy;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * {@link EventTaskPersistenceService} on in-memory structures instead of the database.
+ * <p>
+ * Overrides exactly what the scheduler, the task service and the lease renewer call, with the same
+ * semantics: claims take the earliest due ACTIVE tasks, completions are fenced by the lease token, the next
+ * execution comes from the real {@link TaskLoadSmoother} and {@link TaskRetryPolicy}. Single-threaded, like
+ * the timeline that drives it. Records how late each task was claimed.
+ */
+public class InMemoryTaskStore extends EventTaskPersistenceService {
+
+    private final Clock clock;
+    private final TaskLoadSmoother loadSmoother;
+    private final TaskRetryPolicy retryPolicy;
+    private final long intervalMs;
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final PriorityQueue<Task> active = new PriorityQueue<>(
+            Comparator.comparingLong((Task t) -> t.nextMs).thenComparingLong(t -> t.id));
+    private final Map<Long, Task> inProgress = new HashMap<>();
+
+    private final LatencyHistogram claimLag = new LatencyHistogram();
+    private long successes;
+    private long errors;
+    private long quarantined;
+    private long staleCompletions;
+    private long expiredLeases;
+
+    public InMemoryTaskStore(Clock clock, TaskLoadSmoother loadSmoother, TaskRetryPolicy retryPolicy,
+                             int executionIntervalSeconds) {
+        super(null, null, loadSmoother, null, retryPolicy, clock);
+        this.clock = clock;
+        this.loadSmoother = loadSmoother;
+        this.retryPolicy = retryPolicy;
+        this.intervalMs = executionIntervalSeconds * 1000L;
+    }
+
+    /**
+     * Sets a new event live: due at once, or in the first free slot when load smoothing is on.
+     */
+    public void activate(String eventId) {
+        Task task = new Task(tasks.size() + 1L, eventId);
+        task.nextMs = firstExecutionTime(clock.instant()).toEpochMilli();
+        tasks.add(task);
+        active.add(task);
+    }
+
+    @Override
+    public int releaseInProgressTasks(Instant now, Instant stuckThreshold) {
+        long nowMs = now.toEpochMilli();
+        int released = 0;
+        Iterator<Task> it = inProgress.values().iterator();
+        while (it.hasNext()) {
+            Task task = it.next();
+            if (task.leaseExpiresMs < nowMs) {
+                it.remove();
+                task.leaseToken = null;
+                task.nextMs = firstExecutionTime(now).toEpochMilli();
+                active.add(task);
+                released++;
+            }
+        }
+        expiredLeases += released;
+        return released;
+    }
+
+    @Override
+    public int releaseTasksOwnedBy(String owner, Instant now) {
+        int released = inProgress.size();
+        for (Task task : inProgress.values()) {
+            task.leaseToken = null;
+            task.nextMs = firstExecutionTime(now).toEpochMilli();
+            active.add(task);
+        }
+        inProgress.clear();
+        return released;
+    }
+
+    @Override
+    public List<ClaimedTask> claimTasksForProcessing(Instant now, int batchSize, String owner,
+                                                     long leaseToken, Instant leaseExpiresAt) {
+        long nowMs = now.toEpochMilli();
+        List<ClaimedTask> claimed = new ArrayList<>(Math.min(batchSize, active.size()));
+        while (claimed.size() < batchSize && !active.isEmpty() && active.peek().nextMs <= nowMs) {
+            Task task = active.poll();
+            claimLag.record(nowMs - task.nextMs);
+            task.leaseToken = leaseToken;
+            task.leaseExpiresMs = leaseExpiresAt.toEpochMilli();
+            inProgress.put(task.id, task);
+            claimed.add(new ClaimedTask(task.id, task.eventId));
+        }
+        return claimed;
+    }
+
+    @Override
+    public Instant findEarliestNextExecutionTime() {
+        return active.isEmpty() ? null : Instant.ofEpochMilli(active.peek().nextMs);
+    }
+
+    @Override
+    public long countScheduledTasks() {
+        return active.size() + inProgress.size();
+    }
+
+    @Override
+    public String getEventIdByTaskId(Long taskId) {
+        return tasks.get((int) (taskId - 1)).eventId;
+    }
+
+    @Override
+    public boolean markTaskSuccess(Long taskId, Instant executionTime, long leaseToken) {
+        Task task = fenced(taskId, leaseToken);
+        if (task == null) {
+            return false;
+        }
+        task.consecutiveErrors = 0;
+        reschedule(task, nextExecutionTime(task, executionTime));
+        successes++;
+        return true;
+    }
+
+    @Override
+    public boolean markTaskError(Long taskId, Instant executionTime, long leaseToken, String errorMessage,
+                                 boolean permanent) {
+        Task task = fenced(taskId, leaseToken);
+        if (task == null) {
+            return false;
+        }
+        errors++;
+        task.consecutiveErrors++;
+        if (retryPolicy.shouldQuarantine(task.consecutiveErrors, permanent)) {
+            inProgress.remove(taskId);
+            quarantined++;
+            return true;
+        }
+        reschedule(task, retryPolicy.isFirstError(task.consecutiveErrors)
+                ? nextExecutionTime(task, executionTime)
+                : retryPolicy.nextAttempt(executionTime, task.consecutiveErrors));
+        return true;
+    }
+
+    @Override
+    public int renewLeases(Map<Long, Long> leases, Instant expiresAt) {
+        int renewed = 0;
+        for (Map.Entry<Long, Long> lease : leases.entrySet()) {
+            Task task = inProgress.get(lease.getKey());
+            if (task != null && lease.getValue().equals(task.leaseToken)) {
+                task.leaseExpiresMs = expiresAt.toEpochMilli();
+                renewed++;
+            }
+        }
+        return renewed;
+    }
+
+    public int taskCount() {
+        return tasks.size();
+    }
+
+    public LatencyHistogram claimLag() {
+        return claimLag;
+    }
+
+    public long successes() {
+        return successes;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    public long quarantined() {
+        return quarantined;
+    }
+
+    /**
+     * Completions dropped because the lease had expired and the task was released or claimed again.
+     */
+    public long staleCompletions() {
+        return staleCompletions;
+    }
+
+    public long expiredLeases() {
+        return expiredLeases;
+    }
+
+    private Task fenced(Long taskId, long leaseToken) {
+        Task task = inProgress.get(taskId);
+        if (task == null || !task.leaseToken.equals(leaseToken)) {
+            staleCompletions++;
+            return null;
+        }
+        return task;
+    }
+
+    private void reschedule(Task task, Instant next) {
+        inProgress.remove(task.id);
+        task.leaseToken = null;
+        task.nextMs = next.toEpochMilli();
+        active.add(task);
+    }
+
+    private Instant nextExecutionTime(Task task, Instant executionTime) {
+        return loadSmoother.isEnabled()
+                ? loadSmoother.nextExecutionTime(task.eventId, executionTime)
+                : executionTime.plusMillis(intervalMs);
+    }
+
+    private Instant firstExecutionTime(Instant now) {
+        return loadSmoother.isEnabled() ? loadSmoother.firstExecutionTime(now) : now;
+    }
+
+    private static final class Task {
+
+        private final long id;
+        private final String eventId;
+        private long nextMs;
+        private Long leaseToken;
+        private long leaseExpiresMs;
+        private int consecutiveErrors;
+
+        private Task(long id, String eventId) {
+            this.id = id;
+            this.eventId = eventId;
+        }
+    }
+}
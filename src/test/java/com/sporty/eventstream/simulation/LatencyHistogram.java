@@ -0,0 +1,48 @@
+package com.sporty.eventstream.simulation;
+
+/**
+ * Millisecond histogram with 10ms buckets up to ten minutes; longer values share the last bucket,
+ * the exact maximum is kept separately.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKET_MS = 10;
+    private static final int BUCKETS = 60_000;
+
+    private final long[] counts = new long[BUCKETS + 1];
+    private long total;
+    private long max;
+
+    public void record(long valueMs) {
+        long value = Math.max(0, valueMs);
+        counts[(int) Math.min(BUCKETS, value / BUCKET_MS)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, capped at the maximum; 0 if empty.
+     */
+    public long percentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket <= BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(max, (bucket + 1L) * BUCKET_MS);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sporty.eventstream.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares scheduling policies on the same simulated load.
+ * Run with {@code mvn test -Dtest=SchedulingPolicyBenchmarkTest -Dbenchmarks=true}; size the load with
+ * {@code -Dsimulation.events=...} and {@code -Dsimulation.hours=...}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class SchedulingPolicyBenchmarkTest {
+
+    @Test
+    void comparePolicies() {
+        int events = Integer.getInteger("simulation.events", 10_000);
+        Duration duration = Duration.ofHours(Long.getLong("simulation.hours", 1L));
+        SchedulingSimulation.Config baseline = SchedulingSimulation.Config.defaults(events, duration)
+                .withWorkers(50);
+
+        Map<String, SchedulingSimulation.Config> policies = new LinkedHashMap<>();
+        policies.put("adaptive, batch 100", baseline);
+        policies.put("adaptive, batch 500", baseline.withBatchSize(500));
+        policies.put("adaptive, max interval 1s", baseline.withMaxIntervalMs(1000));
+        policies.put("adaptive + smoothing", baseline.withSmoothing(true));
+        policies.put("lag controller", baseline.withSchedulerMode("lag"));
+        policies.put("lag controller + smoothing", baseline.withSchedulerMode("lag").withSmoothing(true));
+
+        policies.forEach((name, config) ->
+                System.out.printf("%-28s %s%n", name, SchedulingSimulation.run(config).summary()));
+    }
+}
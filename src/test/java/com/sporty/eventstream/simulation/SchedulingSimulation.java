@@ -0,0 +1,171 @@
+package com.sporty.eventstream.simulation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.sporty.eventstream.client.AdaptiveConcurrencyLimiter;
+import com.sporty.eventstream.config.InstanceIdentity;
+import com.sporty.eventstream.scheduler.EventTaskScheduler;
+import com.sporty.eventstream.scheduler.LagController;
+import com.sporty.eventstream.service.EventTaskService;
+import com.sporty.eventstream.service.LatestScoreService;
+import com.sporty.eventstream.service.TaskLeaseRenewer;
+import com.sporty.eventstream.service.TaskLoadSmoother;
+import com.sporty.eventstream.service.TaskRetryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.With;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discrete-event simulation of the scheduling path on virtual time.
+ * <p>
+ * The real {@link EventTaskScheduler} (adaptive or lag mode), {@link EventTaskService}, {@link LagController},
+ * {@link TaskLeaseRenewer}, {@link TaskLoadSmoother} and {@link TaskRetryPolicy} run unchanged against an
+ * {@link InMemoryTaskStore} and a {@link SimulatedExecutor}; only the database, the provider and the thread
+ * pools are replaced. Cost grows with the number of task executions, not with the simulated duration, and a
+ * run is fully determined by its {@link Config}.
+ */
+public final class SchedulingSimulation {
+
+    private static final Instant START = Instant.parse("2030-01-01T00:00:00Z");
+    private static final long LEASE_RENEW_INTERVAL_MS = 1000;
+
+    private SchedulingSimulation() {
+    }
+
+    public static Report run(Config config) {
+        VirtualTimeline timeline = new VirtualTimeline(START);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        int interval = config.executionIntervalSeconds();
+
+        TaskLoadSmoother smoother = new TaskLoadSmoother(config.smoothing(), interval, 100, config.slotCapacity());
+        TaskRetryPolicy retryPolicy = new TaskRetryPolicy(interval, 600, 0.0, 3, 50); // no jitter: reproducible
+        InMemoryTaskStore store = new InMemoryTaskStore(timeline, smoother, retryPolicy, interval);
+        TaskLeaseRenewer leases = new TaskLeaseRenewer(store, timeline, config.leaseDurationMs());
+        SimulatedExecutor executor = new SimulatedExecutor(timeline, store, leases, config.latency(),
+                config.workers(), config.seed());
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(registry, false, 20, 1, 200, 2000,
+                0.2, 1000, 0, 50);
+        EventTaskService service = new EventTaskService(store, executor, limiter,
+                new InstanceIdentity("simulation"), leases, new LatestScoreService(), timeline);
+        ReflectionTestUtils.setField(service, "batchSize", config.batchSize());
+        ReflectionTestUtils.setField(service, "inProgressTimeoutSeconds", 30);
+
+        LagController lagController = new LagController(registry, config.maxLagMs(), 1.0, 1.0, 0.1,
+                config.batchSize(), config.maxBatchSize(), config.minIntervalMs(), config.maxIntervalMs());
+        EventTaskScheduler scheduler = new EventTaskScheduler(service, new VirtualTaskScheduler(timeline),
+                lagController, timeline);
+        ReflectionTestUtils.setField(scheduler, "mode", config.schedulerMode());
+        ReflectionTestUtils.setField(scheduler, "minIntervalMs", config.minIntervalMs());
+        ReflectionTestUtils.setField(scheduler, "maxIntervalMs", config.maxIntervalMs());
+        ReflectionTestUtils.setField(scheduler, "batchSize", config.batchSize());
+        ReflectionTestUtils.setField(scheduler, "executionIntervalSeconds", interval);
+        ReflectionTestUtils.setField(scheduler, "wakeDebounceMs", 20L);
+
+        for (int i = 0; i < config.events(); i++) {
+            store.activate("event-" + i);
+        }
+        timeline.after(LEASE_RENEW_INTERVAL_MS, new Runnable() {
+            @Override
+            public void run() {
+                leases.renewHeldLeases();
+                timeline.after(LEASE_RENEW_INTERVAL_MS, this);
+            }
+        });
+
+        // per-cycle INFO logging would cost more than the simulation itself
+        Logger appLogger = (Logger) LoggerFactory.getLogger("com.sporty.eventstream");
+        Level previousLevel = appLogger.getLevel();
+        appLogger.setLevel(Level.ERROR);
+        long wallStart = System.nanoTime();
+        try {
+            scheduler.start();
+            timeline.runUntil(START.plus(config.duration()));
+            scheduler.stop();
+        } finally {
+            appLogger.setLevel(previousLevel);
+        }
+        long wallTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - wallStart);
+
+        long expected = config.events() * (config.duration().toSeconds() / interval);
+        LatencyHistogram claimLag = store.claimLag();
+        return new Report(config.events(), config.duration(),
+                store.successes() + store.errors(), expected, store.errors(), store.quarantined(),
+                claimLag.percentile(50), claimLag.percentile(99), claimLag.max(),
+                executor.queueWait().percentile(99), executor.maxQueueDepth(),
+                store.expiredLeases(), store.staleCompletions(), wallTimeMs);
+    }
+
+    /**
+     * Inputs of one run; start from {@link #defaults} and change what is compared.
+     */
+    @With
+    public record Config(int events,
+                         Duration duration,
+                         int executionIntervalSeconds,
+                         String schedulerMode,
+                         int batchSize,
+                         int maxBatchSize,
+                         long minIntervalMs,
+                         long maxIntervalMs,
+                         long maxLagMs,
+                         boolean smoothing,
+                         int slotCapacity,
+                         int workers,
+                         SimulatedExecutor.LatencyModel latency,
+                         long leaseDurationMs,
+                         long seed) {
+
+        /**
+         * The application defaults: adaptive scheduler, 10s interval, batch 100, 20 workers,
+         * 50ms median / 500ms p99 provider calls with 1% errors.
+         */
+        public static Config defaults(int events, Duration duration) {
+            return new Config(events, duration, 10, "adaptive", 100, 1000, 100, 5000, 500, false, 50, 20,
+                    new SimulatedExecutor.LatencyModel(50, 500, 0.01), 5000, 42);
+        }
+    }
+
+    /**
+     * @param expectedExecutions executions if every event ran exactly once per interval
+     * @param claimLagP50Ms      how late tasks were claimed relative to their due time
+     * @param queueWaitP99Ms     time from claim to a worker starting the task
+     * @param wallTimeMs         real time the run took; the only field that differs between identical runs
+     */
+    @With
+    public record Report(int events,
+                         Duration duration,
+                         long executions,
+                         long expectedExecutions,
+                         long errors,
+                         long quarantined,
+                         long claimLagP50Ms,
+                         long claimLagP99Ms,
+                         long claimLagMaxMs,
+                         long queueWaitP99Ms,
+                         int maxQueueDepth,
+                         long expiredLeases,
+                         long staleCompletions,
+                         long wallTimeMs) {
+
+        /**
+         * Share of the expected executions that happened, below 1 when the schedule falls behind.
+         */
+        public double coverage() {
+            return expectedExecutions == 0 ? 0 : (double) executions / expectedExecutions;
+        }
+
+        public String summary() {
+            return String.format("%d events x %s: %d executions (%.1f%%), %d errors, claim lag p50/p99/max "
+                            + "%d/%d/%dms, queue wait p99 %dms, max queue %d, %d expired leases, in %dms",
+                    events, duration, executions, coverage() * 100, errors, claimLagP50Ms, claimLagP99Ms,
+                    claimLagMaxMs, queueWaitP99Ms, maxQueueDepth, expiredLeases, wallTimeMs);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sporty.eventstream.simulation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingSimulationTest {
+
+    private static final SchedulingSimulation.Config BASELINE =
+            SchedulingSimulation.Config.defaults(1_000, Duration.ofMinutes(10));
+
+    @Test
+    @DisplayName("Should produce identical results for identical inputs")
+    void shouldBeDeterministic() {
+        // When
+        SchedulingSimulation.Report first = SchedulingSimulation.run(BASELINE);
+        SchedulingSimulation.Report second = SchedulingSimulation.run(BASELINE);
+
+        // Then
+        assertThat(second.withWallTimeMs(0)).isEqualTo(first.withWallTimeMs(0));
+    }
+
+    @Test
+    @DisplayName("Should keep every event on its interval when workers suffice")
+    void shouldKeepUpWithEnoughWorkers() {
+        // When - 100 tasks/s x 50ms median needs ~5 of 20 workers
+        SchedulingSimulation.Report report = SchedulingSimulation.run(BASELINE);
+
+        // Then - each execution drifts by the claim delay, so slightly less than one per interval
+        assertThat(report.coverage()).isBetween(0.9, 1.0);
+        assertThat(report.claimLagP99Ms()).isLessThan(10_000);
+        assertThat(report.expiredLeases()).isZero();
+        assertThat(report.errors()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should claim closer to the due time with the lag controller than with adaptive polling")
+    void shouldCompareSchedulerModes() {
+        // When
+        SchedulingSimulation.Report adaptive = SchedulingSimulation.run(BASELINE);
+        SchedulingSimulation.Report lag = SchedulingSimulation.run(BASELINE.withSchedulerMode("lag"));
+
+        // Then
+        assertThat(lag.claimLagP99Ms()).isLessThan(adaptive.claimLagP99Ms());
+        assertThat(lag.coverage()).isGreaterThan(adaptive.coverage());
+    }
+
+    @Test
+    @DisplayName("Should show the schedule falling behind when the pool is undersized")
+    void shouldFallBehindWithTooFewWorkers() {
+        // When - 2 workers x 50ms serve ~40 tasks/s of the 100 needed
+        SchedulingSimulation.Report report = SchedulingSimulation.run(BASELINE.withWorkers(2));
+
+        // Then
+        assertThat(report.coverage()).isLessThan(0.6);
+        assertThat(report.queueWaitP99Ms()).isGreaterThan(1_000);
+    }
+
+    @Test
+    @DisplayName("Should simulate an hour of 1000 events in a fraction of the real time")
+    void shouldRunFasterThanRealTime() {
+        // When
+        SchedulingSimulation.Report report = SchedulingSimulation.run(BASELINE.withDuration(Duration.ofHours(1)));
+
+        // Then
+        assertThat(report.executions()).isGreaterThan(300_000);
+        assertThat(report.wallTimeMs()).isLessThan(Duration.ofHours(1).toMillis() / 100);
+    }
+}
@@ -0,0 +1,96 @@
+package com.sporty.eventstream.simulation;
+
+import com.sporty.eventstream.model.event.TaskProcessingEvent;
+import com.sporty.eventstream.service.TaskLeaseRenewer;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * Stands in for the async listener on the task executor: receives the {@link TaskProcessingEvent}s the task
+ * service publishes, runs them on a fixed number of virtual workers with FIFO queueing, and completes them
+ * after a provider call drawn from the {@link LatencyModel}. Completion mirrors the listener: mark success or
+ * error with the claim's execution time, then release the lease.
+ */
+public class SimulatedExecutor implements ApplicationEventPublisher {
+
+    private final VirtualTimeline timeline;
+    private final InMemoryTaskStore store;
+    private final TaskLeaseRenewer leases;
+    private final LatencyModel latency;
+    private final Random random;
+    private final int workers;
+
+    private final Queue<TaskProcessingEvent> queue = new ArrayDeque<>();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private int busy;
+    private int maxQueueDepth;
+
+    public SimulatedExecutor(VirtualTimeline timeline, InMemoryTaskStore store, TaskLeaseRenewer leases,
+                             LatencyModel latency, int workers, long seed) {
+        this.timeline = timeline;
+        this.store = store;
+        this.leases = leases;
+        this.latency = latency;
+        this.random = new Random(seed);
+        this.workers = workers;
+    }
+
+    @Override
+    public void publishEvent(Object event) {
+        if (!(event instanceof TaskProcessingEvent task)) {
+            return;
+        }
+        if (busy < workers) {
+            start(task);
+        } else {
+            queue.add(task);
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        }
+    }
+
+    public LatencyHistogram queueWait() {
+        return queueWait;
+    }
+
+    public int maxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    private void start(TaskProcessingEvent task) {
+        busy++;
+        queueWait.record(timeline.millis() - task.processingTime().toEpochMilli());
+        boolean failed = random.nextDouble() < latency.errorRate();
+        timeline.after(latency.sampleMs(random), () -> finish(task, failed));
+    }
+
+    private void finish(TaskProcessingEvent task, boolean failed) {
+        if (failed) {
+            store.markTaskError(task.taskId(), task.processingTime(), task.leaseToken(), "Simulated provider error", false);
+        } else {
+            store.markTaskSuccess(task.taskId(), task.processingTime(), task.leaseToken());
+        }
+        leases.release(task.taskId(), task.leaseToken());
+        busy--;
+        TaskProcessingEvent next = queue.poll();
+        if (next != null) {
+            start(next);
+        }
+    }
+
+    /**
+     * Provider call time as a log-normal distribution given by its median and 99th percentile,
+     * plus a share of calls that fail.
+     */
+    public record LatencyModel(long medianMs, long p99Ms, double errorRate) {
+
+        private static final double Z_99 = 2.326;
+
+        public long sampleMs(Random random) {
+            double sigma = Math.log((double) Math.max(p99Ms, medianMs) / Math.max(1, medianMs)) / Z_99;
+            return Math.max(1, Math.round(medianMs * Math.exp(sigma * random.nextGaussian())));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.sporty.eventstream.simulation;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Task scheduler that puts one-shot schedules on the {@link VirtualTimeline} instead of a thread pool;
+ * it is never initialized, so no threads are started.
+ */
+public class VirtualTaskScheduler extends ThreadPoolTaskScheduler {
+
+    private final VirtualTimeline timeline;
+
+    public VirtualTaskScheduler(VirtualTimeline timeline) {
+        this.timeline = timeline;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Instant startTime) {
+        return timeline.schedule(startTime, task);
+    }
+
+    @Override
+    public Clock getClock() {
+        return timeline;
+    }
+}
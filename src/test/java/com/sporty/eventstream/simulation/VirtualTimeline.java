@@ -0,0 +1,142 @@
+package com.sporty.eventstream.simulation;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual clock and the queue of actions waiting for it.
+ * <p>
+ * Time only moves when {@link #runUntil} takes the next action off the queue, so an action sees the clock at
+ * its own due time however long it takes in reality. Actions due at the same millisecond run in the order they
+ * were scheduled, which keeps runs with the same inputs identical.
+ */
+public class VirtualTimeline extends Clock {
+
+    private final PriorityQueue<TimedAction> queue = new PriorityQueue<>(
+            Comparator.comparingLong((TimedAction a) -> a.atMs).thenComparingLong(a -> a.sequence));
+    private long nowMs;
+    private long sequence;
+
+    public VirtualTimeline(Instant start) {
+        this.nowMs = start.toEpochMilli();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException("The virtual timeline is UTC only");
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(nowMs);
+    }
+
+    @Override
+    public long millis() {
+        return nowMs;
+    }
+
+    /**
+     * Runs {@code action} at {@code time}, or right away (after what is already due) if that is in the past.
+     */
+    public TimedAction schedule(Instant time, Runnable action) {
+        TimedAction timed = new TimedAction(Math.max(nowMs, time.toEpochMilli()), sequence++, action);
+        queue.add(timed);
+        return timed;
+    }
+
+    public TimedAction after(long delayMs, Runnable action) {
+        return schedule(Instant.ofEpochMilli(nowMs + delayMs), action);
+    }
+
+    /**
+     * Runs every action due up to {@code end}, including those they schedule, then moves the clock to {@code end}.
+     *
+     * @return number of actions run
+     */
+    public long runUntil(Instant end) {
+        long endMs = end.toEpochMilli();
+        long run = 0;
+        while (!queue.isEmpty() && queue.peek().atMs <= endMs) {
+            TimedAction next = queue.poll();
+            if (next.cancelled) {
+                continue;
+            }
+            nowMs = next.atMs;
+            next.done = true;
+            next.action.run();
+            run++;
+        }
+        nowMs = Math.max(nowMs, endMs);
+        return run;
+    }
+
+    /**
+     * Handle of a scheduled action; only cancellation and the remaining delay are supported.
+     */
+    public final class TimedAction implements ScheduledFuture<Object> {
+
+        private final long atMs;
+        private final long sequence;
+        private final Runnable action;
+        private boolean cancelled;
+        private boolean done;
+
+        private TimedAction(long atMs, long sequence, Runnable action) {
+            this.atMs = atMs;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(atMs - nowMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (done || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public Object get() {
+            throw new UnsupportedOperationException("Virtual actions cannot be waited for");
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException("Virtual actions cannot be waited for");
+        }
+    }
+}